@@ -0,0 +1,100 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Resolution of addresses against a catalog of the national size (32 states, 2,400 municipals and 300,000
+ * localities with generated names), with and without remembering the name searches. Run it on several threads with
+ * {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dlogback.configurationFile=logback-benchmark.xml"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class AddressResolverBenchmark {
+
+    private static final String[] SYLLABLES = {"san", "ta", "ma", "ri", "co", "hu", "xo", "chi", "pa", "te", "que", "lo",
+            "na", "za", "cal", "tla", "mil", "pan", "ro", "gu"};
+
+    @Param({"0", "200000"})
+    int memoSize;
+
+    private AddressResolver resolver;
+    private AddressQuery[] queries;
+
+    @Setup
+    public void setup() {
+        final var random = new Random(42);
+        final var builder = AddressResolver.builder().memoSize(memoSize);
+        final List<AddressQuery> sample = new ArrayList<>();
+        for (int s = 1; s <= 32; s++) {
+            final String state = String.format("%02d", s);
+            final String stateName = name(random, 2);
+            builder.addStates(List.of(new MxState(state, stateName, "E" + state)));
+            for (int m = 1; m <= 75; m++) {
+                final var municipal = new MxMunicipal(String.format("%03d", m), state, name(random, 3), "0001");
+                final List<MxLocality> localities = new ArrayList<>();
+                for (int l = 1; l <= 125; l++) {
+                    localities.add(new MxLocality(String.format("%04d", l), state, municipal.getId(), name(random, 4),
+                            LocaltyScope.RURAL, 19.0, -99.0));
+                }
+                builder.addMunicipals(List.of(municipal)).addLocalities(localities);
+                // customer addresses repeat a few names per municipal, one in ten with a typo
+                for (int q = 0; q < 4; q++) {
+                    final String locality = localities.get(random.nextInt(localities.size())).getName();
+                    sample.add(AddressQuery.of(q == 0 ? typo(locality) : locality, municipal.getName(), q == 1 ? "E" + state : stateName));
+                }
+            }
+        }
+        resolver = builder.build();
+        queries = sample.toArray(new AddressQuery[0]);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public AddressMatch resolve(Cursor cursor) {
+        final var query = queries[cursor.next];
+        cursor.next = (cursor.next + 1) % queries.length;
+        return resolver.resolve(query);
+    }
+
+    private static String name(Random random, int words) {
+        final var name = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            name.append(w > 0 ? " " : "");
+            final int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                final String syllable = SYLLABLES[random.nextInt(SYLLABLES.length)];
+                name.append(s == 0 && w == 0 ? Character.toUpperCase(syllable.charAt(0)) + syllable.substring(1) : syllable);
+            }
+        }
+        return name.toString();
+    }
+
+    private static String typo(String name) {
+        final int at = name.length() / 2;
+        return name.substring(0, at) + name.substring(at + 1);
+    }
+}
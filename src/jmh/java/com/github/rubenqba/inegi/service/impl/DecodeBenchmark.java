@@ -0,0 +1,94 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Decoding of a localities list: tree binding into {@link InegiServiceImpl.LocaltyDto} followed by the domain
+ * mapping, as the service originally did, against the streaming reader used now.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @Param({"10", "1000", "20000"})
+    int size;
+
+    private byte[] payload;
+    private ObjectMapper objectMapper;
+    private InegiServiceImpl codec;
+    private Request request;
+    private MxMunicipal municipal;
+    private InegiServiceImpl.LocaltyDto dto;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = Fixtures.localities(size);
+        objectMapper = new ObjectMapper();
+        objectMapper.configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true);
+        codec = new InegiServiceImpl(new OkHttpClient());
+        municipal = new MxMunicipal("013", "09", "Xochimilco", "0001");
+        request = codec.mxLocalitiesRequest(municipal);
+        dto = objectMapper.readValue(payload, InegiServiceImpl.LocaltyDto.class);
+    }
+
+    @Benchmark
+    public InegiServiceImpl.LocaltyDto objectMapperLocaltyDto() throws IOException {
+        return objectMapper.readValue(payload, InegiServiceImpl.LocaltyDto.class);
+    }
+
+    @Benchmark
+    public List<MxLocality> localtyDomainMapper() {
+        return dto.getDatos().stream().map(InegiServiceImpl.localtyDomainMapper).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<MxLocality> objectMapperAndDomainMapper() throws IOException {
+        final var decoded = objectMapper.readValue(payload, InegiServiceImpl.LocaltyDto.class);
+        return decoded.getDatos().stream().map(InegiServiceImpl.localtyDomainMapper).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<MxLocality> streamingReader() throws IOException {
+        try (var response = response()) {
+            return codec.mxLocalities(response, municipal);
+        }
+    }
+
+    private Response response() {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(JSON, payload))
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service calls answered by a local mock server, covering request construction, the HTTP exchange and decoding
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    private MockWebServer server;
+    private InegiServiceImpl service;
+    private final MxMunicipal municipal = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
+    @Setup
+    public void setup() throws IOException {
+        final Map<String, byte[]> bodies = Map.of(
+                "/wscatgeo/mgee", Fixtures.states(),
+                "/wscatgeo/localidades/09/013", Fixtures.localities(size),
+                "/wscatgeo/localidades/090130096", Fixtures.locality());
+        server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                final var body = bodies.get(request.getPath());
+                return body == null ? new MockResponse().setResponseCode(404) : new MockResponse().setBody(new Buffer().write(body));
+            }
+        });
+        server.start();
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .url(chain.request().url().newBuilder().scheme("http").host(server.getHostName()).port(server.getPort()).build())
+                        .build()))
+                .build();
+        service = new InegiServiceImpl(client);
+    }
+
+    /**
+     * disables Nagle's algorithm on the server side, otherwise every response waits for the delayed ACK of its
+     * headers and the benchmark measures the TCP stack
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    final var socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public List<MxState> getMxStates() {
+        return service.getMxStates();
+    }
+
+    @Benchmark
+    public List<MxLocality> getMxLocalities() {
+        return service.getMxLocalities(municipal);
+    }
+
+    @Benchmark
+    public Optional<MxLocality> getMxLocality() {
+        return service.getMxLocality("09", "013", "0096");
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * INEGI payloads of several sizes, built from the shape of the recorded responses in {@code src/test/resources/inegi}
+ */
+final class Fixtures {
+
+    private static final String METADATOS = "\"metadatos\":{\"Fecha_Informacion\":\"2010\",\"fechaActualizacion\":\"2020-03-01\","
+            + "\"fuenteInfo\":\"INEGI. Catálogo Único de Claves de Áreas Geoestadísticas\"}";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return the 32 states list ({@code mgee})
+     */
+    static byte[] states() {
+        final var json = new StringBuilder("{\"datos\":[");
+        for (int i = 1; i <= 32; i++) {
+            final String id = String.format("%02d", i);
+            json.append(i > 1 ? "," : "")
+                    .append("{\"cvegeo\":\"").append(id).append("\",\"cve_agee\":\"").append(id)
+                    .append("\",\"nom_agee\":\"Estado ").append(id).append("\",\"nom_abrev\":\"E").append(id)
+                    .append("\",\"pob\":\"1184996\",\"pob_fem\":\"608358\",\"pob_mas\":\"576638\",\"viv\":\"290877\"}");
+        }
+        return json.append("],").append(METADATOS).append(",\"numReg\":32}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param size number of localities, the largest municipalities have a few thousand
+     * @return localities list of municipal 09/013 ({@code localidades})
+     */
+    static byte[] localities(int size) {
+        final var json = new StringBuilder("{\"datos\":[");
+        for (int i = 1; i <= size; i++) {
+            json.append(i > 1 ? "," : "").append(locality(String.format("%04d", i), i % 10 == 0 ? "URBANO" : "RURAL"));
+        }
+        return json.append("],").append(METADATOS).append(",\"numReg\":").append(size).append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return single locality response ({@code localidades/SSMMMLLLL})
+     */
+    static byte[] locality() {
+        return ("{\"datos\":[" + locality("0096", "RURAL") + "]," + METADATOS + ",\"numReg\":1}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String locality(String id, String scope) {
+        return "{\"cvegeo\":\"09013" + id + "\",\"cve_agee\":\"09\",\"nom_agee\":\"Ciudad de México\",\"nom_abrev\":\"CDMX\","
+                + "\"cve_agem\":\"013\",\"nom_agem\":\"Xochimilco\",\"cve_loc\":\"" + id + "\",\"nom_loc\":\"Localidad " + id + "\","
+                + "\"ambito\":\"" + scope + "\",\"latitud\":19.2372167,\"longitud\":-99.0569950,\"lat_decimal\":\"19.2372167\","
+                + "\"lon_decimal\":\"-99.056995\",\"altitud\":\"2380\",\"cve_carta\":\"E14A49\",\"pob_total\":\"110\","
+                + "\"pob_masculina\":\"54\",\"pob_femenina\":\"56\",\"total_de_viviendas_habitadas\":\"26\",\"estatus\":true,\"periodo\":\"2010\"}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Construction of the request of every call from the precompiled {@link InegiEndpoint} templates, against expanding a
+ * {@code UriComponentsBuilder} from the base URL as the service originally did.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+
+    private final InegiServiceImpl codec = new InegiServiceImpl(new OkHttpClient());
+    private final MxMunicipal municipal = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
+    @Benchmark
+    public Request localitiesRequest() {
+        return codec.mxLocalitiesRequest(municipal);
+    }
+
+    @Benchmark
+    public Request localityRequest() {
+        return codec.mxLocalityRequest("09", "013", "0096");
+    }
+
+    @Benchmark
+    public Request localityRequestUriComponents() {
+        final var uriComponents = UriComponentsBuilder.fromHttpUrl(InegiServiceImpl.INEGI_GEO_API).pathSegment("localidades", "{state}{region}{locality}");
+        return new Request.Builder()
+                .url(uriComponents.buildAndExpand("09", "013", "0096").toUriString())
+                .tag(InegiOperation.class, InegiOperation.LOCALITY)
+                .build();
+    }
+}
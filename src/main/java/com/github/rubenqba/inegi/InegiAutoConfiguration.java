@@ -1,19 +1,220 @@
 package com.github.rubenqba.inegi;
 
+import com.github.rubenqba.inegi.metrics.InegiMetrics;
+import com.github.rubenqba.inegi.prewarm.CatalogPrewarmedEvent;
+import com.github.rubenqba.inegi.prewarm.CatalogPrewarmer;
+import com.github.rubenqba.inegi.prewarm.PrewarmHealthIndicator;
+import com.github.rubenqba.inegi.service.AsyncInegiService;
+import com.github.rubenqba.inegi.service.BatchInegiService;
 import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import com.github.rubenqba.inegi.service.impl.AsyncInegiServiceImpl;
+import com.github.rubenqba.inegi.service.impl.BatchInegiServiceImpl;
+import com.github.rubenqba.inegi.service.impl.CachingInegiService;
+import com.github.rubenqba.inegi.service.impl.HttpClientFactory;
+import com.github.rubenqba.inegi.service.impl.IncrementalCatalogService;
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
 import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import com.github.rubenqba.inegi.service.impl.KeyFilteringInegiService;
+import com.github.rubenqba.inegi.service.impl.ResilientInegiServiceImpl;
+import com.github.rubenqba.inegi.snapshot.MappedCatalogService;
+import com.github.rubenqba.inegi.store.CatalogStore;
+import com.github.rubenqba.inegi.store.HttpCatalogStore;
+import com.github.rubenqba.inegi.store.InMemoryCatalogStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
 @Configuration
 @ConditionalOnProperty(name="inegi.enabled", havingValue="true")
+@Slf4j
+@EnableConfigurationProperties(InegiProperties.class)
 public class InegiAutoConfiguration {
 
+    /**
+     * HTTP client used to reach INEGI, an application can provide its own bean with this name
+     */
+    public static final String HTTP_CLIENT = "inegiHttpClient";
+
+    /**
+     * qualifier of the {@link Interceptor} beans added to the HTTP client, in their order
+     */
+    public static final String HTTP_INTERCEPTOR = "inegiHttpInterceptor";
+
+    /**
+     * qualifier of the {@link Executor} completing the futures of the asynchronous service, the common pool by default
+     */
+    public static final String ASYNC_EXECUTOR = "inegiAsyncExecutor";
+
+    @Bean(HTTP_CLIENT)
+    @ConditionalOnMissingBean(name = HTTP_CLIENT)
+    OkHttpClient createHttpClient(InegiProperties properties, @Qualifier(HTTP_INTERCEPTOR) ObjectProvider<Interceptor> interceptors) {
+        if (HttpClientFactory.cleartext(properties.getBaseUrl()) && !properties.getHttp().isCleartext()) {
+            throw new IllegalStateException("inegi.base-url " + properties.getBaseUrl() + " requires inegi.http.cleartext=true");
+        }
+        return HttpClientFactory.create(properties.getHttp(), interceptors.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    CatalogStore createCatalogStore(InegiProperties properties, @Qualifier(HTTP_CLIENT) OkHttpClient client) {
+        final var settings = properties.getStore();
+        switch (settings.getType()) {
+            case MEMORY:
+                return new InMemoryCatalogStore(settings.getTtl(), settings.getMaxEntries());
+            case HTTP:
+                if (Objects.isNull(settings.getUrl())) {
+                    throw new IllegalStateException("inegi.store.url is required by the HTTP catalog store");
+                }
+                return new HttpCatalogStore(client, settings.getUrl(), settings.getTtl(), settings.getTimeout());
+            default:
+                return CatalogStore.NONE;
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    InegiService createService(InegiProperties properties, @Qualifier(HTTP_CLIENT) OkHttpClient client,
+                               ObjectProvider<InegiCallListener> listener, CatalogStore store,
+                               ObjectProvider<ResilientInegiService> resilient) throws IOException {
+        if (Objects.nonNull(properties.getSnapshot().getPath())) {
+            return MappedCatalogService.open(properties.getSnapshot().getPath());
+        }
+        if (properties.getRefresh().isEnabled()) {
+            if (store != CatalogStore.NONE) {
+                log.warn("inegi.store is not used with inegi.refresh, the refreshed catalog is only kept in memory");
+            }
+            final var catalog = new IncrementalCatalogService(codec(properties, client, listener, CatalogStore.NONE));
+            catalog.scheduleRefresh(properties.getRefresh().getInterval());
+            return catalog;
+        }
+        final var available = resilient.getIfAvailable();
+        if (Objects.nonNull(available) && properties.getKeyFilter().isEnabled()) {
+            // single lookups go through the resilient service, so the cache is kept in front of the filter
+            return cached(properties, new KeyFilteringInegiService(available.asInegiService(), available, properties.getKeyFilter()));
+        }
+        final InegiService service = cached(properties, Objects.nonNull(available) ? available.asInegiService()
+                : codec(properties, client, listener, store));
+        if (properties.getKeyFilter().isEnabled()) {
+            return new KeyFilteringInegiService(service, properties.getKeyFilter());
+        }
+        return service;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "inegi.resilience.enabled", havingValue = "true")
+    ResilientInegiService createResilientService(InegiProperties properties, @Qualifier(HTTP_CLIENT) OkHttpClient client,
+                                                 ObjectProvider<InegiCallListener> listener, CatalogStore store) {
+        return new ResilientInegiServiceImpl(codec(properties, client, listener, store),
+                properties.getResilience());
+    }
+
     @Bean
     @ConditionalOnMissingBean
-    InegiService createService() {
-        return new InegiServiceImpl();
+    BatchInegiService createBatchService(InegiService service, InegiProperties properties) {
+        return new BatchInegiServiceImpl(service, properties.getBatch());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    AsyncInegiService createAsyncService(InegiProperties properties, @Qualifier(HTTP_CLIENT) OkHttpClient client,
+                                         ObjectProvider<InegiCallListener> listener,
+                                         @Qualifier(ASYNC_EXECUTOR) ObjectProvider<Executor> executor) {
+        return new AsyncInegiServiceImpl(codec(properties, client, listener, CatalogStore.NONE),
+                executor.getIfAvailable(ForkJoinPool::commonPool));
+    }
+
+    /**
+     * the catalog store is consulted by the synchronous and resilient calls, the refresh and async services call INEGI
+     */
+    private static InegiServiceImpl codec(InegiProperties properties, OkHttpClient client, ObjectProvider<InegiCallListener> listener,
+                                          CatalogStore store) {
+        return new InegiServiceImpl(client, listener.getIfAvailable(() -> InegiCallListener.NONE), properties.getBaseUrl(), store);
+    }
+
+    private static InegiService cached(InegiProperties properties, InegiService service) {
+        return properties.getCache().isEnabled() ? new CachingInegiService(service, properties.getCache()) : service;
+    }
+
+    /**
+     * call metrics, bound to the application registries by the actuator
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        InegiMetrics createMetrics() {
+            return new InegiMetrics();
+        }
+    }
+
+    /**
+     * background load of the whole catalog once the application is ready
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "inegi.prewarm.enabled", havingValue = "true")
+    static class PrewarmConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        CatalogPrewarmer createPrewarmer(InegiService service, InegiProperties properties) {
+            if (!keepsCatalog(properties)) {
+                log.warn("inegi.prewarm.enabled without inegi.cache, inegi.refresh, inegi.snapshot, inegi.store or an HTTP "
+                        + "disk cache: the crawled catalog is not kept and only loads INEGI");
+            }
+            return new CatalogPrewarmer(service, properties.getPrewarm());
+        }
+
+        /**
+         * @return whether the configured services keep the crawled lists
+         */
+        private static boolean keepsCatalog(InegiProperties properties) {
+            // the refresh and the snapshot keep the catalog themselves, every other service goes through the store
+            return properties.getCache().isEnabled() || properties.getRefresh().isEnabled()
+                    || Objects.nonNull(properties.getSnapshot().getPath())
+                    || properties.getStore().getType() != InegiProperties.StoreType.NONE
+                    || Objects.nonNull(properties.getHttp().getDiskCache().getDirectory());
+        }
+
+        @Bean
+        ApplicationListener<ApplicationReadyEvent> prewarmOnReady(CatalogPrewarmer prewarmer, ApplicationEventPublisher publisher) {
+            return event -> prewarmer.start().thenAccept(progress -> publisher.publishEvent(new CatalogPrewarmedEvent(prewarmer, progress)));
+        }
+
+        /**
+         * prewarm health, added when the actuator is available
+         */
+        @Configuration
+        @ConditionalOnClass(HealthIndicator.class)
+        static class PrewarmHealthConfiguration {
+
+            @Bean
+            @ConditionalOnMissingBean(name = "inegiCatalogHealthIndicator")
+            HealthIndicator inegiCatalogHealthIndicator(CatalogPrewarmer prewarmer) {
+                return new PrewarmHealthIndicator(prewarmer);
+            }
+        }
     }
 }
@@ -0,0 +1,352 @@
+package com.github.rubenqba.inegi;
+
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import lombok.Data;
+import okhttp3.Protocol;
+import okhttp3.TlsVersion;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties of the INEGI connector
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "inegi")
+public class InegiProperties {
+
+    /**
+     * enables the connector auto configuration
+     */
+    private boolean enabled;
+
+    /**
+     * base URL of the INEGI catalog service, it can point to a local stand-in
+     */
+    private String baseUrl = InegiServiceImpl.INEGI_GEO_API;
+
+    private Cache cache = new Cache();
+
+    private Snapshot snapshot = new Snapshot();
+
+    private Batch batch = new Batch();
+
+    private Http http = new Http();
+
+    private Refresh refresh = new Refresh();
+
+    private Resilience resilience = new Resilience();
+
+    private Prewarm prewarm = new Prewarm();
+
+    private KeyFilter keyFilter = new KeyFilter();
+
+    private Store store = new Store();
+
+    @Data
+    public static class Cache {
+        /**
+         * wraps the service with an in-process catalog cache
+         */
+        private boolean enabled;
+        /**
+         * time an entry is served before it is considered expired
+         */
+        private Duration ttl = Duration.ofHours(24);
+        /**
+         * age after which an entry is reloaded in background while still being served
+         */
+        private Duration refreshAfter = Duration.ofHours(20);
+        /**
+         * maximum number of cached state entries
+         */
+        private int maxStates = 64;
+        /**
+         * maximum number of cached municipal entries
+         */
+        private int maxMunicipals = 4_096;
+        /**
+         * maximum number of cached locality entries
+         */
+        private int maxLocalities = 10_000;
+        /**
+         * threads used to refresh entries in background
+         */
+        private int refreshThreads = 2;
+    }
+
+    @Data
+    public static class Snapshot {
+        /**
+         * catalog snapshot file, when present the service is answered from it without network access
+         */
+        private Path path;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * maximum number of concurrent requests of a batch lookup
+         */
+        private int parallelism = 8;
+        /**
+         * minimum number of keys sharing a parent to resolve them with a single list request
+         */
+        private int minGroupSize = 2;
+    }
+
+    @Data
+    public static class Refresh {
+        /**
+         * answers from a local copy of the catalog revalidated with conditional requests, instead of the cache
+         */
+        private boolean enabled;
+        /**
+         * time between revalidations of the local copy
+         */
+        private Duration interval = Duration.ofHours(24);
+    }
+
+    @Data
+    public static class Store {
+        /**
+         * store consulted before calling INEGI
+         */
+        private StoreType type = StoreType.NONE;
+        /**
+         * time a stored response is answered before INEGI is called again
+         */
+        private Duration ttl = Duration.ofHours(24);
+        /**
+         * maximum number of responses kept by the in-process store
+         */
+        private int maxEntries = 10_000;
+        /**
+         * base URL of the entries of the HTTP store
+         */
+        private String url;
+        /**
+         * maximum time of every read or write of the HTTP store
+         */
+        private Duration timeout = Duration.ofMillis(500);
+    }
+
+    public enum StoreType {
+        /**
+         * every response is requested to INEGI
+         */
+        NONE,
+        /**
+         * responses are kept in the heap of every node
+         */
+        MEMORY,
+        /**
+         * responses are shared by every node through a key-value HTTP service
+         */
+        HTTP
+    }
+
+    @Data
+    public static class KeyFilter {
+        /**
+         * answers lookups of keys that cannot exist, or were recently not found, without calling INEGI
+         */
+        private boolean enabled;
+        /**
+         * time a key answered as not found is answered empty without calling INEGI again, not found answers are only
+         * told apart from failures when {@code inegi.resilience.enabled} is set
+         */
+        private Duration negativeTtl = Duration.ofMinutes(10);
+        /**
+         * maximum number of keys remembered as not found
+         */
+        private int maxNegativeEntries = 10_000;
+    }
+
+    @Data
+    public static class Prewarm {
+        /**
+         * loads the whole catalog in background once the application is ready, the service should cache it
+         */
+        private boolean enabled;
+        /**
+         * maximum number of concurrent requests of the crawl
+         */
+        private int parallelism = 8;
+        /**
+         * time between progress log lines
+         */
+        private Duration progressInterval = Duration.ofSeconds(10);
+        /**
+         * maximum number of requests of a states or municipals list received empty, including the first one
+         */
+        private int maxAttempts = 3;
+        /**
+         * time before requesting again a list received empty
+         */
+        private Duration retryDelay = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Resilience {
+        /**
+         * answers through hedged, retried requests behind a circuit breaker, falling back to the last good values
+         */
+        private boolean enabled;
+        /**
+         * time without response after which a second identical request is sent, zero disables hedging
+         */
+        private Duration hedgeDelay = Duration.ofSeconds(2);
+        /**
+         * timeout of every request of an attempt, zero means the HTTP client call timeout
+         */
+        private Duration attemptTimeout = Duration.ofSeconds(5);
+        /**
+         * maximum number of attempts of a lookup, including the first one
+         */
+        private int maxAttempts = 3;
+        /**
+         * backoff before the first retry, doubled on every following one
+         */
+        private Duration backoff = Duration.ofMillis(200);
+        /**
+         * maximum backoff between retries
+         */
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        /**
+         * consecutive failed lookups that open the circuit
+         */
+        private int failureThreshold = 5;
+        /**
+         * time the circuit stays open failing fast before INEGI is probed again
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /**
+         * time the last good value of a lookup is kept to be served while INEGI is unavailable
+         */
+        private Duration staleTtl = Duration.ofDays(7);
+        /**
+         * maximum number of last good values kept
+         */
+        private int maxStaleEntries = 10_000;
+    }
+
+    @Data
+    public static class Http {
+        /**
+         * maximum number of idle connections kept in the pool
+         */
+        private int maxIdleConnections = 16;
+        /**
+         * time an idle connection is kept in the pool
+         */
+        private Duration keepAlive = Duration.ofMinutes(5);
+        /**
+         * maximum number of concurrent requests
+         */
+        private int maxRequests = 64;
+        /**
+         * maximum number of concurrent requests to the INEGI host
+         */
+        private int maxRequestsPerHost = 16;
+        /**
+         * connection timeout, zero means no timeout
+         */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        /**
+         * socket read timeout, zero means no timeout
+         */
+        private Duration readTimeout = Duration.ofSeconds(20);
+        /**
+         * timeout of a whole call including redirects and reading the body, zero means no timeout
+         */
+        private Duration callTimeout = Duration.ZERO;
+        /**
+         * protocols offered to the server, in order of preference
+         */
+        private List<Protocol> protocols = List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        /**
+         * TLS versions accepted
+         */
+        private List<TlsVersion> tlsVersions = List.of(TlsVersion.TLS_1_3, TlsVersion.TLS_1_2);
+        /**
+         * allows plain HTTP connections, required by an {@code http:} base URL such as a local stand-in
+         */
+        private boolean cleartext;
+
+        private DiskCache diskCache = new DiskCache();
+
+        private RateLimit rateLimit = new RateLimit();
+    }
+
+    @Data
+    public static class RateLimit {
+        /**
+         * shapes the requests sent to INEGI with a rate per endpoint and an adaptive concurrency limit
+         */
+        private boolean enabled;
+        /**
+         * requests per second sent to every endpoint
+         */
+        private double rate = 20;
+        /**
+         * requests per second of specific endpoints, such as {@code localidades}, overriding the rate
+         */
+        private Map<String, Double> rates = new HashMap<>();
+        /**
+         * requests an endpoint may send at once after being idle
+         */
+        private int burst = 10;
+        /**
+         * concurrency limit at start
+         */
+        private int initialLimit = 4;
+        /**
+         * lowest concurrency limit
+         */
+        private int minLimit = 1;
+        /**
+         * highest concurrency limit
+         */
+        private int maxLimit = 16;
+        /**
+         * factor applied to the concurrency limit on every congested request
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * responses slower than this many times the fastest recent one of their endpoint are congested
+         */
+        private double latencyTolerance = 3;
+        /**
+         * maximum time a request waits to be sent before failing
+         */
+        private Duration maxQueueTime = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class DiskCache {
+        /**
+         * directory of the HTTP response cache, the cache is disabled when it is not set
+         */
+        private Path directory;
+        /**
+         * maximum size of the cache, least recently used responses are evicted beyond it
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        /**
+         * time a cached response is served without contacting INEGI
+         */
+        private Duration maxAge = Duration.ofHours(12);
+        /**
+         * maximum time past expiration a cached response is served while INEGI is failing or unreachable
+         */
+        private Duration staleIfError = Duration.ofDays(30);
+    }
+}
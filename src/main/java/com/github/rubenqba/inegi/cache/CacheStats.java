@@ -0,0 +1,22 @@
+package com.github.rubenqba.inegi.cache;
+
+import lombok.Value;
+
+/**
+ * Snapshot of the counters of a {@link CatalogCache}
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class CacheStats {
+    long hitCount;
+    long missCount;
+    long refreshCount;
+    long evictionCount;
+    int size;
+
+    public double getHitRate() {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.rubenqba.inegi.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache with time to live and refresh-ahead support.
+ * <p>
+ * Entries older than {@code refreshAfter} are still served, but a background reload is scheduled so hot keys
+ * never block on a miss. Entries older than {@code ttl} are considered expired and loaded in the caller thread.
+ * When the cache is full the least recently used entry is evicted.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class CatalogCache<K, V> {
+
+    private final String name;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier ticker;
+
+    private final Map<K, Entry<V>> entries;
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public CatalogCache(String name, Duration ttl, Duration refreshAfter, int maxEntries, Executor refreshExecutor) {
+        this(name, ttl, refreshAfter, maxEntries, refreshExecutor, System::nanoTime);
+    }
+
+    CatalogCache(String name, Duration ttl, Duration refreshAfter, int maxEntries, Executor refreshExecutor, LongSupplier ticker) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.name = Objects.requireNonNull(name);
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = Objects.isNull(refreshAfter) ? Long.MAX_VALUE : refreshAfter.toNanos();
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get cached value or else load it
+     * @param key requested key
+     * @param loader function used to load missing or expired values
+     * @param cacheable only values matching this predicate are stored, others are returned but not cached
+     * @return cached or loaded value
+     */
+    public V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        final long now = ticker.getAsLong();
+        final Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (Objects.nonNull(entry)) {
+            final long age = now - entry.loadedAt;
+            if (age < ttlNanos) {
+                hits.increment();
+                if (age >= refreshAfterNanos) {
+                    scheduleRefresh(key, loader, cacheable);
+                }
+                return entry.value;
+            }
+        }
+        misses.increment();
+        final V value = loader.apply(key);
+        if (cacheable.test(value)) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * get a cached value without loading it, expired values are ignored
+     * @param key requested key
+     * @return cached value, or empty otherwise
+     */
+    public Optional<V> peek(K key) {
+        final Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (Objects.nonNull(entry) && ticker.getAsLong() - entry.loadedAt < ttlNanos) {
+            return Optional.of(entry.value);
+        }
+        return Optional.empty();
+    }
+
+    public void put(K key, V value) {
+        final var entry = new Entry<>(value, ticker.getAsLong());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStats stats() {
+        final int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), refreshes.sum(), evictions.sum(), size);
+    }
+
+    private void scheduleRefresh(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    final V value = loader.apply(key);
+                    if (cacheable.test(value)) {
+                        put(key, value);
+                        refreshes.increment();
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("cache '{}' could not refresh key '{}'", name, key, ex);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key);
+            log.debug("cache '{}' refresh of key '{}' was rejected", name, key);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.rubenqba.inegi.catalog;
+
+import com.github.rubenqba.inegi.domain.CatalogKeys;
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable, memory compact store of localities.
+ * <p>
+ * Localities are kept sorted by their packed {@code SSMMMLLLL} key (see {@link CatalogKeys}) in struct-of-arrays
+ * columns: primitive coordinates ({@code NaN} when missing), a byte scope and an index into a table of interned
+ * names. Single lookups go through a primitive {@code long} keyed hash map, municipal listings are contiguous
+ * ranges of the key column. {@link MxLocality} instances are only created when requested.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class CompactLocalityCatalog {
+
+    private static final byte NO_SCOPE = -1;
+    private static final LocaltyScope[] SCOPES = LocaltyScope.values();
+
+    private final long[] keys;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final byte[] scopes;
+    private final int[] nameIds;
+    private final String[] names;
+    private final LongIntMap index;
+
+    private CompactLocalityCatalog(long[] keys, double[] latitudes, double[] longitudes, byte[] scopes, int[] nameIds, String[] names) {
+        this.keys = keys;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.scopes = scopes;
+        this.nameIds = nameIds;
+        this.names = names;
+        this.index = new LongIntMap(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            index.put(keys[i], i);
+        }
+    }
+
+    public static CompactLocalityCatalog of(Collection<MxLocality> localities) {
+        return builder().addAll(localities).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return number of distinct names
+     */
+    public int nameCount() {
+        return names.length;
+    }
+
+    /**
+     * @param state state id
+     * @param municipal municipal id
+     * @param locality locality id
+     * @return position of the locality, or -1 if it is not in the catalog or the codes are not valid
+     */
+    public int indexOf(String state, String municipal, String locality) {
+        if (!CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS) || !CatalogKeys.isCode(municipal, CatalogKeys.MUNICIPAL_DIGITS)
+                || !CatalogKeys.isCode(locality, CatalogKeys.LOCALITY_DIGITS)) {
+            return LongIntMap.MISSING;
+        }
+        return indexOf(CatalogKeys.locality(state, municipal, locality));
+    }
+
+    /**
+     * @param key packed locality key
+     * @return position of the locality, or -1 if it is not in the catalog
+     */
+    public int indexOf(long key) {
+        return index.get(key);
+    }
+
+    public Optional<MxLocality> get(String state, String municipal, String locality) {
+        final int i = indexOf(state, municipal, locality);
+        return i < 0 ? Optional.empty() : Optional.of(locality(i));
+    }
+
+    /**
+     * get localities of a municipal
+     * @param municipal requested municipal
+     * @return immutable list of localities or else an empty list
+     */
+    public List<MxLocality> localities(MxMunicipal municipal) {
+        if (!CatalogKeys.isCode(municipal.getState(), CatalogKeys.STATE_DIGITS) || !CatalogKeys.isCode(municipal.getId(), CatalogKeys.MUNICIPAL_DIGITS)) {
+            return Collections.emptyList();
+        }
+        final int municipalKey = CatalogKeys.municipal(municipal.getState(), municipal.getId());
+        int i = Arrays.binarySearch(keys, CatalogKeys.firstLocality(municipalKey));
+        i = i < 0 ? -i - 1 : i;
+        final List<MxLocality> result = new ArrayList<>();
+        for (; i < keys.length && CatalogKeys.municipalOf(keys[i]) == municipalKey; i++) {
+            result.add(locality(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * materialize a locality
+     * @param i position of the locality
+     * @return new locality instance
+     */
+    public MxLocality locality(int i) {
+        final long key = keys[i];
+        final int municipalKey = CatalogKeys.municipalOf(key);
+        return new MxLocality(CatalogKeys.localityCode(key), CatalogKeys.stateCode(municipalKey), CatalogKeys.municipalCode(municipalKey),
+                names[nameIds[i]], scope(i), Double.isNaN(latitudes[i]) ? null : latitudes[i], Double.isNaN(longitudes[i]) ? null : longitudes[i]);
+    }
+
+    public long key(int i) {
+        return keys[i];
+    }
+
+    public String name(int i) {
+        return names[nameIds[i]];
+    }
+
+    /**
+     * @param i position of the locality
+     * @return latitude, or {@code NaN} if unknown
+     */
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    /**
+     * @param i position of the locality
+     * @return longitude, or {@code NaN} if unknown
+     */
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+
+    public LocaltyScope scope(int i) {
+        return scopes[i] == NO_SCOPE ? null : SCOPES[scopes[i]];
+    }
+
+    /**
+     * @return approximate heap used by the columns and the key index, excluding name strings
+     */
+    public long estimatedBytes() {
+        return keys.length * (long) (Long.BYTES + 2 * Double.BYTES + 1 + Integer.BYTES)
+                + names.length * (long) Integer.BYTES + index.bytes();
+    }
+
+    /**
+     * Collects localities, later additions replace earlier ones with the same code
+     */
+    public static class Builder {
+        private final Map<Long, MxLocality> localities = new HashMap<>();
+
+        public Builder add(MxLocality locality) {
+            localities.put(CatalogKeys.locality(locality.getState(), locality.getMunicipal(), locality.getId()), locality);
+            return this;
+        }
+
+        public Builder addAll(Collection<MxLocality> localities) {
+            localities.forEach(this::add);
+            return this;
+        }
+
+        public CompactLocalityCatalog build() {
+            final int size = localities.size();
+            final long[] keys = localities.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            final double[] latitudes = new double[size];
+            final double[] longitudes = new double[size];
+            final byte[] scopes = new byte[size];
+            final int[] nameIds = new int[size];
+            final Map<String, Integer> interned = new HashMap<>();
+            final List<String> names = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                final var locality = localities.get(keys[i]);
+                latitudes[i] = Objects.isNull(locality.getLatitude()) ? Double.NaN : locality.getLatitude();
+                longitudes[i] = Objects.isNull(locality.getLongitude()) ? Double.NaN : locality.getLongitude();
+                scopes[i] = Objects.isNull(locality.getScope()) ? NO_SCOPE : (byte) locality.getScope().ordinal();
+                nameIds[i] = interned.computeIfAbsent(Objects.requireNonNullElse(locality.getName(), ""), name -> {
+                    names.add(name);
+                    return names.size() - 1;
+                });
+            }
+            return new CompactLocalityCatalog(keys, latitudes, longitudes, scopes, nameIds, names.toArray(String[]::new));
+        }
+    }
+}
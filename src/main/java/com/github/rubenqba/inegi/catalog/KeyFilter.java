@@ -0,0 +1,111 @@
+package com.github.rubenqba.inegi.catalog;
+
+import com.github.rubenqba.inegi.domain.CatalogKeys;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe filter of catalog keys that cannot exist, answering without any network call.
+ * <p>
+ * Codes must have the INEGI width and be decimal. States are kept in an exact bit set, the 32 federal entities
+ * {@code 01}-{@code 32} until a states list is learnt. Municipals are kept as a sorted code set per state, learnt
+ * from the municipal lists: until the list of a state has been learnt any well formed municipal code of an existing
+ * state may exist. Localities are only checked for their width and their parent municipal, because the locality
+ * lists leave out the localities that are no longer active while single lookups still answer them.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class KeyFilter {
+
+    private static final long FEDERAL_ENTITIES = 0x1_FFFF_FFFEL;
+
+    private volatile long states = FEDERAL_ENTITIES;
+    private final Map<Integer, int[]> municipals = new ConcurrentHashMap<>();
+
+    /**
+     * @param state state code
+     * @return false if the state cannot exist
+     */
+    public boolean mayExist(String state) {
+        if (!CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS)) {
+            return false;
+        }
+        final int code = CatalogKeys.state(state);
+        return code < Long.SIZE && (states & (1L << code)) != 0;
+    }
+
+    /**
+     * @param state state code
+     * @param municipal municipal code
+     * @return false if the municipal cannot exist
+     */
+    public boolean mayExist(String state, String municipal) {
+        if (!mayExist(state) || !CatalogKeys.isCode(municipal, CatalogKeys.MUNICIPAL_DIGITS)) {
+            return false;
+        }
+        final int[] known = municipals.get(CatalogKeys.state(state));
+        return Objects.isNull(known) || Arrays.binarySearch(known, CatalogKeys.municipal(state, municipal)) >= 0;
+    }
+
+    /**
+     * @param state state code
+     * @param municipal municipal code
+     * @param locality locality code
+     * @return false if the locality cannot exist
+     */
+    public boolean mayExist(String state, String municipal, String locality) {
+        return mayExist(state, municipal) && CatalogKeys.isCode(locality, CatalogKeys.LOCALITY_DIGITS);
+    }
+
+    /**
+     * replace the known states, empty lists are ignored
+     * @param list complete states list
+     */
+    public void learnStates(List<MxState> list) {
+        long learnt = 0;
+        for (MxState state : list) {
+            if (!CatalogKeys.isCode(state.getId(), CatalogKeys.STATE_DIGITS) || CatalogKeys.state(state.getId()) >= Long.SIZE) {
+                return;
+            }
+            learnt |= 1L << CatalogKeys.state(state.getId());
+        }
+        if (learnt != 0) {
+            states = learnt;
+        }
+    }
+
+    /**
+     * replace the known municipals of a state, empty lists are ignored
+     * @param state state code
+     * @param list complete municipals list of the state
+     */
+    public void learnMunicipals(String state, List<MxMunicipal> list) {
+        if (list.isEmpty() || !CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS)) {
+            return;
+        }
+        final int[] codes = new int[list.size()];
+        for (int i = 0; i < codes.length; i++) {
+            final var municipal = list.get(i);
+            if (!state.equals(municipal.getState()) || !CatalogKeys.isCode(municipal.getId(), CatalogKeys.MUNICIPAL_DIGITS)) {
+                return;
+            }
+            codes[i] = CatalogKeys.municipal(state, municipal.getId());
+        }
+        Arrays.sort(codes);
+        municipals.put(CatalogKeys.state(state), codes);
+    }
+
+    /**
+     * @return number of states whose municipals are known
+     */
+    public int getLearntStates() {
+        return municipals.size();
+    }
+}
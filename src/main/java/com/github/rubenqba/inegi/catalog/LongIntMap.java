@@ -0,0 +1,71 @@
+package com.github.rubenqba.inegi.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from {@code long} keys to non negative {@code int} values, without boxing. Sized once
+ * at construction, it is filled while building a catalog and then only read, which is thread safe.
+ */
+final class LongIntMap {
+
+    static final int MISSING = -1;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * @param expected expected number of entries, the table is kept at most half full
+     */
+    LongIntMap(int expected) {
+        final int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("reserved key");
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            if (++size > keys.length / 2) {
+                throw new IllegalStateException("map is full");
+            }
+            keys[slot] = key;
+        }
+        values[slot] = value;
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return keys.length * (long) (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
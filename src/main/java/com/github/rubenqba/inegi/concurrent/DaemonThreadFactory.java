@@ -0,0 +1,37 @@
+package com.github.rubenqba.inegi.concurrent;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads named {@code prefix-N}, so the library never keeps the JVM from exiting and its threads are
+ * recognizable in thread dumps. Threads are numbered across every factory of the same prefix.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+    private static final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    private final String prefix;
+    private final AtomicInteger counter;
+
+    /**
+     * @param prefix name of the threads, followed by their number
+     */
+    public DaemonThreadFactory(String prefix) {
+        this.prefix = Objects.requireNonNull(prefix);
+        this.counter = counters.computeIfAbsent(prefix, key -> new AtomicInteger());
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.rubenqba.inegi.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Results of concurrent tasks, handed over in the order the tasks were added.
+ * <p>
+ * Adding a task hands over the oldest results until no more than {@code size} remain pending, waiting for them if
+ * needed, so the memory held depends on the size of the window and not on the number of tasks. Instances are used
+ * by a single thread.
+ *
+ * @param <T> result of a task
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class OrderedWindow<T> {
+
+    private final Deque<Future<T>> pending = new ArrayDeque<>();
+    private final int size;
+
+    /**
+     * @param size maximum number of results pending after a task is added
+     */
+    public OrderedWindow(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Receives the results in order
+     *
+     * @param <T> result of a task
+     * @param <E> failure of the receiver
+     */
+    @FunctionalInterface
+    public interface Sink<T, E extends Exception> {
+        void accept(T result) throws E;
+    }
+
+    /**
+     * add a task and hand over the oldest results while more than {@code size} are pending
+     * @param task future of the task
+     * @param sink receives the results
+     * @throws E if the sink fails
+     * @throws InterruptedException if the caller is interrupted while waiting for a result
+     * @throws ExecutionException if the oldest task failed, its result is not handed over
+     */
+    public <E extends Exception> void add(Future<T> task, Sink<? super T, E> sink) throws E, InterruptedException, ExecutionException {
+        pending.addLast(task);
+        drain(size, sink);
+    }
+
+    /**
+     * hand over every pending result
+     * @param sink receives the results
+     * @throws E if the sink fails
+     * @throws InterruptedException if the caller is interrupted while waiting for a result
+     * @throws ExecutionException if a task failed, its result and the later ones are not handed over
+     */
+    public <E extends Exception> void drain(Sink<? super T, E> sink) throws E, InterruptedException, ExecutionException {
+        drain(0, sink);
+    }
+
+    /**
+     * cancel the pending tasks, interrupting the running ones
+     */
+    public void cancel() {
+        pending.forEach(task -> task.cancel(true));
+        pending.clear();
+    }
+
+    private <E extends Exception> void drain(int window, Sink<? super T, E> sink) throws E, InterruptedException, ExecutionException {
+        while (pending.size() > window) {
+            final var next = pending.peekFirst();
+            final T result = next.get();
+            pending.removeFirst();
+            sink.accept(result);
+        }
+    }
+}
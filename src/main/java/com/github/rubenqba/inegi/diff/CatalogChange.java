@@ -0,0 +1,47 @@
+package com.github.rubenqba.inegi.diff;
+
+import com.github.rubenqba.inegi.search.PlaceKind;
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Change of a catalog record, a record changed in several ways produces one change of every type
+ *
+ * @param <T> record type, {@link com.github.rubenqba.inegi.domain.MxState}, {@link com.github.rubenqba.inegi.domain.MxMunicipal}
+ *            or {@link com.github.rubenqba.inegi.domain.MxLocality}
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class CatalogChange<T> {
+    ChangeType type;
+    PlaceKind kind;
+    /**
+     * state code
+     */
+    String state;
+    /**
+     * municipal code, null for states
+     */
+    String municipal;
+    /**
+     * locality code, null for states and municipals
+     */
+    String locality;
+    /**
+     * record in the older catalog, null when added
+     */
+    T before;
+    /**
+     * record in the newer catalog, null when removed
+     */
+    T after;
+
+    /**
+     * @return record codes joined with {@code /}, for instance {@code 09/013/0001}
+     */
+    public String getKey() {
+        return Objects.isNull(municipal) ? state : Objects.isNull(locality) ? state + "/" + municipal : state + "/" + municipal + "/" + locality;
+    }
+}
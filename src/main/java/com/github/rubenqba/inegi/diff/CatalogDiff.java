@@ -0,0 +1,197 @@
+package com.github.rubenqba.inegi.diff;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.search.PlaceKind;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Compares two versions of the catalog, for instance two snapshots or a snapshot and INEGI, and publishes the changes
+ * of their records.
+ * <p>
+ * Both catalogs are walked together in code order, merging the states, then the municipals of every state and the
+ * localities of every municipal, so only the lists of one municipal are held at a time. The records of an added or
+ * removed state or municipal are published as added or removed too. Changes are published in code order to a
+ * listener, such as a {@link PatchWriter} or an application event publisher.
+ * <p>
+ * The services answer an empty list when INEGI fails, so a state or municipal of both catalogs with children in only
+ * one of them is taken as a list that could not be read: the comparison fails instead of publishing every child as
+ * removed or added.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class CatalogDiff {
+
+    /**
+     * coordinate difference in degrees below which a locality is not moved, about a tenth of a meter
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    private final double tolerance;
+
+    public CatalogDiff() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance coordinate difference in degrees below which a locality is not moved
+     */
+    public CatalogDiff(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * compare two catalogs
+     * @param before older catalog
+     * @param after newer catalog
+     * @param listener listener of every change, called in the caller thread
+     * @return comparison summary
+     * @throws IllegalStateException if either catalog has no states, or a state or municipal of both catalogs has
+     * children in only one of them, usually because they could not be read
+     */
+    public DiffReport compare(InegiService before, InegiService after, Consumer<? super CatalogChange<?>> listener) {
+        final long started = System.nanoTime();
+        final var run = new Run(before, after, listener);
+        final var oldStates = before.getMxStates();
+        final var newStates = after.getMxStates();
+        if (oldStates.isEmpty() || newStates.isEmpty()) {
+            throw new IllegalStateException("a catalog without states can not be compared");
+        }
+        merge(oldStates, newStates, MxState::getId, run::states);
+        final var report = new DiffReport(run.records, Collections.unmodifiableMap(run.changes), Duration.ofNanos(System.nanoTime() - started));
+        log.info("compared {} catalog records in {} ms: {}", report.getRecords(), report.getElapsed().toMillis(), report.getChanges());
+        return report;
+    }
+
+    /**
+     * state of a single comparison
+     */
+    private final class Run {
+        private final InegiService before;
+        private final InegiService after;
+        private final Consumer<? super CatalogChange<?>> listener;
+        private final Map<ChangeType, Long> changes = new EnumMap<>(ChangeType.class);
+        private long records;
+
+        private Run(InegiService before, InegiService after, Consumer<? super CatalogChange<?>> listener) {
+            this.before = before;
+            this.after = after;
+            this.listener = Objects.requireNonNull(listener);
+        }
+
+        private void states(MxState older, MxState newer) {
+            records++;
+            final var state = Objects.isNull(newer) ? older : newer;
+            if (Objects.isNull(older) || Objects.isNull(newer)) {
+                publish(Objects.isNull(older) ? ChangeType.ADDED : ChangeType.REMOVED, PlaceKind.STATE, state.getId(), null, null, older, newer);
+            } else if (!Objects.equals(older.getName(), newer.getName()) || !Objects.equals(older.getAbbreviation(), newer.getAbbreviation())) {
+                publish(ChangeType.RENAMED, PlaceKind.STATE, state.getId(), null, null, older, newer);
+            }
+            final List<MxMunicipal> oldMunicipals = Objects.isNull(older) ? List.of() : before.getMxMunicipals(older);
+            final List<MxMunicipal> newMunicipals = Objects.isNull(newer) ? List.of() : after.getMxMunicipals(newer);
+            readable(older, newer, oldMunicipals, newMunicipals, "state " + state.getId());
+            merge(oldMunicipals, newMunicipals, MxMunicipal::getId, this::municipals);
+        }
+
+        private void municipals(MxMunicipal older, MxMunicipal newer) {
+            records++;
+            final var municipal = Objects.isNull(newer) ? older : newer;
+            if (Objects.isNull(older) || Objects.isNull(newer)) {
+                publish(Objects.isNull(older) ? ChangeType.ADDED : ChangeType.REMOVED, PlaceKind.MUNICIPAL,
+                        municipal.getState(), municipal.getId(), null, older, newer);
+            } else if (!Objects.equals(older.getName(), newer.getName())) {
+                publish(ChangeType.RENAMED, PlaceKind.MUNICIPAL, municipal.getState(), municipal.getId(), null, older, newer);
+            }
+            final List<MxLocality> oldLocalities = Objects.isNull(older) ? List.of() : before.getMxLocalities(older);
+            final List<MxLocality> newLocalities = Objects.isNull(newer) ? List.of() : after.getMxLocalities(newer);
+            readable(older, newer, oldLocalities, newLocalities, "municipal " + municipal.getState() + "/" + municipal.getId());
+            merge(oldLocalities, newLocalities, MxLocality::getId, this::localities);
+        }
+
+        private void localities(MxLocality older, MxLocality newer) {
+            records++;
+            final var locality = Objects.isNull(newer) ? older : newer;
+            final BiConsumer<ChangeType, Boolean> publishIf = (type, changed) -> {
+                if (changed) {
+                    publish(type, PlaceKind.LOCALITY, locality.getState(), locality.getMunicipal(), locality.getId(), older, newer);
+                }
+            };
+            if (Objects.isNull(older) || Objects.isNull(newer)) {
+                publishIf.accept(Objects.isNull(older) ? ChangeType.ADDED : ChangeType.REMOVED, true);
+                return;
+            }
+            publishIf.accept(ChangeType.RENAMED, !Objects.equals(older.getName(), newer.getName()));
+            publishIf.accept(ChangeType.MOVED, moved(older.getLatitude(), newer.getLatitude()) || moved(older.getLongitude(), newer.getLongitude()));
+            publishIf.accept(ChangeType.SCOPE_CHANGED, older.getScope() != newer.getScope());
+        }
+
+        /**
+         * @throws IllegalStateException if the parent is in both catalogs but has children in only one of them
+         */
+        private void readable(Object older, Object newer, List<?> oldChildren, List<?> newChildren, String parent) {
+            if (Objects.nonNull(older) && Objects.nonNull(newer) && oldChildren.isEmpty() != newChildren.isEmpty()) {
+                throw new IllegalStateException("the children of " + parent + " could not be read from the "
+                        + (oldChildren.isEmpty() ? "older" : "newer") + " catalog");
+            }
+        }
+
+        private <T> void publish(ChangeType type, PlaceKind kind, String state, String municipal, String locality, T older, T newer) {
+            changes.merge(type, 1L, Long::sum);
+            listener.accept(new CatalogChange<>(type, kind, state, municipal, locality, older, newer));
+        }
+    }
+
+    private boolean moved(Double older, Double newer) {
+        if (Objects.isNull(older) || Objects.isNull(newer)) {
+            return !Objects.equals(older, newer);
+        }
+        return Math.abs(older - newer) > tolerance;
+    }
+
+    /**
+     * merge two lists in code order, pairing the records with the same code
+     * @param before records of the older catalog
+     * @param after records of the newer catalog
+     * @param code record code, codes have a fixed width so they sort as text
+     * @param pair called with both records, or with null in place of the missing one
+     */
+    private static <T> void merge(List<T> before, List<T> after, Function<T, String> code, BiConsumer<T, T> pair) {
+        final var older = sorted(before, code);
+        final var newer = sorted(after, code);
+        int i = 0;
+        int j = 0;
+        while (i < older.size() || j < newer.size()) {
+            final int order = i == older.size() ? 1 : j == newer.size() ? -1
+                    : code.apply(older.get(i)).compareTo(code.apply(newer.get(j)));
+            if (order < 0) {
+                pair.accept(older.get(i++), null);
+            } else if (order > 0) {
+                pair.accept(null, newer.get(j++));
+            } else {
+                pair.accept(older.get(i++), newer.get(j++));
+            }
+        }
+    }
+
+    private static <T> List<T> sorted(List<T> list, Function<T, String> code) {
+        final var sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.comparing(code));
+        return sorted;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.rubenqba.inegi.diff;
+
+import com.github.rubenqba.inegi.snapshot.MappedCatalogService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Command line comparison of two catalog snapshots, writing their changes as a patch file.
+ * <pre>
+ * java -cp mx-inegi-connector.jar:... com.github.rubenqba.inegi.diff.CatalogDiffCommand &lt;before&gt; &lt;after&gt; &lt;patch&gt;
+ * </pre>
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class CatalogDiffCommand {
+
+    private CatalogDiffCommand() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length != 3) {
+            err.println("usage: CatalogDiffCommand <before snapshot> <after snapshot> <patch>");
+            return 2;
+        }
+        try (var before = MappedCatalogService.open(Paths.get(args[0]));
+             var after = MappedCatalogService.open(Paths.get(args[1]));
+             var output = new BufferedOutputStream(Files.newOutputStream(Paths.get(args[2])));
+             var patch = new PatchWriter(output)) {
+            final var report = new CatalogDiff().compare(before, after, patch);
+            out.printf("compared %d records, %d changes %s written to %s%n", report.getRecords(), report.getTotal(), report.getChanges(), args[2]);
+            return 0;
+        } catch (IOException | UncheckedIOException | IllegalStateException ex) {
+            err.println("comparison failed: " + ex.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.rubenqba.inegi.diff;
+
+/**
+ * Kind of change of a catalog record between two catalog versions
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public enum ChangeType {
+    /**
+     * the record only exists in the newer catalog
+     */
+    ADDED,
+    /**
+     * the record only exists in the older catalog
+     */
+    REMOVED,
+    /**
+     * the name, or the abbreviation of a state, changed
+     */
+    RENAMED,
+    /**
+     * the coordinates of a locality changed
+     */
+    MOVED,
+    /**
+     * the scope of a locality changed
+     */
+    SCOPE_CHANGED
+}
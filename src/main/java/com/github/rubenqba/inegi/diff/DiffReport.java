@@ -0,0 +1,43 @@
+package com.github.rubenqba.inegi.diff;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Summary of a catalog comparison
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class DiffReport {
+    /**
+     * number of records compared, in either catalog
+     */
+    long records;
+    /**
+     * number of changes of every type
+     */
+    Map<ChangeType, Long> changes;
+    /**
+     * duration of the comparison
+     */
+    Duration elapsed;
+
+    /**
+     * @param type change type
+     * @return number of changes of the type
+     */
+    public long count(ChangeType type) {
+        return changes.getOrDefault(type, 0L);
+    }
+
+    /**
+     * @return number of changes
+     */
+    public long getTotal() {
+        return changes.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
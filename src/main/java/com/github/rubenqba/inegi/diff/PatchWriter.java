@@ -0,0 +1,105 @@
+package com.github.rubenqba.inegi.diff;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes catalog changes as a patch file of newline delimited JSON, one change per line:
+ * <pre>
+ * {"change":"moved","kind":"locality","key":"09/013/0096","before":{...},"after":{...}}
+ * </pre>
+ * Records have the fields of the NDJSON catalog export, fields without value are omitted.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class PatchWriter implements Consumer<CatalogChange<?>>, Closeable {
+
+    private static final JsonFactory factory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator json;
+
+    /**
+     * @param output patch output, it is not closed by this writer
+     * @throws IOException if the output can not be written
+     */
+    public PatchWriter(OutputStream output) throws IOException {
+        this.json = factory.createGenerator(output).setRootValueSeparator(null);
+    }
+
+    /**
+     * @param change change to append
+     * @throws UncheckedIOException if the output can not be written
+     */
+    @Override
+    public void accept(CatalogChange<?> change) {
+        try {
+            json.writeStartObject();
+            json.writeStringField("change", change.getType().name().toLowerCase(Locale.ROOT));
+            json.writeStringField("kind", change.getKind().name().toLowerCase(Locale.ROOT));
+            json.writeStringField("key", change.getKey());
+            record("before", change.getBefore());
+            record("after", change.getAfter());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void record(String name, Object record) throws IOException {
+        if (Objects.isNull(record)) {
+            return;
+        }
+        json.writeObjectFieldStart(name);
+        if (record instanceof MxState) {
+            final var state = (MxState) record;
+            field("state", state.getId());
+            field("name", state.getName());
+            field("abbreviation", state.getAbbreviation());
+        } else if (record instanceof MxMunicipal) {
+            final var municipal = (MxMunicipal) record;
+            field("state", municipal.getState());
+            field("municipal", municipal.getId());
+            field("name", municipal.getName());
+            field("principalCity", municipal.getFirstCity());
+        } else {
+            final var locality = (MxLocality) record;
+            field("state", locality.getState());
+            field("municipal", locality.getMunicipal());
+            field("locality", locality.getId());
+            field("name", locality.getName());
+            field("scope", Objects.isNull(locality.getScope()) ? null : locality.getScope().name());
+            if (Objects.nonNull(locality.getLatitude())) {
+                json.writeNumberField("latitude", locality.getLatitude());
+            }
+            if (Objects.nonNull(locality.getLongitude())) {
+                json.writeNumberField("longitude", locality.getLongitude());
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private void field(String name, String value) throws IOException {
+        if (Objects.nonNull(value)) {
+            json.writeStringField(name, value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.rubenqba.inegi.domain;
+
+/**
+ * Numeric representation of INEGI geostatistical codes.
+ * <p>
+ * INEGI codes are fixed width decimal strings: two digits for states, three for municipals and four for
+ * localities. A full locality code fits in a {@code long} as {@code SSMMMLLLL}.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class CatalogKeys {
+
+    public static final int STATE_DIGITS = 2;
+    public static final int MUNICIPAL_DIGITS = 3;
+    public static final int LOCALITY_DIGITS = 4;
+
+    private static final int MUNICIPAL_RADIX = 1_000;
+    private static final int LOCALITY_RADIX = 10_000;
+
+    private CatalogKeys() {
+    }
+
+    /**
+     * check a code has the expected amount of decimal digits
+     * @param code code to check
+     * @param digits expected digits
+     * @return true if code is valid
+     */
+    public static boolean isCode(String code, int digits) {
+        if (code == null || code.length() != digits) {
+            return false;
+        }
+        for (int i = 0; i < digits; i++) {
+            final char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int state(String state) {
+        return parse(state, STATE_DIGITS);
+    }
+
+    public static int municipal(String state, String municipal) {
+        return firstMunicipal(state(state)) + parse(municipal, MUNICIPAL_DIGITS);
+    }
+
+    public static long locality(String state, String municipal, String locality) {
+        return firstLocality(municipal(state, municipal)) + parse(locality, LOCALITY_DIGITS);
+    }
+
+    public static int municipalOf(long localityKey) {
+        return (int) (localityKey / LOCALITY_RADIX);
+    }
+
+    /**
+     * @param stateKey numeric state code
+     * @return lowest municipal key of the state, municipals of the state are the keys from it up to the next state's
+     */
+    public static int firstMunicipal(int stateKey) {
+        return stateKey * MUNICIPAL_RADIX;
+    }
+
+    /**
+     * @param municipalKey packed municipal key
+     * @return lowest locality key of the municipal, localities of the municipal are the keys from it up to the next
+     * municipal's
+     */
+    public static long firstLocality(int municipalKey) {
+        return (long) municipalKey * LOCALITY_RADIX;
+    }
+
+    public static int stateOf(int municipalKey) {
+        return municipalKey / MUNICIPAL_RADIX;
+    }
+
+    public static String stateCode(int municipalKey) {
+        return format(municipalKey / MUNICIPAL_RADIX, STATE_DIGITS);
+    }
+
+    public static String municipalCode(int municipalKey) {
+        return format(municipalKey % MUNICIPAL_RADIX, MUNICIPAL_DIGITS);
+    }
+
+    public static String localityCode(long localityKey) {
+        return format((int) (localityKey % LOCALITY_RADIX), LOCALITY_DIGITS);
+    }
+
+    /**
+     * left pad a code with zeros
+     * @param value numeric code
+     * @param digits code width
+     * @return formatted code
+     */
+    public static String format(int value, int digits) {
+        final char[] chars = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static int parse(String code, int digits) {
+        if (!isCode(code, digits)) {
+            throw new IllegalArgumentException("invalid INEGI code '" + code + "', expected " + digits + " digits");
+        }
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            value = value * 10 + (code.charAt(i) - '0');
+        }
+        return value;
+    }
+}
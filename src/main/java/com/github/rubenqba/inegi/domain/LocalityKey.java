@@ -0,0 +1,21 @@
+package com.github.rubenqba.inegi.domain;
+
+import lombok.Value;
+
+/**
+ * INEGI code of a locality
+ */
+@Value
+public class LocalityKey {
+    String state;
+    String municipal;
+    String locality;
+
+    public static LocalityKey of(MxLocality locality) {
+        return new LocalityKey(locality.getState(), locality.getMunicipal(), locality.getId());
+    }
+
+    public MunicipalKey getMunicipalKey() {
+        return new MunicipalKey(state, municipal);
+    }
+}
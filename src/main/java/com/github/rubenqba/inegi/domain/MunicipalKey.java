@@ -0,0 +1,16 @@
+package com.github.rubenqba.inegi.domain;
+
+import lombok.Value;
+
+/**
+ * INEGI code of a municipal
+ */
+@Value
+public class MunicipalKey {
+    String state;
+    String municipal;
+
+    public static MunicipalKey of(MxMunicipal municipal) {
+        return new MunicipalKey(municipal.getState(), municipal.getId());
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.rubenqba.inegi.export;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.service.impl.HttpClientFactory;
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import com.github.rubenqba.inegi.service.impl.ResilientInegiServiceImpl;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Command line catalog export.
+ * <pre>
+ * java -cp mx-inegi-connector.jar:... com.github.rubenqba.inegi.export.CatalogExportCommand \
+ *     [--format ndjson|csv] [--gzip] [--parallelism 8] [--checkpoint-every 100] [--base-url URL] &lt;output&gt;
+ * </pre>
+ * Running the same command again after a failure resumes the export.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class CatalogExportCommand {
+
+    private CatalogExportCommand() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        var format = ExportFormat.NDJSON;
+        var gzip = false;
+        var parallelism = 8;
+        var checkpointEvery = 100;
+        var baseUrl = InegiServiceImpl.INEGI_GEO_API;
+        Path output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format":
+                        format = ExportFormat.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                        break;
+                    case "--gzip":
+                        gzip = true;
+                        break;
+                    case "--parallelism":
+                        parallelism = Integer.parseInt(args[++i]);
+                        break;
+                    case "--checkpoint-every":
+                        checkpointEvery = Integer.parseInt(args[++i]);
+                        break;
+                    case "--base-url":
+                        baseUrl = args[++i];
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || Objects.nonNull(output)) {
+                            throw new IllegalArgumentException("unexpected argument '" + args[i] + "'");
+                        }
+                        output = Paths.get(args[i]);
+                }
+            }
+            if (Objects.isNull(output)) {
+                throw new IllegalArgumentException("missing output file");
+            }
+        } catch (RuntimeException ex) {
+            err.println(ex.getMessage());
+            err.println("usage: CatalogExportCommand [--format ndjson|csv] [--gzip] [--parallelism N] [--checkpoint-every N] [--base-url URL] <output>");
+            return 2;
+        }
+        try (var service = new ResilientInegiServiceImpl(
+                new InegiServiceImpl(HttpClientFactory.shared(baseUrl), InegiCallListener.NONE, baseUrl), new InegiProperties.Resilience());
+             var exporter = new CatalogExporter(service, parallelism, checkpointEvery)) {
+            final var report = exporter.export(output, format, gzip);
+            out.printf("exported %d records (%d bytes) to %s in %d s%n",
+                    report.getRecords(), report.getBytes(), report.getOutput(), report.getElapsed().toSeconds());
+            return 0;
+        } catch (IOException ex) {
+            err.println("export failed, run again to resume: " + ex.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.github.rubenqba.inegi.export;
+
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.concurrent.OrderedWindow;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Exports the whole catalog to a file, streaming it in catalog order: the states, then for every state its
+ * municipals followed by the localities of each of them.
+ * <p>
+ * The localities of up to {@code parallelism} municipals are downloaded and encoded concurrently while the
+ * already finished ones are written in order, so memory use depends on the parallelism and not on the size of the
+ * catalog. Every {@code checkpointEvery} lists the file is made durable and its progress recorded in a
+ * {@code .checkpoint} file next to it. When INEGI becomes unavailable the export stops, and running it again with the
+ * same file and format resumes after the last list written. The checkpoint is deleted once the export completes.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class CatalogExporter implements Closeable {
+
+    private final ResilientInegiService service;
+    private final int parallelism;
+    private final int checkpointEvery;
+    private final ExecutorService executor;
+
+    /**
+     * @param service service used to download the catalog, it tells unavailable lists apart from empty ones
+     * @param parallelism maximum number of lists downloaded concurrently
+     * @param checkpointEvery number of lists written between checkpoints
+     */
+    public CatalogExporter(ResilientInegiService service, int parallelism, int checkpointEvery) {
+        if (parallelism <= 0 || checkpointEvery <= 0) {
+            throw new IllegalArgumentException("parallelism and checkpointEvery must be positive");
+        }
+        this.service = Objects.requireNonNull(service);
+        this.parallelism = parallelism;
+        this.checkpointEvery = checkpointEvery;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("inegi-export"));
+    }
+
+    /**
+     * Summary of an export
+     */
+    @Value
+    public static class ExportReport {
+        /**
+         * export file
+         */
+        Path output;
+        /**
+         * whether the export resumed a previous interrupted one
+         */
+        boolean resumed;
+        /**
+         * number of lists written by this run
+         */
+        long units;
+        /**
+         * number of records in the file
+         */
+        long records;
+        /**
+         * size of the file
+         */
+        long bytes;
+        /**
+         * duration of this run
+         */
+        Duration elapsed;
+    }
+
+    /**
+     * export the catalog, resuming a previous export of the same file and format if it was interrupted
+     * @param output export file
+     * @param format export format
+     * @param gzip compress the file
+     * @return export summary
+     * @throws IOException if the file can not be written or INEGI is unavailable, a later call resumes the export
+     */
+    public ExportReport export(Path output, ExportFormat format, boolean gzip) throws IOException {
+        final long started = System.nanoTime();
+        final var checkpointFile = ExportCheckpoint.of(output);
+        var checkpoint = ExportCheckpoint.read(checkpointFile).orElse(null);
+        if (Objects.nonNull(checkpoint) && (!checkpoint.matches(format, gzip) || !Files.exists(output))) {
+            log.warn("checkpoint of '{}' does not match the requested export, starting again", output);
+            checkpoint = null;
+        }
+        if (Objects.nonNull(checkpoint)) {
+            log.info("resuming export of '{}' after {} lists", output, checkpoint.getUnits());
+        }
+        final var run = new Run(format, gzip, checkpoint, checkpointFile);
+        try (var out = ExportOutput.open(output, gzip, Objects.isNull(checkpoint) ? 0 : checkpoint.getOffset())) {
+            run.out = out;
+            if (Objects.isNull(checkpoint)) {
+                out.write(format.header());
+            }
+            try {
+                run.plan();
+                run.drain();
+            } catch (IOException | RuntimeException ex) {
+                run.cancel();
+                run.checkpoint();
+                throw ex;
+            }
+            if (Objects.nonNull(run.skipUntil)) {
+                throw new IllegalStateException("checkpoint list '" + run.skipUntil + "' is no longer in the catalog, delete '"
+                        + checkpointFile + "' to export again");
+            }
+        }
+        Files.deleteIfExists(checkpointFile);
+        final var report = new ExportReport(output, Objects.nonNull(checkpoint), run.written, run.records, Files.size(output),
+                Duration.ofNanos(System.nanoTime() - started));
+        log.info("exported {} records to '{}' in {} ms", report.records, output, report.elapsed.toMillis());
+        return report;
+    }
+
+    /**
+     * encoded records of a downloaded list
+     */
+    @Value
+    private static class Chunk {
+        String unit;
+        byte[] content;
+        int records;
+    }
+
+    /**
+     * state of a single export
+     */
+    private final class Run {
+        private final ExportFormat format;
+        private final boolean gzip;
+        private final Path checkpointFile;
+        private final OrderedWindow<Chunk> pending = new OrderedWindow<>(parallelism * 2);
+        private ExportOutput out;
+        private String skipUntil;
+        private String skipState;
+        private String lastUnit;
+        private long units;
+        private long records;
+        private long written;
+
+        private Run(ExportFormat format, boolean gzip, ExportCheckpoint checkpoint, Path checkpointFile) {
+            this.format = format;
+            this.gzip = gzip;
+            this.checkpointFile = checkpointFile;
+            if (Objects.nonNull(checkpoint)) {
+                skipUntil = checkpoint.getUnit();
+                skipState = checkpoint.getState();
+                lastUnit = checkpoint.getUnit();
+                units = checkpoint.getUnits();
+                records = checkpoint.getRecords();
+            }
+        }
+
+        /**
+         * walk the catalog tree, scheduling the lists that have not been written yet
+         */
+        private void plan() throws IOException {
+            final var states = require("mgee", service.getMxStates());
+            schedule("mgee", () -> encode("mgee", writer -> {
+                for (MxState state : states) {
+                    writer.write(state);
+                }
+            }, states.size()));
+            for (MxState state : states) {
+                if (Objects.nonNull(skipState) && !skipState.equals(state.getId())) {
+                    continue;
+                }
+                skipState = null;
+                final String unit = "mgem/" + state.getId();
+                final var municipals = require(unit, service.getMxMunicipals(state));
+                schedule(unit, () -> encode(unit, writer -> {
+                    for (MxMunicipal municipal : municipals) {
+                        writer.write(municipal);
+                    }
+                }, municipals.size()));
+                for (MxMunicipal municipal : municipals) {
+                    final String localities = "localidades/" + state.getId() + "/" + municipal.getId();
+                    schedule(localities, () -> {
+                        final var list = require(localities, service.getMxLocalities(municipal));
+                        return encode(localities, writer -> {
+                            for (MxLocality locality : list) {
+                                writer.write(locality);
+                            }
+                        }, list.size());
+                    });
+                }
+            }
+        }
+
+        private void schedule(String unit, Callable<Chunk> task) throws IOException {
+            if (Objects.nonNull(skipUntil)) {
+                if (skipUntil.equals(unit)) {
+                    skipUntil = null;
+                }
+                return;
+            }
+            try {
+                pending.add(executor.submit(task), this::write);
+            } catch (InterruptedException | ExecutionException ex) {
+                throw failure(ex);
+            }
+        }
+
+        /**
+         * write the lists still pending
+         */
+        private void drain() throws IOException {
+            try {
+                pending.drain(this::write);
+            } catch (InterruptedException | ExecutionException ex) {
+                throw failure(ex);
+            }
+        }
+
+        private void write(Chunk chunk) throws IOException {
+            out.write(chunk.content);
+            lastUnit = chunk.unit;
+            units++;
+            written++;
+            records += chunk.records;
+            if (units % checkpointEvery == 0) {
+                checkpoint();
+            }
+        }
+
+        private IOException failure(Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return new IOException("export interrupted", ex);
+            }
+            if (ex.getCause() instanceof IOException) {
+                return (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof UncheckedIOException) {
+                return ((UncheckedIOException) ex.getCause()).getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        private void checkpoint() throws IOException {
+            final long offset = out.checkpoint();
+            if (Objects.nonNull(lastUnit)) {
+                new ExportCheckpoint(format, gzip, lastUnit, units, records, offset).write(checkpointFile);
+                log.debug("export checkpoint after '{}', {} records", lastUnit, records);
+            }
+        }
+
+        private Chunk encode(String unit, Records records, int count) throws IOException {
+            final var content = new ByteArrayOutputStream();
+            try (var writer = format.writer(content)) {
+                records.writeTo(writer);
+            }
+            return new Chunk(unit, content.toByteArray(), count);
+        }
+
+        private void cancel() {
+            pending.cancel();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Records {
+        void writeTo(RecordWriter writer) throws IOException;
+    }
+
+    private static <T> List<T> require(String unit, InegiResult<List<T>> result) throws IOException {
+        if (result.getStatus() == InegiResult.Status.UNAVAILABLE) {
+            throw new IOException("INEGI is unavailable, list '" + unit + "' could not be exported");
+        }
+        return result.getValue();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.rubenqba.inegi.export;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * RFC 4180 comma separated values, values are quoted only when needed
+ */
+final class CsvRecordWriter implements RecordWriter {
+
+    static final String HEADER = "type,state,municipal,locality,name,abbreviation,principal_city,scope,latitude,longitude\n";
+
+    private final Writer csv;
+
+    CsvRecordWriter(OutputStream output) {
+        this.csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(MxState state) throws IOException {
+        row("state", state.getId(), null, null, state.getName(), state.getAbbreviation(), null, null, null, null);
+    }
+
+    @Override
+    public void write(MxMunicipal municipal) throws IOException {
+        row("municipal", municipal.getState(), municipal.getId(), null, municipal.getName(), null, municipal.getFirstCity(), null, null, null);
+    }
+
+    @Override
+    public void write(MxLocality locality) throws IOException {
+        row("locality", locality.getState(), locality.getMunicipal(), locality.getId(), locality.getName(), null, null,
+                Objects.isNull(locality.getScope()) ? null : locality.getScope().name(), locality.getLatitude(), locality.getLongitude());
+    }
+
+    private void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            if (Objects.nonNull(values[i])) {
+                value(values[i].toString());
+            }
+        }
+        csv.write('\n');
+    }
+
+    private void value(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        csv.flush();
+    }
+}
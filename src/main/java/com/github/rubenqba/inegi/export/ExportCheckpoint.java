@@ -0,0 +1,94 @@
+package com.github.rubenqba.inegi.export;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Progress of an interrupted export, stored next to the export file
+ */
+@Value
+class ExportCheckpoint {
+
+    ExportFormat format;
+    boolean gzip;
+    /**
+     * last unit written, as {@code mgee}, {@code mgem/SS} or {@code localidades/SS/MMM}
+     */
+    String unit;
+    /**
+     * number of units written
+     */
+    long units;
+    /**
+     * number of records written
+     */
+    long records;
+    /**
+     * size of the export file once the last unit was written
+     */
+    long offset;
+
+    static Path of(Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    boolean matches(ExportFormat format, boolean gzip) {
+        return this.format == format && this.gzip == gzip;
+    }
+
+    /**
+     * @return state of the last unit written, or null if it was the states list
+     */
+    String getState() {
+        final var parts = unit.split("/");
+        return parts.length > 1 ? parts[1] : null;
+    }
+
+    static Optional<ExportCheckpoint> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        final var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return Optional.of(new ExportCheckpoint(
+                    ExportFormat.valueOf(properties.getProperty("format")),
+                    Boolean.parseBoolean(properties.getProperty("gzip")),
+                    properties.getProperty("unit"),
+                    Long.parseLong(properties.getProperty("units")),
+                    Long.parseLong(properties.getProperty("records")),
+                    Long.parseLong(properties.getProperty("offset"))));
+        } catch (RuntimeException ex) {
+            throw new IOException("invalid export checkpoint '" + file + "'", ex);
+        }
+    }
+
+    void write(Path file) throws IOException {
+        final var properties = new Properties();
+        properties.setProperty("format", format.name());
+        properties.setProperty("gzip", Boolean.toString(gzip));
+        properties.setProperty("unit", unit);
+        properties.setProperty("units", Long.toString(units));
+        properties.setProperty("records", Long.toString(records));
+        properties.setProperty("offset", Long.toString(offset));
+        final var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "INEGI catalog export checkpoint");
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.rubenqba.inegi.export;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Output formats of the catalog export
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public enum ExportFormat {
+    /**
+     * one JSON object per line, with a {@code type} field telling states, municipals and localities apart
+     */
+    NDJSON("", JsonRecordWriter::new),
+    /**
+     * comma separated values with a header line, the {@code type} column tells states, municipals and localities
+     * apart and the columns that do not apply to a type are left empty
+     */
+    CSV(CsvRecordWriter.HEADER, CsvRecordWriter::new);
+
+    private final byte[] header;
+    private final Function<OutputStream, RecordWriter> writers;
+
+    ExportFormat(String header, Function<OutputStream, RecordWriter> writers) {
+        this.header = header.getBytes(StandardCharsets.UTF_8);
+        this.writers = writers;
+    }
+
+    byte[] header() {
+        return header.clone();
+    }
+
+    RecordWriter writer(OutputStream output) {
+        return writers.apply(output);
+    }
+}
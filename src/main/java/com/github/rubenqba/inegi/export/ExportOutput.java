@@ -0,0 +1,98 @@
+package com.github.rubenqba.inegi.export;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export file that can be cut at checkpoints and appended to when an export resumes.
+ * <p>
+ * Compressed files are written as a sequence of gzip members, one per checkpoint. A concatenation of members is
+ * itself a valid gzip file, so the file can be truncated at a checkpoint offset and written again from there.
+ */
+final class ExportOutput implements Closeable {
+
+    private final FileChannel channel;
+    private final OutputStream buffered;
+    private final boolean gzip;
+    private GZIPOutputStream member;
+
+    private ExportOutput(FileChannel channel, boolean gzip) {
+        this.channel = channel;
+        this.buffered = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param path export file
+     * @param gzip compress the file
+     * @param offset checkpoint offset to resume from, anything past it is discarded
+     * @return output positioned at the offset
+     * @throws IOException if the file can not be opened
+     */
+    static ExportOutput open(Path path, boolean gzip, long offset) throws IOException {
+        final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < offset) {
+                throw new IOException("'" + path + "' is shorter than its checkpoint, it can not be resumed");
+            }
+            channel.truncate(offset);
+            channel.position(offset);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        return new ExportOutput(channel, gzip);
+    }
+
+    void write(byte[] content) throws IOException {
+        if (!gzip) {
+            buffered.write(content);
+            return;
+        }
+        if (Objects.isNull(member)) {
+            member = new GZIPOutputStream(new FilterOutputStream(buffered) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    // the file stays open for the next member
+                }
+            }, 64 * 1024);
+        }
+        member.write(content);
+    }
+
+    /**
+     * make everything written so far durable
+     * @return offset of the end of the written content
+     * @throws IOException if the file can not be written
+     */
+    long checkpoint() throws IOException {
+        if (Objects.nonNull(member)) {
+            member.finish();
+            member = null;
+        }
+        buffered.flush();
+        channel.force(false);
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            checkpoint();
+        }
+    }
+}
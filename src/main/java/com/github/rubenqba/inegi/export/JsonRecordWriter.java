@@ -0,0 +1,86 @@
+package com.github.rubenqba.inegi.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * newline delimited JSON, fields without value are omitted
+ */
+final class JsonRecordWriter implements RecordWriter {
+
+    private static final JsonFactory factory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator json;
+
+    JsonRecordWriter(OutputStream output) {
+        try {
+            this.json = factory.createGenerator(output);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void write(MxState state) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "state");
+        field("state", state.getId());
+        field("name", state.getName());
+        field("abbreviation", state.getAbbreviation());
+        end();
+    }
+
+    @Override
+    public void write(MxMunicipal municipal) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "municipal");
+        field("state", municipal.getState());
+        field("municipal", municipal.getId());
+        field("name", municipal.getName());
+        field("principalCity", municipal.getFirstCity());
+        end();
+    }
+
+    @Override
+    public void write(MxLocality locality) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "locality");
+        field("state", locality.getState());
+        field("municipal", locality.getMunicipal());
+        field("locality", locality.getId());
+        field("name", locality.getName());
+        field("scope", Objects.isNull(locality.getScope()) ? null : locality.getScope().name());
+        if (Objects.nonNull(locality.getLatitude())) {
+            json.writeNumberField("latitude", locality.getLatitude());
+        }
+        if (Objects.nonNull(locality.getLongitude())) {
+            json.writeNumberField("longitude", locality.getLongitude());
+        }
+        end();
+    }
+
+    private void field(String name, String value) throws IOException {
+        if (Objects.nonNull(value)) {
+            json.writeStringField(name, value);
+        }
+    }
+
+    private void end() throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
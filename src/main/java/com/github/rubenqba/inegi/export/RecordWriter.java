@@ -0,0 +1,20 @@
+package com.github.rubenqba.inegi.export;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * writes catalog records in an export format, closing it flushes but does not close the underlying stream
+ */
+interface RecordWriter extends Closeable {
+
+    void write(MxState state) throws IOException;
+
+    void write(MxMunicipal municipal) throws IOException;
+
+    void write(MxLocality locality) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.github.rubenqba.inegi.geo;
+
+import lombok.Value;
+
+/**
+ * Geometry of a geostatistical area, as a state or a municipal
+ *
+ * @param <T> area type
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class Boundary<T> {
+    T area;
+    MultiPolygon geometry;
+}
@@ -0,0 +1,53 @@
+package com.github.rubenqba.inegi.geo;
+
+/**
+ * Great circle distances over a spherical earth
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class GeoDistance {
+
+    /**
+     * mean earth radius in kilometers
+     */
+    public static final double EARTH_RADIUS_KM = 6_371.0088;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * haversine distance between two coordinates
+     * @param lat1 latitude of first point in degrees
+     * @param lon1 longitude of first point in degrees
+     * @param lat2 latitude of second point in degrees
+     * @param lon2 longitude of second point in degrees
+     * @return distance in kilometers
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        final double dLat = Math.toRadians(lat2 - lat1);
+        final double dLon = Math.toRadians(lon2 - lon1);
+        final double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * convert the squared chord between two points of the unit sphere into a great circle distance, this is the
+     * haversine distance since {@code hav(d/R) = (chord/2)^2}
+     * @param chord2 squared chord length on the unit sphere
+     * @return distance in kilometers
+     */
+    static double chord2ToKm(double chord2) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(chord2) / 2));
+    }
+
+    /**
+     * @param km great circle distance in kilometers
+     * @return squared chord length on the unit sphere
+     */
+    static double kmToChord2(double km) {
+        final double angle = Math.min(Math.PI, km / EARTH_RADIUS_KM);
+        final double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+}
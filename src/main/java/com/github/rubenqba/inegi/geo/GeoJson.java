@@ -0,0 +1,55 @@
+package com.github.rubenqba.inegi.geo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads GeoJSON {@code Polygon} and {@code MultiPolygon} geometries
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class GeoJson {
+
+    private GeoJson() {
+    }
+
+    /**
+     * @param geometry GeoJSON geometry object
+     * @param tolerance simplification tolerance in degrees
+     * @return area
+     * @throws IllegalArgumentException if the geometry is not a polygon or a multipolygon
+     */
+    public static MultiPolygon multiPolygon(JsonNode geometry, double tolerance) {
+        final List<double[]> rings = new ArrayList<>();
+        final var type = geometry.path("type").asText();
+        final var coordinates = geometry.path("coordinates");
+        switch (type) {
+            case "Polygon":
+                polygon(coordinates, rings);
+                break;
+            case "MultiPolygon":
+                for (JsonNode polygon : coordinates) {
+                    polygon(polygon, rings);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported geometry type '" + type + "'");
+        }
+        return MultiPolygon.of(rings, tolerance);
+    }
+
+    private static void polygon(JsonNode polygon, List<double[]> rings) {
+        for (JsonNode ring : polygon) {
+            final double[] points = new double[ring.size() * 2];
+            int i = 0;
+            for (JsonNode position : ring) {
+                points[i++] = position.get(0).asDouble();
+                points[i++] = position.get(1).asDouble();
+            }
+            rings.add(points);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.github.rubenqba.inegi.geo;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable spatial index of localities answering nearest neighbour and radius queries.
+ * <p>
+ * Coordinates are projected on the unit sphere and kept in primitive arrays laid out as an implicit KD-tree, so
+ * euclidean chord distances order points exactly like haversine distances. Queries write into a reusable
+ * {@link Hits} buffer and do not allocate. The index is thread safe, buffers are not.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class LocalityIndex {
+
+    private static final int DIMENSIONS = 3;
+
+    private final MxLocality[] localities;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    private LocalityIndex(MxLocality[] localities) {
+        final int size = localities.length;
+        this.localities = localities;
+        this.x = new double[size];
+        this.y = new double[size];
+        this.z = new double[size];
+        for (int i = 0; i < size; i++) {
+            project(localities[i].getLatitude(), localities[i].getLongitude(), x, y, z, i);
+        }
+        build(0, size, 0);
+    }
+
+    /**
+     * build an index, localities without coordinates are ignored
+     * @param localities indexed localities, e.g. the result of {@code getMxLocalities}
+     * @return spatial index
+     */
+    public static LocalityIndex of(Collection<MxLocality> localities) {
+        final List<MxLocality> located = new ArrayList<>(localities.size());
+        for (MxLocality locality : localities) {
+            if (Objects.nonNull(locality.getLatitude()) && Objects.nonNull(locality.getLongitude())) {
+                located.add(locality);
+            }
+        }
+        return new LocalityIndex(located.toArray(MxLocality[]::new));
+    }
+
+    public int size() {
+        return localities.length;
+    }
+
+    /**
+     * create a result buffer
+     * @param capacity initial capacity, nearest queries return at most this many hits
+     * @return reusable buffer
+     */
+    public Hits newHits(int capacity) {
+        return new Hits(this, capacity);
+    }
+
+    /**
+     * find the nearest localities to a coordinate
+     * @param latitude query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param hits buffer receiving up to {@link Hits#capacity()} localities, sorted by distance
+     * @return number of hits
+     */
+    public int nearest(double latitude, double longitude, Hits hits) {
+        hits.reset(this);
+        if (hits.capacity() == 0) {
+            return 0;
+        }
+        final double lat = Math.toRadians(latitude);
+        final double lon = Math.toRadians(longitude);
+        final double qx = Math.cos(lat) * Math.cos(lon);
+        final double qy = Math.cos(lat) * Math.sin(lon);
+        final double qz = Math.sin(lat);
+        nearest(0, localities.length, 0, qx, qy, qz, hits);
+        hits.finish();
+        return hits.size;
+    }
+
+    /**
+     * find the localities within a distance of a coordinate
+     * @param latitude query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param radiusKm search radius in kilometers
+     * @param hits buffer receiving every locality within the radius, sorted by distance. It grows when needed
+     * @return number of hits
+     */
+    public int within(double latitude, double longitude, double radiusKm, Hits hits) {
+        hits.reset(this);
+        final double lat = Math.toRadians(latitude);
+        final double lon = Math.toRadians(longitude);
+        final double qx = Math.cos(lat) * Math.cos(lon);
+        final double qy = Math.cos(lat) * Math.sin(lon);
+        final double qz = Math.sin(lat);
+        within(0, localities.length, 0, qx, qy, qz, GeoDistance.kmToChord2(radiusKm), hits);
+        hits.finish();
+        return hits.size;
+    }
+
+    private void nearest(int low, int high, int depth, double qx, double qy, double qz, Hits hits) {
+        if (low >= high) {
+            return;
+        }
+        final int mid = (low + high) >>> 1;
+        hits.offer(mid, distance2(mid, qx, qy, qz));
+        final double diff = axisDistance(mid, depth, qx, qy, qz);
+        if (diff < 0) {
+            nearest(low, mid, depth + 1, qx, qy, qz, hits);
+            if (diff * diff < hits.worst()) {
+                nearest(mid + 1, high, depth + 1, qx, qy, qz, hits);
+            }
+        } else {
+            nearest(mid + 1, high, depth + 1, qx, qy, qz, hits);
+            if (diff * diff < hits.worst()) {
+                nearest(low, mid, depth + 1, qx, qy, qz, hits);
+            }
+        }
+    }
+
+    private void within(int low, int high, int depth, double qx, double qy, double qz, double radius2, Hits hits) {
+        if (low >= high) {
+            return;
+        }
+        final int mid = (low + high) >>> 1;
+        final double d2 = distance2(mid, qx, qy, qz);
+        if (d2 <= radius2) {
+            hits.add(mid, d2);
+        }
+        final double diff = axisDistance(mid, depth, qx, qy, qz);
+        if (diff < 0 || diff * diff <= radius2) {
+            within(low, mid, depth + 1, qx, qy, qz, radius2, hits);
+        }
+        if (diff >= 0 || diff * diff <= radius2) {
+            within(mid + 1, high, depth + 1, qx, qy, qz, radius2, hits);
+        }
+    }
+
+    private double distance2(int i, double qx, double qy, double qz) {
+        final double dx = x[i] - qx;
+        final double dy = y[i] - qy;
+        final double dz = z[i] - qz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private double axisDistance(int i, int depth, double qx, double qy, double qz) {
+        switch (depth % DIMENSIONS) {
+            case 0: return qx - x[i];
+            case 1: return qy - y[i];
+            default: return qz - z[i];
+        }
+    }
+
+    private double coordinate(int i, int axis) {
+        switch (axis) {
+            case 0: return x[i];
+            case 1: return y[i];
+            default: return z[i];
+        }
+    }
+
+    /**
+     * arrange [low, high) so its middle element splits the range on the depth axis, then recurse on both halves
+     */
+    private void build(int low, int high, int depth) {
+        if (high - low <= 1) {
+            return;
+        }
+        final int mid = (low + high) >>> 1;
+        select(low, high - 1, mid, depth % DIMENSIONS);
+        build(low, mid, depth + 1);
+        build(mid + 1, high, depth + 1);
+    }
+
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            final double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        final var locality = localities[i];
+        localities[i] = localities[j];
+        localities[j] = locality;
+        swap(x, i, j);
+        swap(y, i, j);
+        swap(z, i, j);
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        final double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static void project(double latitude, double longitude, double[] x, double[] y, double[] z, int i) {
+        final double lat = Math.toRadians(latitude);
+        final double lon = Math.toRadians(longitude);
+        x[i] = Math.cos(lat) * Math.cos(lon);
+        y[i] = Math.cos(lat) * Math.sin(lon);
+        z[i] = Math.sin(lat);
+    }
+
+    /**
+     * Reusable query result, entries are sorted by ascending distance
+     */
+    public static final class Hits {
+        private LocalityIndex index;
+        private final int capacity;
+        private int[] positions;
+        private double[] distances;
+        private int size;
+        private boolean bounded;
+
+        private Hits(LocalityIndex index, int capacity) {
+            this.index = index;
+            this.capacity = Math.max(0, capacity);
+            this.positions = new int[Math.max(1, capacity)];
+            this.distances = new double[Math.max(1, capacity)];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int capacity() {
+            return capacity;
+        }
+
+        public MxLocality locality(int i) {
+            checkIndex(i);
+            return index.localities[positions[i]];
+        }
+
+        public double latitude(int i) {
+            return locality(i).getLatitude();
+        }
+
+        public double longitude(int i) {
+            return locality(i).getLongitude();
+        }
+
+        /**
+         * @param i hit number
+         * @return haversine distance in kilometers to the query point
+         */
+        public double distanceKm(int i) {
+            checkIndex(i);
+            return distances[i];
+        }
+
+        /**
+         * copy hits into a new list, mostly for convenience outside hot paths
+         * @return localities sorted by distance
+         */
+        public List<MxLocality> toList() {
+            final List<MxLocality> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(locality(i));
+            }
+            return result;
+        }
+
+        private void checkIndex(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("hit " + i + " of " + size);
+            }
+        }
+
+        private void reset(LocalityIndex index) {
+            this.index = index;
+            this.size = 0;
+            this.bounded = true;
+        }
+
+        private double worst() {
+            return size < capacity ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        /**
+         * keep the capacity closest points in a max heap on squared chord
+         */
+        private void offer(int position, double d2) {
+            if (size < capacity) {
+                positions[size] = position;
+                distances[size] = d2;
+                siftUp(size++);
+            } else if (d2 < distances[0]) {
+                positions[0] = position;
+                distances[0] = d2;
+                siftDown(0, size);
+            }
+        }
+
+        private void add(int position, double d2) {
+            bounded = false;
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            positions[size] = position;
+            distances[size++] = d2;
+        }
+
+        /**
+         * sort by ascending distance and convert squared chords into kilometers
+         */
+        private void finish() {
+            if (!bounded) {
+                for (int i = size / 2 - 1; i >= 0; i--) {
+                    siftDown(i, size);
+                }
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            for (int i = 0; i < size; i++) {
+                distances[i] = GeoDistance.chord2ToKm(distances[i]);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                final int left = 2 * i + 1;
+                if (left >= end) {
+                    return;
+                }
+                final int right = left + 1;
+                final int largest = right < end && distances[right] > distances[left] ? right : left;
+                if (distances[i] >= distances[largest]) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            final int position = positions[i];
+            positions[i] = positions[j];
+            positions[j] = position;
+            final double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+}
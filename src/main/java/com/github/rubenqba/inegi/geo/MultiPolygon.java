@@ -0,0 +1,259 @@
+package com.github.rubenqba.inegi.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable planar area made of one or more polygons with holes, in degrees with longitude as {@code x} and
+ * latitude as {@code y}.
+ * <p>
+ * Containment follows the even-odd rule over every ring, which is exact for valid (multi)polygons. Each ring keeps
+ * its bounding box and a copy simplified with Douglas-Peucker: the original ring lies within the simplification
+ * tolerance of the simplified one, so points farther than the tolerance from the simplified ring are tested
+ * against it alone and only points near the boundary are tested against the full ring.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class MultiPolygon {
+
+    /**
+     * default simplification tolerance, about 100 meters
+     */
+    public static final double DEFAULT_TOLERANCE = 0.001;
+
+    private final Ring[] rings;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int vertices;
+
+    private MultiPolygon(Ring[] rings) {
+        this.rings = rings;
+        double x0 = Double.POSITIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY;
+        double y1 = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        for (Ring ring : rings) {
+            x0 = Math.min(x0, ring.minX);
+            y0 = Math.min(y0, ring.minY);
+            x1 = Math.max(x1, ring.maxX);
+            y1 = Math.max(y1, ring.maxY);
+            count += ring.points.length / 2;
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+        this.vertices = count;
+    }
+
+    /**
+     * @param rings rings as interleaved {@code x, y} coordinates, shells and holes of every polygon in any order
+     * @param tolerance simplification tolerance in degrees, zero disables simplification
+     * @return area
+     */
+    public static MultiPolygon of(List<double[]> rings, double tolerance) {
+        final List<Ring> built = new ArrayList<>(rings.size());
+        for (double[] ring : rings) {
+            if (ring.length < 6 || ring.length % 2 != 0) {
+                throw new IllegalArgumentException("a ring needs at least 3 points");
+            }
+            built.add(new Ring(ring.clone(), tolerance));
+        }
+        if (built.isEmpty()) {
+            throw new IllegalArgumentException("an area needs at least one ring");
+        }
+        return new MultiPolygon(built.toArray(Ring[]::new));
+    }
+
+    public double getMinLongitude() {
+        return minX;
+    }
+
+    public double getMinLatitude() {
+        return minY;
+    }
+
+    public double getMaxLongitude() {
+        return maxX;
+    }
+
+    public double getMaxLatitude() {
+        return maxY;
+    }
+
+    /**
+     * @return number of points of the original rings
+     */
+    public int getVertices() {
+        return vertices;
+    }
+
+    /**
+     * @return number of points of the simplified rings
+     */
+    public int getSimplifiedVertices() {
+        int count = 0;
+        for (Ring ring : rings) {
+            count += ring.simplified.length / 2;
+        }
+        return count;
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return whether the point is inside the area
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (longitude < minX || longitude > maxX || latitude < minY || latitude > maxY) {
+            return false;
+        }
+        boolean inside = false;
+        for (Ring ring : rings) {
+            if (ring.crosses(longitude, latitude)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static final class Ring {
+        private final double[] points;
+        private final double[] simplified;
+        private final double tolerance2;
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+
+        private Ring(double[] points, double tolerance) {
+            this.points = points;
+            double x0 = Double.POSITIVE_INFINITY;
+            double y0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY;
+            double y1 = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < points.length; i += 2) {
+                x0 = Math.min(x0, points[i]);
+                x1 = Math.max(x1, points[i]);
+                y0 = Math.min(y0, points[i + 1]);
+                y1 = Math.max(y1, points[i + 1]);
+            }
+            this.minX = x0;
+            this.minY = y0;
+            this.maxX = x1;
+            this.maxY = y1;
+            final double[] reduced = tolerance > 0 ? simplify(points, tolerance) : points;
+            this.simplified = reduced.length >= 8 ? reduced : points;
+            this.tolerance2 = simplified == points ? 0 : tolerance * tolerance;
+        }
+
+        /**
+         * @return whether a ray from the point towards positive x crosses the ring an odd number of times
+         */
+        private boolean crosses(double x, double y) {
+            if (x > maxX || y < minY || y > maxY) {
+                return false;
+            }
+            if (simplified != points && distance2(simplified, x, y) > tolerance2) {
+                return crosses(simplified, x, y);
+            }
+            return crosses(points, x, y);
+        }
+
+        private static boolean crosses(double[] ring, double x, double y) {
+            boolean odd = false;
+            final int n = ring.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                final double yi = ring[i + 1];
+                final double yj = ring[j + 1];
+                if ((yi > y) != (yj > y)) {
+                    final double cross = ring[i] + (y - yi) * (ring[j] - ring[i]) / (yj - yi);
+                    if (x < cross) {
+                        odd = !odd;
+                    }
+                }
+            }
+            return odd;
+        }
+
+        /**
+         * @return squared distance from the point to the closest segment of the ring
+         */
+        private static double distance2(double[] ring, double x, double y) {
+            double best = Double.POSITIVE_INFINITY;
+            final int n = ring.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                best = Math.min(best, segmentDistance2(x, y, ring[j], ring[j + 1], ring[i], ring[i + 1]));
+            }
+            return best;
+        }
+    }
+
+    static double segmentDistance2(double x, double y, double ax, double ay, double bx, double by) {
+        final double dx = bx - ax;
+        final double dy = by - ay;
+        final double length2 = dx * dx + dy * dy;
+        double t = length2 == 0 ? 0 : ((x - ax) * dx + (y - ay) * dy) / length2;
+        t = Math.max(0, Math.min(1, t));
+        final double px = ax + t * dx - x;
+        final double py = ay + t * dy - y;
+        return px * px + py * py;
+    }
+
+    /**
+     * Douglas-Peucker simplification of an open or closed polyline of interleaved coordinates
+     */
+    static double[] simplify(double[] points, double tolerance) {
+        final int n = points.length / 2;
+        if (n < 3) {
+            return points;
+        }
+        final double tolerance2 = tolerance * tolerance;
+        final boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        final int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            final int last = stack[--top];
+            final int first = stack[--top];
+            double farthest = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                final double d = segmentDistance2(points[2 * i], points[2 * i + 1],
+                        points[2 * first], points[2 * first + 1], points[2 * last], points[2 * last + 1]);
+                if (d > farthest) {
+                    farthest = d;
+                    index = i;
+                }
+            }
+            if (index >= 0 && farthest > tolerance2) {
+                keep[index] = true;
+                stack[top++] = first;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = last;
+            }
+        }
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) {
+                kept++;
+            }
+        }
+        final double[] result = new double[2 * kept];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (keep[i]) {
+                result[j++] = points[2 * i];
+                result[j++] = points[2 * i + 1];
+            }
+        }
+        return result;
+    }
+}
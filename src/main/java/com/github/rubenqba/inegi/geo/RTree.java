@@ -0,0 +1,144 @@
+package com.github.rubenqba.inegi.geo;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Static R-tree of bounding boxes bulk loaded with Sort-Tile-Recursive packing. Nodes of every level are stored
+ * contiguously in primitive arrays, the leaves first and the root last.
+ */
+final class RTree {
+
+    private static final int NODE_SIZE = 16;
+
+    /**
+     * boxes of every node, the first {@code size} are the indexed boxes
+     */
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    /**
+     * for entries above the leaves, index of their first child, children are contiguous
+     */
+    private final int[] firstChild;
+    private final int[] childCount;
+    /**
+     * for leaf entries, the index of the box they hold
+     */
+    private final int[] item;
+    private final int root;
+    private final int size;
+
+    private RTree(double[] minX, double[] minY, double[] maxX, double[] maxY, int[] firstChild, int[] childCount,
+                  int[] item, int root, int size) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.item = item;
+        this.root = root;
+        this.size = size;
+    }
+
+    static RTree build(double[] boxMinX, double[] boxMinY, double[] boxMaxX, double[] boxMaxY) {
+        final int size = boxMinX.length;
+        int total = size;
+        for (int level = size; level > 1; level = (level + NODE_SIZE - 1) / NODE_SIZE) {
+            total += (level + NODE_SIZE - 1) / NODE_SIZE;
+        }
+        final double[] minX = new double[Math.max(total, 1)];
+        final double[] minY = new double[minX.length];
+        final double[] maxX = new double[minX.length];
+        final double[] maxY = new double[minX.length];
+        final int[] firstChild = new int[minX.length];
+        final int[] childCount = new int[minX.length];
+        final int[] item = new int[size];
+
+        final Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        sortTiles(order, boxMinX, boxMinY, boxMaxX, boxMaxY);
+        for (int i = 0; i < size; i++) {
+            final int box = order[i];
+            item[i] = box;
+            minX[i] = boxMinX[box];
+            minY[i] = boxMinY[box];
+            maxX[i] = boxMaxX[box];
+            maxY[i] = boxMaxY[box];
+        }
+        int levelStart = 0;
+        int levelSize = size;
+        int next = size;
+        while (levelSize > 1) {
+            final int parents = (levelSize + NODE_SIZE - 1) / NODE_SIZE;
+            for (int p = 0; p < parents; p++) {
+                final int first = levelStart + p * NODE_SIZE;
+                final int count = Math.min(NODE_SIZE, levelStart + levelSize - first);
+                final int node = next + p;
+                firstChild[node] = first;
+                childCount[node] = count;
+                minX[node] = Double.POSITIVE_INFINITY;
+                minY[node] = Double.POSITIVE_INFINITY;
+                maxX[node] = Double.NEGATIVE_INFINITY;
+                maxY[node] = Double.NEGATIVE_INFINITY;
+                for (int c = first; c < first + count; c++) {
+                    minX[node] = Math.min(minX[node], minX[c]);
+                    minY[node] = Math.min(minY[node], minY[c]);
+                    maxX[node] = Math.max(maxX[node], maxX[c]);
+                    maxY[node] = Math.max(maxY[node], maxY[c]);
+                }
+            }
+            levelStart = next;
+            levelSize = parents;
+            next += parents;
+        }
+        return new RTree(minX, minY, maxX, maxY, firstChild, childCount, item, size == 0 ? -1 : next - 1, size);
+    }
+
+    /**
+     * order boxes in vertical slices by center longitude, and each slice by center latitude
+     */
+    private static void sortTiles(Integer[] order, double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        final int leaves = (order.length + NODE_SIZE - 1) / NODE_SIZE;
+        final int slices = (int) Math.ceil(Math.sqrt(leaves));
+        final int sliceSize = slices * NODE_SIZE;
+        Arrays.sort(order, Comparator.comparingDouble(i -> minX[i] + maxX[i]));
+        for (int start = 0; start < order.length; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(order.length, start + sliceSize), Comparator.comparingDouble(i -> minY[i] + maxY[i]));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * visit the boxes containing a point until the visitor returns true
+     * @param x longitude
+     * @param y latitude
+     * @param visitor receives the index of every box containing the point, returns true to stop
+     * @return whether the visitor stopped the search
+     */
+    boolean search(double x, double y, IntPredicate visitor) {
+        return root >= 0 && search(root, x, y, visitor);
+    }
+
+    private boolean search(int node, double x, double y, IntPredicate visitor) {
+        if (x < minX[node] || x > maxX[node] || y < minY[node] || y > maxY[node]) {
+            return false;
+        }
+        if (node < size) {
+            return visitor.test(item[node]);
+        }
+        final int end = firstChild[node] + childCount[node];
+        for (int child = firstChild[node]; child < end; child++) {
+            if (search(child, x, y, visitor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.rubenqba.inegi.geo;
+
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable point-in-polygon index resolving a coordinate to the state and municipal containing it.
+ * <p>
+ * Boundaries are kept in R-trees of their bounding boxes, so a query only tests the few polygons whose box
+ * contains the point, and those tests use simplified rings unless the point is close to a boundary. The index is
+ * thread safe.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class ReverseGeocoder {
+
+    private final Index<MxState> states;
+    private final Index<MxMunicipal> municipals;
+
+    private ReverseGeocoder(Index<MxState> states, Index<MxMunicipal> municipals) {
+        this.states = states;
+        this.municipals = municipals;
+    }
+
+    /**
+     * @param states state boundaries, e.g. from {@code getMxStateBoundaries}
+     * @param municipals municipal boundaries, e.g. from {@code getMxMunicipalBoundaries}
+     * @return index
+     */
+    public static ReverseGeocoder of(Collection<Boundary<MxState>> states, Collection<Boundary<MxMunicipal>> municipals) {
+        return new ReverseGeocoder(new Index<>(List.copyOf(states)), new Index<>(List.copyOf(municipals)));
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return state containing the point, or empty otherwise
+     */
+    public Optional<MxState> state(double latitude, double longitude) {
+        return states.find(latitude, longitude);
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return municipal containing the point, or empty otherwise
+     */
+    public Optional<MxMunicipal> municipal(double latitude, double longitude) {
+        return municipals.find(latitude, longitude);
+    }
+
+    private static final class Index<T> {
+        private final List<Boundary<T>> boundaries;
+        private final RTree tree;
+
+        private Index(List<Boundary<T>> boundaries) {
+            this.boundaries = boundaries;
+            final int size = boundaries.size();
+            final double[] minX = new double[size];
+            final double[] minY = new double[size];
+            final double[] maxX = new double[size];
+            final double[] maxY = new double[size];
+            for (int i = 0; i < size; i++) {
+                final var geometry = boundaries.get(i).getGeometry();
+                minX[i] = geometry.getMinLongitude();
+                minY[i] = geometry.getMinLatitude();
+                maxX[i] = geometry.getMaxLongitude();
+                maxY[i] = geometry.getMaxLatitude();
+            }
+            this.tree = RTree.build(minX, minY, maxX, maxY);
+        }
+
+        private Optional<T> find(double latitude, double longitude) {
+            final int[] found = {-1};
+            tree.search(longitude, latitude, i -> {
+                if (boundaries.get(i).getGeometry().contains(latitude, longitude)) {
+                    found[0] = i;
+                    return true;
+                }
+                return false;
+            });
+            return found[0] < 0 ? Optional.empty() : Optional.of(boundaries.get(found[0]).getArea());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.rubenqba.inegi.loadtest;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Summary of a load test run
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class LoadReport {
+    /**
+     * number of threads calling the service
+     */
+    int threads;
+    /**
+     * number of calls completed
+     */
+    long calls;
+    /**
+     * number of calls that failed or answered no content
+     */
+    long errors;
+    /**
+     * duration of the run
+     */
+    Duration elapsed;
+    /**
+     * median call latency
+     */
+    Duration p50;
+    /**
+     * 90th percentile call latency
+     */
+    Duration p90;
+    /**
+     * 99th percentile call latency
+     */
+    Duration p99;
+    /**
+     * slowest call latency
+     */
+    Duration max;
+
+    /**
+     * @return calls completed per second
+     */
+    public double getThroughput() {
+        return elapsed.isZero() ? 0 : calls * 1e9 / elapsed.toNanos();
+    }
+
+    /**
+     * @return fraction of the calls that failed or answered no content
+     */
+    public double getErrorRate() {
+        return calls == 0 ? 0 : (double) errors / calls;
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.rubenqba.inegi.loadtest;
+
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calls a service from several threads during a fixed time, recording the latency and the outcome of every call.
+ * <p>
+ * Every thread picks its next operation at random, so the same operations are spread evenly across the threads.
+ * {@link InegiService} answers failures with empty results, so operations report whether they answered content and
+ * empty answers are counted as errors.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class LoadTest {
+
+    private final int concurrency;
+    private final Duration duration;
+
+    /**
+     * @param concurrency number of threads calling the service
+     * @param duration time the threads keep calling the service
+     */
+    public LoadTest(int concurrency, Duration duration) {
+        if (concurrency <= 0 || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("concurrency and duration must be positive");
+        }
+        this.concurrency = concurrency;
+        this.duration = duration;
+    }
+
+    /**
+     * Single service call
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @return whether the call answered content
+         * @throws Exception if the call failed, it is counted as an error
+         */
+        boolean call() throws Exception;
+    }
+
+    /**
+     * run the load test
+     * @param operations operations picked at random by every thread
+     * @return run summary
+     * @throws InterruptedException if the caller is interrupted, the threads are stopped
+     */
+    public LoadReport run(List<Operation> operations) throws InterruptedException {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("no operations to run");
+        }
+        final var executor = Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory("inegi-load"));
+        try {
+            final long started = System.nanoTime();
+            final long deadline = started + duration.toNanos();
+            final var workers = new ArrayList<Future<Recorder>>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(operations, deadline)));
+            }
+            final var recorders = new ArrayList<Recorder>(concurrency);
+            for (Future<Recorder> worker : workers) {
+                recorders.add(worker.get());
+            }
+            final var report = report(recorders, Duration.ofNanos(System.nanoTime() - started));
+            log.info("load test with {} threads: {} calls in {} ms, {} calls/s, {} errors, p50 {} ms, p99 {} ms",
+                    concurrency, report.getCalls(), report.getElapsed().toMillis(), Math.round(report.getThroughput()),
+                    report.getErrors(), report.getP50().toMillis(), report.getP99().toMillis());
+            return report;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Recorder work(List<Operation> operations, long deadline) {
+        final var recorder = new Recorder();
+        final var random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            final var operation = operations.get(random.nextInt(operations.size()));
+            final long started = System.nanoTime();
+            boolean answered;
+            try {
+                answered = operation.call();
+            } catch (Exception ex) {
+                log.debug("load test call failed", ex);
+                answered = false;
+            }
+            recorder.record(System.nanoTime() - started, answered);
+        }
+        return recorder;
+    }
+
+    private LoadReport report(List<Recorder> recorders, Duration elapsed) {
+        final long[] latencies = new long[recorders.stream().mapToInt(recorder -> recorder.size).sum()];
+        int offset = 0;
+        long errors = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+            errors += recorder.errors;
+        }
+        Arrays.sort(latencies);
+        return new LoadReport(concurrency, latencies.length, errors, elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 1));
+    }
+
+    /**
+     * nearest rank percentile of sorted latencies
+     */
+    private static Duration percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        final int rank = (int) Math.ceil(fraction * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * latencies and errors of a single thread
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        private void record(long latency, boolean answered) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (!answered) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * Build a workload of every catalog lookup from keys that exist. The keys are discovered first through the same
+     * service: the states, their municipals, and the localities of up to {@code sample} municipals.
+     * @param service service under test
+     * @param sample maximum number of municipals whose localities are discovered
+     * @return lookups of the discovered keys
+     */
+    public static List<Operation> catalogMix(InegiService service, int sample) {
+        final var states = service.getMxStates();
+        if (states.isEmpty()) {
+            throw new IllegalStateException("the states list is empty, the service is not answering");
+        }
+        final var withMunicipals = new ArrayList<MxState>();
+        final var municipals = new ArrayList<MxMunicipal>();
+        for (MxState state : states) {
+            final var list = service.getMxMunicipals(state);
+            if (!list.isEmpty()) {
+                withMunicipals.add(state);
+                municipals.addAll(list);
+            }
+        }
+        final var localities = new ArrayList<MxLocality>();
+        final var withLocalities = new ArrayList<MxMunicipal>();
+        for (int i = 0; i < municipals.size() && withLocalities.size() < sample; i++) {
+            final var list = service.getMxLocalities(municipals.get(i));
+            if (!list.isEmpty()) {
+                withLocalities.add(municipals.get(i));
+                localities.addAll(list);
+            }
+        }
+        log.info("load test keys: {} states, {} municipals, {} localities", states.size(), municipals.size(), localities.size());
+
+        final var operations = new ArrayList<Operation>();
+        operations.add(() -> !service.getMxStates().isEmpty());
+        operations.add(() -> service.getMxState(pick(states).getId()).isPresent());
+        if (!municipals.isEmpty()) {
+            operations.add(() -> !service.getMxMunicipals(pick(withMunicipals)).isEmpty());
+            operations.add(() -> {
+                final var municipal = pick(municipals);
+                return service.getMxMunicipal(municipal.getState(), municipal.getId()).isPresent();
+            });
+        }
+        if (!localities.isEmpty()) {
+            operations.add(() -> !service.getMxLocalities(pick(withLocalities)).isEmpty());
+            operations.add(() -> {
+                final var locality = pick(localities);
+                return service.getMxLocality(locality.getState(), locality.getMunicipal(), locality.getId()).isPresent();
+            });
+        }
+        return operations;
+    }
+
+    private static <T> T pick(List<T> list) {
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
+    }
+}
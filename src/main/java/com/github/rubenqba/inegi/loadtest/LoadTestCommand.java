@@ -0,0 +1,78 @@
+package com.github.rubenqba.inegi.loadtest;
+
+import com.github.rubenqba.inegi.service.impl.HttpClientFactory;
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Command line load test of the INEGI service, or of a local stand-in of it.
+ * <pre>
+ * java -cp mx-inegi-connector.jar:... com.github.rubenqba.inegi.loadtest.LoadTestCommand \
+ *     [--base-url URL] [--threads 8] [--duration 30s] [--sample 50]
+ * </pre>
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class LoadTestCommand {
+
+    private LoadTestCommand() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) throws InterruptedException {
+        var baseUrl = InegiServiceImpl.INEGI_GEO_API;
+        var threads = 8;
+        var duration = Duration.ofSeconds(30);
+        var sample = 50;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--base-url":
+                        baseUrl = args[++i];
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--duration":
+                        duration = DurationStyle.detectAndParse(args[++i]);
+                        break;
+                    case "--sample":
+                        sample = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unexpected argument '" + args[i] + "'");
+                }
+            }
+        } catch (RuntimeException ex) {
+            err.println(ex.getMessage());
+            err.println("usage: LoadTestCommand [--base-url URL] [--threads N] [--duration 30s] [--sample N]");
+            return 2;
+        }
+        final var service = new InegiServiceImpl(HttpClientFactory.shared(baseUrl), InegiCallListener.NONE, baseUrl);
+        final LoadReport report;
+        try {
+            report = new LoadTest(threads, duration).run(LoadTest.catalogMix(service, sample));
+        } catch (IllegalStateException ex) {
+            err.println("load test failed: " + ex.getMessage());
+            return 1;
+        }
+        out.printf("threads     %d%n", report.getThreads());
+        out.printf("calls       %d in %d ms (%.1f calls/s)%n", report.getCalls(), report.getElapsed().toMillis(), report.getThroughput());
+        out.printf("errors      %d (%.2f %%)%n", report.getErrors(), report.getErrorRate() * 100);
+        out.printf("latency ms  p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n", millis(report.getP50()), millis(report.getP90()),
+                millis(report.getP99()), millis(report.getMax()));
+        return 0;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.rubenqba.inegi.metrics;
+
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiOperation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer metrics of the calls made to INEGI, tagged by {@code endpoint} ({@code mgee}, {@code mgem},
+ * {@code localidades}) and {@code method}.
+ * <ul>
+ *     <li>{@code inegi.requests}: total time of every call, also tagged by {@code outcome}</li>
+ *     <li>{@code inegi.requests.network}: time until the response headers are received, tagged by {@code status}</li>
+ *     <li>{@code inegi.requests.decode}: time spent reading and decoding response bodies</li>
+ *     <li>{@code inegi.response.size}: size of the response bodies, in bytes</li>
+ *     <li>{@code inegi.response.records}: number of records of the responses</li>
+ *     <li>{@code inegi.requests.active}: calls in flight</li>
+ * </ul>
+ * Timers publish a percentile histogram and the 50th, 95th and 99th percentiles. Events received before the binder
+ * is bound to a registry are ignored.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class InegiMetrics implements MeterBinder, InegiCallListener {
+
+    private final Map<InegiOperation, AtomicInteger> active = new EnumMap<>(InegiOperation.class);
+    private volatile MeterRegistry registry;
+    private volatile Map<InegiOperation, Meters> meters;
+
+    public InegiMetrics() {
+        for (InegiOperation operation : InegiOperation.values()) {
+            active.put(operation, new AtomicInteger());
+        }
+    }
+
+    /**
+     * meters of an operation that do not depend on the outcome of its calls
+     */
+    private static final class Meters {
+        private final Tags tags;
+        private final Timer decode;
+        private final DistributionSummary size;
+        private final DistributionSummary records;
+
+        private Meters(MeterRegistry registry, Tags tags) {
+            this.tags = tags;
+            this.decode = timer("inegi.requests.decode", "time spent reading and decoding INEGI responses").tags(tags).register(registry);
+            this.size = DistributionSummary.builder("inegi.response.size")
+                    .description("size of INEGI response bodies")
+                    .baseUnit("bytes")
+                    .publishPercentileHistogram()
+                    .tags(tags)
+                    .register(registry);
+            this.records = DistributionSummary.builder("inegi.response.records")
+                    .description("number of records of INEGI responses")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        final Map<InegiOperation, Meters> bound = new EnumMap<>(InegiOperation.class);
+        for (InegiOperation operation : InegiOperation.values()) {
+            final var tags = Tags.of("endpoint", operation.getEndpoint(), "method", operation.getMethod());
+            Gauge.builder("inegi.requests.active", active.get(operation), AtomicInteger::get)
+                    .description("INEGI calls in flight")
+                    .tags(tags)
+                    .register(registry);
+            bound.put(operation, new Meters(registry, tags));
+        }
+        this.meters = bound;
+        this.registry = registry;
+    }
+
+    @Override
+    public void callStarted(InegiOperation operation) {
+        if (Objects.nonNull(operation)) {
+            active.get(operation).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void responseReceived(InegiOperation operation, int status, long nanos) {
+        final var current = registry;
+        if (Objects.nonNull(operation) && Objects.nonNull(current)) {
+            timer("inegi.requests.network", "time until INEGI response headers are received")
+                    .tags(meters.get(operation).tags)
+                    .tag("status", Integer.toString(status))
+                    .register(current)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void responseDecoded(InegiOperation operation, long bytes, int records, long nanos) {
+        if (Objects.nonNull(operation) && Objects.nonNull(registry)) {
+            final var bound = meters.get(operation);
+            bound.decode.record(nanos, TimeUnit.NANOSECONDS);
+            bound.size.record(bytes);
+            bound.records.record(records);
+        }
+    }
+
+    @Override
+    public void callFinished(InegiOperation operation, Outcome outcome, long nanos) {
+        if (Objects.isNull(operation)) {
+            return;
+        }
+        active.get(operation).decrementAndGet();
+        final var current = registry;
+        if (Objects.nonNull(current)) {
+            timer("inegi.requests", "total time of INEGI calls")
+                    .tags(meters.get(operation).tags)
+                    .tag("outcome", outcome.name())
+                    .register(current)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram();
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.rubenqba.inegi.prewarm;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published once the catalog has been prewarmed after the application started
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class CatalogPrewarmedEvent extends ApplicationEvent {
+
+    private final CatalogPrewarmer.Progress progress;
+
+    public CatalogPrewarmedEvent(CatalogPrewarmer source, CatalogPrewarmer.Progress progress) {
+        super(source);
+        this.progress = progress;
+    }
+
+    /**
+     * @return final progress of the crawl, its elapsed time is the time to ready
+     */
+    public CatalogPrewarmer.Progress getProgress() {
+        return progress;
+    }
+}
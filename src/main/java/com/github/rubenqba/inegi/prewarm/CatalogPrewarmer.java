@@ -0,0 +1,244 @@
+package com.github.rubenqba.inegi.prewarm;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Crawls the whole national catalog through an {@link InegiService} so that a caching service answers every later
+ * lookup from memory.
+ * <p>
+ * The states list is requested first, then the municipals of every state and the localities of every municipal
+ * are requested as soon as their parent list arrives, at most {@code parallelism} requests at a time. Progress is
+ * logged every {@code progressInterval} and can be polled with {@link #getProgress()}.
+ * <p>
+ * The services answer an empty list when INEGI fails, and every state has municipals, so an empty states or
+ * municipals list is requested again, up to {@code maxAttempts} times every {@code retryDelay}. If it is still empty
+ * the crawl fails once the rest of the catalog has been loaded. Empty localities lists are only counted.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class CatalogPrewarmer implements Closeable {
+
+    private final InegiService service;
+    private final long progressNanos;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final ExecutorService executor;
+
+    private final AtomicInteger states = new AtomicInteger();
+    private final AtomicInteger municipals = new AtomicInteger();
+    private final AtomicInteger municipalsLoaded = new AtomicInteger();
+    private final AtomicInteger localities = new AtomicInteger();
+    private final AtomicInteger empty = new AtomicInteger();
+    private final AtomicInteger incomplete = new AtomicInteger();
+    private final AtomicLong lastProgress = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile long started;
+    private volatile Duration duration;
+    private volatile CompletableFuture<Progress> crawl;
+
+    /**
+     * @param service service to warm, it should keep what it loads
+     * @param settings crawling settings
+     */
+    public CatalogPrewarmer(InegiService service, InegiProperties.Prewarm settings) {
+        if (settings.getParallelism() <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (settings.getMaxAttempts() <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.service = Objects.requireNonNull(service);
+        this.progressNanos = settings.getProgressInterval().toNanos();
+        this.maxAttempts = settings.getMaxAttempts();
+        this.retryDelay = settings.getRetryDelay();
+        this.executor = Executors.newFixedThreadPool(settings.getParallelism(), new DaemonThreadFactory("inegi-prewarm"));
+    }
+
+    /**
+     * Crawl progress
+     */
+    @Value
+    public static class Progress {
+        /**
+         * number of states listed
+         */
+        int states;
+        /**
+         * number of municipals listed so far
+         */
+        int municipals;
+        /**
+         * number of municipals whose localities have been loaded
+         */
+        int municipalsLoaded;
+        /**
+         * number of localities loaded
+         */
+        int localities;
+        /**
+         * number of lists received empty, INEGI did not answer them or they have no content
+         */
+        int empty;
+        /**
+         * number of states whose municipals were still empty after every attempt
+         */
+        int incomplete;
+        /**
+         * time since the crawl started
+         */
+        Duration elapsed;
+        /**
+         * whether every list has been requested and answered
+         */
+        boolean done;
+    }
+
+    /**
+     * start the crawl on background threads, later calls return the crawl already started
+     * @return future completed with the final progress once the whole catalog has been loaded, or completed with an
+     * {@link IllegalStateException} if the states list or the municipals of a state were still empty after every attempt
+     */
+    public synchronized CompletableFuture<Progress> start() {
+        if (Objects.isNull(crawl)) {
+            started = System.nanoTime();
+            running = true;
+            lastProgress.set(started);
+            log.info("prewarming INEGI catalog");
+            crawl = load(service::getMxStates, "states", 1)
+                    .thenCompose(this::crawlStates)
+                    .thenApply(ignored -> {
+                        duration = Duration.ofNanos(System.nanoTime() - started);
+                        if (states.get() == 0 || incomplete.get() > 0) {
+                            throw new IllegalStateException("INEGI catalog prewarm incomplete: " + states.get() + " states, "
+                                    + incomplete.get() + " of them without municipals");
+                        }
+                        final var progress = progress(true);
+                        log.info("INEGI catalog prewarmed in {} ms: {} states, {} municipals, {} localities, {} empty lists",
+                                progress.elapsed.toMillis(), progress.states, progress.municipals, progress.localities, progress.empty);
+                        return progress;
+                    })
+                    .whenComplete((progress, ex) -> {
+                        if (Objects.nonNull(ex)) {
+                            log.error("INEGI catalog prewarm failed", ex);
+                        }
+                    });
+        }
+        return crawl;
+    }
+
+    /**
+     * @return whether the crawl has finished
+     */
+    public boolean isReady() {
+        final var current = crawl;
+        return Objects.nonNull(current) && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    /**
+     * @return whether the crawl has failed, leaving part of the catalog unloaded
+     */
+    public boolean isFailed() {
+        final var current = crawl;
+        return Objects.nonNull(current) && current.isCompletedExceptionally();
+    }
+
+    /**
+     * @return current progress, all counters are zero before the crawl starts
+     */
+    public Progress getProgress() {
+        return progress(isReady());
+    }
+
+    /**
+     * request a list on the crawl threads, again after {@code retryDelay} while it is empty
+     */
+    private <T> CompletableFuture<List<T>> load(Supplier<List<T>> loader, String name, int attempt) {
+        final Executor next = attempt == 1 ? executor
+                : CompletableFuture.delayedExecutor(retryDelay.toMillis(), TimeUnit.MILLISECONDS, executor);
+        return CompletableFuture.supplyAsync(loader, next).thenCompose(list -> {
+            if (!list.isEmpty() || attempt >= maxAttempts) {
+                return CompletableFuture.completedFuture(list);
+            }
+            log.warn("INEGI answered no {}, requesting them again in {} ms", name, retryDelay.toMillis());
+            return load(loader, name, attempt + 1);
+        });
+    }
+
+    private CompletableFuture<Void> crawlStates(List<MxState> list) {
+        states.set(list.size());
+        countEmpty(list);
+        return CompletableFuture.allOf(list.stream()
+                .map(state -> load(() -> service.getMxMunicipals(state), "municipals of state " + state.getId(), 1)
+                        .thenCompose(this::crawlMunicipals))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> crawlMunicipals(List<MxMunicipal> list) {
+        municipals.addAndGet(list.size());
+        countEmpty(list);
+        if (list.isEmpty()) {
+            incomplete.incrementAndGet();
+        }
+        return CompletableFuture.allOf(list.stream()
+                .map(municipal -> CompletableFuture.runAsync(() -> crawlLocalities(municipal), executor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private void crawlLocalities(MxMunicipal municipal) {
+        final var list = service.getMxLocalities(municipal);
+        localities.addAndGet(list.size());
+        countEmpty(list);
+        municipalsLoaded.incrementAndGet();
+        logProgress();
+    }
+
+    private void countEmpty(List<?> list) {
+        if (list.isEmpty()) {
+            empty.incrementAndGet();
+        }
+    }
+
+    private void logProgress() {
+        final long now = System.nanoTime();
+        final long last = lastProgress.get();
+        if (now - last >= progressNanos && lastProgress.compareAndSet(last, now) && log.isInfoEnabled()) {
+            final var progress = progress(false);
+            log.info("prewarming INEGI catalog: {}/{} municipals, {} localities in {} s",
+                    progress.municipalsLoaded, progress.municipals, progress.localities, progress.elapsed.toSeconds());
+        }
+    }
+
+    private Progress progress(boolean done) {
+        final var elapsed = Objects.nonNull(duration) ? duration
+                : running ? Duration.ofNanos(System.nanoTime() - started) : Duration.ZERO;
+        return new Progress(states.get(), municipals.get(), municipalsLoaded.get(), localities.get(), empty.get(),
+                incomplete.get(), elapsed, done);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
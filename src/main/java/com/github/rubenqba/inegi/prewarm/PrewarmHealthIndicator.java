@@ -0,0 +1,38 @@
+package com.github.rubenqba.inegi.prewarm;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.Objects;
+
+/**
+ * Health of the catalog prewarm: {@code OUT_OF_SERVICE} while the catalog is being loaded, {@code UP} once it
+ * has been loaded and {@code DOWN} if the crawl failed, with the crawl progress as details. It can be added to a
+ * readiness group.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class PrewarmHealthIndicator implements HealthIndicator {
+
+    private final CatalogPrewarmer prewarmer;
+
+    public PrewarmHealthIndicator(CatalogPrewarmer prewarmer) {
+        this.prewarmer = Objects.requireNonNull(prewarmer);
+    }
+
+    @Override
+    public Health health() {
+        final var progress = prewarmer.getProgress();
+        final var health = progress.isDone() ? Health.up() : prewarmer.isFailed() ? Health.down() : Health.outOfService();
+        return health
+                .withDetail("states", progress.getStates())
+                .withDetail("municipals", progress.getMunicipals())
+                .withDetail("municipalsLoaded", progress.getMunicipalsLoaded())
+                .withDetail("localities", progress.getLocalities())
+                .withDetail("emptyLists", progress.getEmpty())
+                .withDetail("statesWithoutMunicipals", progress.getIncomplete())
+                .withDetail("elapsed", progress.getElapsed().toString())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Places an {@link AddressQuery} resolved to, down to the deepest level that matched
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class AddressMatch {
+    AddressQuery query;
+    MxState state;
+    MxMunicipal municipal;
+    MxLocality locality;
+    /**
+     * between 0 and 1, the product of the score of every level of the query, lowered when a level is ambiguous or
+     * does not match
+     */
+    double confidence;
+    /**
+     * whether every level given in the query matched
+     */
+    boolean complete;
+
+    /**
+     * @return deepest level matched, {@code null} if nothing matched
+     */
+    public PlaceKind getLevel() {
+        return Objects.nonNull(locality) ? PlaceKind.LOCALITY : Objects.nonNull(municipal) ? PlaceKind.MUNICIPAL
+                : Objects.nonNull(state) ? PlaceKind.STATE : null;
+    }
+
+    /**
+     * @return INEGI code of the deepest level matched, like {@code 09/013/0001}, {@code null} if nothing matched
+     */
+    public String getKey() {
+        return Objects.nonNull(locality) ? locality.getState() + "/" + locality.getMunicipal() + "/" + locality.getId()
+                : Objects.nonNull(municipal) ? municipal.getState() + "/" + municipal.getId()
+                : Objects.nonNull(state) ? state.getId() : null;
+    }
+}
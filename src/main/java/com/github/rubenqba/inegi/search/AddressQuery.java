@@ -0,0 +1,31 @@
+package com.github.rubenqba.inegi.search;
+
+import lombok.Value;
+
+/**
+ * Free text place names of an address, any of them may be blank
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+public class AddressQuery {
+    String locality;
+    String municipal;
+    String state;
+
+    public static AddressQuery of(String locality, String municipal, String state) {
+        return new AddressQuery(locality, municipal, state);
+    }
+
+    /**
+     * @param text comma separated names aligned to the right, {@code "Xochimilco, CDMX"} is a municipal and a state
+     *             and {@code "San Lucas Xochimanca, Xochimilco, CDMX"} adds the locality
+     * @return query with the names of the text
+     */
+    public static AddressQuery parse(String text) {
+        final String[] parts = text.split(",", -1);
+        final int n = parts.length;
+        return new AddressQuery(n >= 3 ? parts[n - 3] : null, n >= 2 ? parts[n - 2] : null, parts[n - 1]);
+    }
+}
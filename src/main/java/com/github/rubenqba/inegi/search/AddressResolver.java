@@ -0,0 +1,248 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the free text names of an address to catalog places, matching them from the top down: the state first,
+ * then the municipal within the state and the locality within the municipal.
+ * <p>
+ * A level whose parent did not match is searched in the whole catalog and its parents are taken from the place
+ * found, so {@code "Xochimilco, Distrito Federal"} still resolves to the municipal. State abbreviations like
+ * {@code CDMX} are recognized. Names written exactly as in the catalog, once folded, are found with a single hash
+ * lookup. Other names go through the {@link PlaceSearchIndex}, and the result of every such search is remembered, up
+ * to {@code memoSize} of them, because batches of customer addresses repeat the same few thousand names. Instances
+ * are thread safe.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class AddressResolver {
+
+    /**
+     * confidence factor of a level given in the query that did not match
+     */
+    static final double UNMATCHED = 0.5;
+    /**
+     * confidence factor of a name matching two places equally well
+     */
+    static final double AMBIGUOUS = 0.6;
+
+    private static final int DEFAULT_MEMO_SIZE = 200_000;
+    private static final SearchHit NONE = new SearchHit(null, "", 0, null);
+    private static final SearchScope STATES = SearchScope.all().only(PlaceKind.STATE);
+
+    private final PlaceSearchIndex index;
+    private final Map<String, MxState> states;
+    private final Map<String, MxMunicipal> municipals;
+    private final Map<String, MxState> abbreviations;
+    private final Map<String, SearchHit> exact;
+    private final Map<String, SearchHit> memo = new ConcurrentHashMap<>();
+    private final int memoSize;
+
+    private AddressResolver(Builder builder) {
+        this.index = builder.index.build();
+        this.states = builder.states;
+        this.municipals = builder.municipals;
+        this.abbreviations = builder.abbreviations;
+        this.exact = builder.exact;
+        this.memoSize = builder.memoSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * index the whole catalog of a service
+     * @param service catalog source
+     * @return resolver
+     */
+    public static AddressResolver of(InegiService service) {
+        final var builder = builder();
+        final var states = service.getMxStates();
+        builder.addStates(states);
+        for (MxState state : states) {
+            final var municipals = service.getMxMunicipals(state);
+            builder.addMunicipals(municipals);
+            municipals.forEach(municipal -> builder.addLocalities(service.getMxLocalities(municipal)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param query address names
+     * @return best match, with no places if nothing matched
+     */
+    public AddressMatch resolve(AddressQuery query) {
+        final String stateText = NameNormalizer.normalize(query.getState());
+        final String municipalText = NameNormalizer.normalize(query.getMunicipal());
+        final String localityText = NameNormalizer.normalize(query.getLocality());
+        double confidence = 1.0;
+        boolean complete = true;
+
+        MxState state = null;
+        if (!stateText.isEmpty()) {
+            final var hit = matchState(stateText);
+            if (hit == NONE) {
+                confidence *= UNMATCHED;
+                complete = false;
+            } else {
+                state = (MxState) hit.getPlace();
+                confidence *= hit.getScore();
+            }
+        }
+
+        MxMunicipal municipal = null;
+        if (!municipalText.isEmpty()) {
+            final var scope = Objects.isNull(state) ? SearchScope.all() : SearchScope.state(state.getId());
+            final var hit = match(PlaceKind.MUNICIPAL, scope, municipalText);
+            if (hit == NONE) {
+                confidence *= UNMATCHED;
+                complete = false;
+            } else {
+                municipal = (MxMunicipal) hit.getPlace();
+                state = states.get(municipal.getState());
+                confidence *= hit.getScore();
+            }
+        }
+
+        MxLocality locality = null;
+        if (!localityText.isEmpty()) {
+            final var scope = Objects.nonNull(municipal) ? SearchScope.municipal(municipal.getState(), municipal.getId())
+                    : Objects.nonNull(state) ? SearchScope.state(state.getId()) : SearchScope.all();
+            final var hit = match(PlaceKind.LOCALITY, scope, localityText);
+            if (hit == NONE) {
+                confidence *= UNMATCHED;
+                complete = false;
+            } else {
+                locality = (MxLocality) hit.getPlace();
+                municipal = municipals.get(locality.getState() + "/" + locality.getMunicipal());
+                state = states.get(locality.getState());
+                confidence *= hit.getScore();
+            }
+        }
+
+        if (Objects.isNull(state)) {
+            confidence = 0;
+        }
+        return new AddressMatch(query, state, municipal, locality, confidence, complete && Objects.nonNull(state));
+    }
+
+    private SearchHit matchState(String text) {
+        final var state = abbreviations.get(text);
+        if (Objects.nonNull(state)) {
+            return new SearchHit(PlaceKind.STATE, state.getName(), 1.0, state);
+        }
+        return match(PlaceKind.STATE, STATES, text);
+    }
+
+    private SearchHit match(PlaceKind kind, SearchScope scope, String text) {
+        final String key = key(kind, scope.getState(), scope.getMunicipal(), text);
+        var hit = exact.get(key);
+        if (Objects.nonNull(hit)) {
+            return hit;
+        }
+        hit = memo.get(key);
+        if (Objects.isNull(hit)) {
+            hit = search(kind, scope, text);
+            if (memo.size() < memoSize) {
+                memo.put(key, hit);
+            }
+        }
+        return hit;
+    }
+
+    private SearchHit search(PlaceKind kind, SearchScope scope, String text) {
+        final var hits = index.search(text, scope.only(kind), 2);
+        if (hits.isEmpty()) {
+            return NONE;
+        }
+        final var best = hits.get(0);
+        if (hits.size() > 1 && hits.get(1).getScore() == best.getScore()) {
+            return new SearchHit(kind, best.getName(), best.getScore() * AMBIGUOUS, best.getPlace());
+        }
+        return best;
+    }
+
+    private static String key(PlaceKind kind, String state, String municipal, String text) {
+        return kind.ordinal() + "/" + state + "/" + municipal + "/" + text;
+    }
+
+    /**
+     * Collects the places to resolve to
+     */
+    public static class Builder {
+        private final PlaceSearchIndex.Builder index = PlaceSearchIndex.builder();
+        private final Map<String, MxState> states = new HashMap<>();
+        private final Map<String, MxMunicipal> municipals = new HashMap<>();
+        private final Map<String, MxState> abbreviations = new HashMap<>();
+        private final Map<String, SearchHit> exact = new HashMap<>();
+        private int memoSize = DEFAULT_MEMO_SIZE;
+
+        public Builder addStates(Collection<MxState> list) {
+            index.addStates(list);
+            for (MxState state : list) {
+                states.put(state.getId(), state);
+                addExact(key(PlaceKind.STATE, null, null, NameNormalizer.normalize(state.getName())), PlaceKind.STATE, state.getName(), state);
+                final String abbreviation = NameNormalizer.normalize(state.getAbbreviation());
+                if (!abbreviation.isEmpty()) {
+                    abbreviations.put(abbreviation, state);
+                }
+            }
+            return this;
+        }
+
+        public Builder addMunicipals(Collection<MxMunicipal> list) {
+            index.addMunicipals(list);
+            for (MxMunicipal municipal : list) {
+                municipals.put(municipal.getState() + "/" + municipal.getId(), municipal);
+                final String name = NameNormalizer.normalize(municipal.getName());
+                addExact(key(PlaceKind.MUNICIPAL, municipal.getState(), null, name), PlaceKind.MUNICIPAL, municipal.getName(), municipal);
+                addExact(key(PlaceKind.MUNICIPAL, null, null, name), PlaceKind.MUNICIPAL, municipal.getName(), municipal);
+            }
+            return this;
+        }
+
+        public Builder addLocalities(Collection<MxLocality> list) {
+            index.addLocalities(list);
+            for (MxLocality locality : list) {
+                addExact(key(PlaceKind.LOCALITY, locality.getState(), locality.getMunicipal(), NameNormalizer.normalize(locality.getName())),
+                        PlaceKind.LOCALITY, locality.getName(), locality);
+            }
+            return this;
+        }
+
+        /**
+         * remember an exact name, a name shared by several places of the same scope is ambiguous
+         */
+        private void addExact(String key, PlaceKind kind, String name, Object place) {
+            exact.merge(key, new SearchHit(kind, name, 1.0, place), (first, other) -> first.getScore() < 1.0 || first.getPlace().equals(place)
+                    ? first : new SearchHit(kind, first.getName(), AMBIGUOUS, first.getPlace()));
+        }
+
+        /**
+         * @param memoSize maximum number of name searches remembered, 0 disables it
+         * @return this builder
+         */
+        public Builder memoSize(int memoSize) {
+            if (memoSize < 0) {
+                throw new IllegalArgumentException("memoSize must not be negative");
+            }
+            this.memoSize = memoSize;
+            return this;
+        }
+
+        public AddressResolver build() {
+            return new AddressResolver(this);
+        }
+    }
+}
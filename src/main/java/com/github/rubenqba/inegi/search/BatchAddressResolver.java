@@ -0,0 +1,164 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.concurrent.OrderedWindow;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Resolves a stream of addresses on several threads.
+ * <p>
+ * The input is read in batches of {@code batchSize} addresses, up to {@code 2 * parallelism} batches are resolved
+ * concurrently and their matches are handed to the output on the calling thread, in input order. Memory use depends
+ * on the parallelism and batch size and not on the length of the input.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class BatchAddressResolver implements Closeable {
+
+    private final AddressResolver resolver;
+    private final int parallelism;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    /**
+     * @param resolver resolver of a single address
+     * @param parallelism number of resolving threads
+     * @param batchSize number of addresses resolved by a task
+     */
+    public BatchAddressResolver(AddressResolver resolver, int parallelism, int batchSize) {
+        if (parallelism <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("parallelism and batchSize must be positive");
+        }
+        this.resolver = Objects.requireNonNull(resolver);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("inegi-resolve"));
+    }
+
+    /**
+     * Summary of a batch resolution
+     */
+    @Value
+    public static class BatchReport {
+        /**
+         * number of addresses read
+         */
+        long records;
+        /**
+         * number of addresses whose every given level matched
+         */
+        long complete;
+        /**
+         * number of addresses that matched nothing
+         */
+        long unmatched;
+        Duration elapsed;
+
+        /**
+         * @return addresses resolved per second
+         */
+        public double getThroughput() {
+            return elapsed.isZero() ? 0 : records * 1e9 / elapsed.toNanos();
+        }
+    }
+
+    public BatchReport resolve(Stream<AddressQuery> input, Consumer<? super AddressMatch> output) {
+        return resolve(input.iterator(), output);
+    }
+
+    /**
+     * resolve every address of the input
+     * @param input addresses, read on the calling thread
+     * @param output receives the matches in input order, on the calling thread
+     * @return summary
+     */
+    public BatchReport resolve(Iterator<AddressQuery> input, Consumer<? super AddressMatch> output) {
+        final long started = System.nanoTime();
+        final var run = new Run(output);
+        final var window = new OrderedWindow<List<AddressMatch>>(parallelism * 2);
+        try {
+            while (input.hasNext()) {
+                final List<AddressQuery> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && input.hasNext()) {
+                    batch.add(input.next());
+                }
+                window.add(executor.submit(() -> resolveAll(batch)), run::write);
+            }
+            window.drain(run::write);
+        } catch (InterruptedException ex) {
+            window.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("address resolution interrupted", ex);
+        } catch (ExecutionException ex) {
+            window.cancel();
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (RuntimeException ex) {
+            window.cancel();
+            throw ex;
+        }
+        final var report = new BatchReport(run.records, run.complete, run.unmatched, Duration.ofNanos(System.nanoTime() - started));
+        log.info("resolved {} addresses in {} ms, {} complete and {} unmatched",
+                report.records, report.elapsed.toMillis(), report.complete, report.unmatched);
+        return report;
+    }
+
+    private List<AddressMatch> resolveAll(List<AddressQuery> batch) {
+        final List<AddressMatch> matches = new ArrayList<>(batch.size());
+        for (AddressQuery query : batch) {
+            matches.add(resolver.resolve(query));
+        }
+        return matches;
+    }
+
+    /**
+     * state of a single batch resolution
+     */
+    private static final class Run {
+        private final Consumer<? super AddressMatch> output;
+        private long records;
+        private long complete;
+        private long unmatched;
+
+        private Run(Consumer<? super AddressMatch> output) {
+            this.output = output;
+        }
+
+        /**
+         * hand the matches of a finished batch to the output
+         */
+        private void write(List<AddressMatch> matches) {
+            for (AddressMatch match : matches) {
+                records++;
+                if (match.isComplete()) {
+                    complete++;
+                } else if (Objects.isNull(match.getLevel())) {
+                    unmatched++;
+                }
+                output.accept(match);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.rubenqba.inegi.search;
+
+import java.text.Normalizer;
+
+/**
+ * Folds place names for comparison: accents are removed, letters are lower cased and every run of characters
+ * that are not letters or digits becomes a single space. {@code "San José del Cabo (Los Cabos)"} folds into
+ * {@code "san jose del cabo los cabos"}.
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class NameNormalizer {
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        final String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        final StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                folded.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                folded.append(' ');
+                space = true;
+            }
+        }
+        final int length = folded.length();
+        if (length > 0 && folded.charAt(length - 1) == ' ') {
+            folded.setLength(length - 1);
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.rubenqba.inegi.search;
+
+/**
+ * Catalog level of a place
+ */
+public enum PlaceKind {
+    STATE, MUNICIPAL, LOCALITY
+}
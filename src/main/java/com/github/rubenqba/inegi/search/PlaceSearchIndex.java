@@ -0,0 +1,435 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Accent and case insensitive name search over states, municipals and localities.
+ * <p>
+ * Every word of every folded name is kept in a sorted array, so prefix queries are binary searches. Every place with a
+ * word starting with the query is ranked, a scoped search reads its places directly when they are fewer than the words
+ * with the prefix. Typo tolerant matching uses a trigram index scored by Dice similarity, it only runs when prefix
+ * matching did not fill the requested results. Places are kept in catalog order, so the places of a state or
+ * municipal are a range of every trigram posting list and a scoped search only reads that range. The catalog sized
+ * buffers of a search are taken from a pool of at most one per processor and given back once it ends. Results are
+ * ranked by score, then by level (states first) and name length.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class PlaceSearchIndex {
+
+    private static final double EXACT = 1.0;
+    private static final double NAME_PREFIX = 0.9;
+    private static final double WORD_PREFIX = 0.8;
+    private static final double FUZZY = 0.7;
+    private static final double MIN_SIMILARITY = 0.45;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int POOLED_SCRATCH = Runtime.getRuntime().availableProcessors();
+
+    private static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::getScore).reversed()
+            .thenComparing(SearchHit::getKind)
+            .thenComparingInt(hit -> hit.getName().length())
+            .thenComparing(SearchHit::getName);
+
+    /**
+     * by state, then the state itself before its municipals, then by municipal with the municipal before its localities
+     */
+    private static final Comparator<Object> CATALOG_ORDER = Comparator.comparing(PlaceSearchIndex::stateOf, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PlaceSearchIndex::municipalOf, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(place -> place instanceof MxLocality);
+
+    private final PlaceKind[] kinds;
+    private final String[] states;
+    private final String[] municipals;
+    private final String[] names;
+    private final String[] folded;
+    private final Object[] places;
+
+    private final String[] words;
+    private final int[] wordEntries;
+    private final Map<String, int[]> trigrams;
+    private final Map<String, int[]> ranges;
+
+    private final BlockingQueue<Scratch> scratch = new ArrayBlockingQueue<>(POOLED_SCRATCH);
+
+    /**
+     * buffers of a running search, used to count trigram matches and to skip places already returned by prefix matching
+     */
+    private static final class Scratch {
+        private final int[] counts;
+        private final int[] stamps;
+        private final int[] touched;
+        private int generation;
+
+        private Scratch(int size) {
+            counts = new int[size];
+            stamps = new int[size];
+            touched = new int[size];
+        }
+
+        private int next() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+
+    private PlaceSearchIndex(Builder builder) {
+        final int size = builder.places.size();
+        this.kinds = new PlaceKind[size];
+        this.states = new String[size];
+        this.municipals = new String[size];
+        this.names = new String[size];
+        this.folded = new String[size];
+        this.places = builder.places.toArray();
+        Arrays.sort(places, CATALOG_ORDER);
+
+        final Map<String, int[]> scopes = new HashMap<>();
+        final List<String> allWords = new ArrayList<>();
+        final List<Integer> allEntries = new ArrayList<>();
+        final Map<String, List<Integer>> grams = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final Object place = places[i];
+            if (place instanceof MxState) {
+                final var state = (MxState) place;
+                set(i, PlaceKind.STATE, state.getId(), null, state.getName());
+            } else if (place instanceof MxMunicipal) {
+                final var municipal = (MxMunicipal) place;
+                set(i, PlaceKind.MUNICIPAL, municipal.getState(), municipal.getId(), municipal.getName());
+            } else {
+                final var locality = (MxLocality) place;
+                set(i, PlaceKind.LOCALITY, locality.getState(), locality.getMunicipal(), locality.getName());
+            }
+            extend(scopes, states[i], i);
+            if (Objects.nonNull(municipals[i])) {
+                extend(scopes, states[i] + "/" + municipals[i], i);
+            }
+            for (String word : folded[i].split(" ")) {
+                if (!word.isEmpty()) {
+                    allWords.add(word);
+                    allEntries.add(i);
+                }
+            }
+            for (String gram : trigramsOf(folded[i])) {
+                final var postings = grams.computeIfAbsent(gram, g -> new ArrayList<>());
+                if (postings.isEmpty() || postings.get(postings.size() - 1) != i) {
+                    postings.add(i);
+                }
+            }
+        }
+
+        final Integer[] order = new Integer[allWords.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing(allWords::get));
+        this.words = new String[order.length];
+        this.wordEntries = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            words[i] = allWords.get(order[i]);
+            wordEntries[i] = allEntries.get(order[i]);
+        }
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, postings) -> trigrams.put(gram, postings.stream().mapToInt(Integer::intValue).toArray()));
+        this.ranges = scopes;
+        log.debug("name search index built over {} places, {} words and {} trigrams", size, words.length, trigrams.size());
+    }
+
+    private static void extend(Map<String, int[]> scopes, String scope, int entry) {
+        final int[] range = scopes.computeIfAbsent(scope, key -> new int[]{entry, entry});
+        range[1] = entry + 1;
+    }
+
+    private void set(int i, PlaceKind kind, String state, String municipal, String name) {
+        kinds[i] = kind;
+        states[i] = state;
+        municipals[i] = municipal;
+        names[i] = Objects.requireNonNullElse(name, "");
+        folded[i] = NameNormalizer.normalize(name);
+    }
+
+    private static String stateOf(Object place) {
+        return place instanceof MxState ? ((MxState) place).getId()
+                : place instanceof MxMunicipal ? ((MxMunicipal) place).getState() : ((MxLocality) place).getState();
+    }
+
+    private static String municipalOf(Object place) {
+        return place instanceof MxState ? null
+                : place instanceof MxMunicipal ? ((MxMunicipal) place).getId() : ((MxLocality) place).getMunicipal();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * index the whole catalog of a service, state by state and municipal by municipal
+     * @param service catalog source
+     * @return search index
+     */
+    public static PlaceSearchIndex of(InegiService service) {
+        final var builder = builder();
+        final var states = service.getMxStates();
+        builder.addStates(states);
+        for (MxState state : states) {
+            final var municipals = service.getMxMunicipals(state);
+            builder.addMunicipals(municipals);
+            municipals.forEach(municipal -> builder.addLocalities(service.getMxLocalities(municipal)));
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return places.length;
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, SearchScope.all(), limit);
+    }
+
+    /**
+     * search places by name
+     * @param query free text, accents and case are ignored and every word is matched as a prefix
+     * @param scope state, municipal and levels searched
+     * @param limit maximum number of results
+     * @return best matches ordered by rank
+     */
+    public List<SearchHit> search(String query, SearchScope scope, int limit) {
+        final String text = NameNormalizer.normalize(query);
+        if (text.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        final int[] range = range(scope);
+        if (Objects.isNull(range)) {
+            return List.of();
+        }
+        final String[] terms = text.split(" ");
+        final var best = new PriorityQueue<>(RANKING.reversed());
+        final var pooled = scratch.poll();
+        final var buffers = Objects.nonNull(pooled) ? pooled : new Scratch(places.length);
+        try {
+            match(text, terms, scope, range, limit, best, buffers, buffers.next());
+        } finally {
+            scratch.offer(buffers);
+        }
+
+        final List<SearchHit> result = new ArrayList<>(best);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private void match(String text, String[] terms, SearchScope scope, int[] range, int limit, PriorityQueue<SearchHit> best,
+                       Scratch buffers, int generation) {
+        final String key = longest(terms);
+        final int first = lowerBound(key);
+        final int last = lowerBound(key + Character.MAX_VALUE);
+        if (last - first > range[1] - range[0]) {
+            // the scope has fewer places than there are words with the prefix
+            for (int entry = range[0]; entry < range[1]; entry++) {
+                prefix(entry, text, terms, scope, limit, best, buffers, generation);
+            }
+        } else {
+            for (int w = first; w < last; w++) {
+                final int entry = wordEntries[w];
+                if (entry >= range[0] && entry < range[1]) {
+                    prefix(entry, text, terms, scope, limit, best, buffers, generation);
+                }
+            }
+        }
+        if (best.size() < limit && text.length() >= MIN_FUZZY_LENGTH) {
+            fuzzy(text, scope, range, limit, best, buffers, generation);
+        }
+    }
+
+    /**
+     * offer a place whose words start with every term of the query
+     */
+    private void prefix(int entry, String text, String[] terms, SearchScope scope, int limit, PriorityQueue<SearchHit> best,
+                           Scratch buffers, int generation) {
+        if (buffers.stamps[entry] == generation || !inScope(entry, scope) || !allTermsMatch(folded[entry], terms)) {
+            return;
+        }
+        buffers.stamps[entry] = generation;
+        offer(best, limit, entry, prefixScore(folded[entry], text));
+    }
+
+    private void fuzzy(String text, SearchScope scope, int[] range, int limit, PriorityQueue<SearchHit> best, Scratch buffers, int generation) {
+        final var queryGrams = trigramsOf(text);
+        int touched = 0;
+        for (String gram : queryGrams) {
+            final int[] postings = trigrams.get(gram);
+            if (Objects.isNull(postings)) {
+                continue;
+            }
+            for (int p = lowerBound(postings, range[0]); p < postings.length && postings[p] < range[1]; p++) {
+                final int entry = postings[p];
+                if (buffers.counts[entry]++ == 0) {
+                    buffers.touched[touched++] = entry;
+                }
+            }
+        }
+        for (int t = 0; t < touched; t++) {
+            final int entry = buffers.touched[t];
+            final int shared = buffers.counts[entry];
+            buffers.counts[entry] = 0;
+            if (buffers.stamps[entry] == generation || !inScope(entry, scope)) {
+                continue;
+            }
+            final double similarity = 2.0 * shared / (queryGrams.size() + Math.max(1, folded[entry].length()));
+            if (similarity >= MIN_SIMILARITY) {
+                offer(best, limit, entry, FUZZY * Math.min(1.0, similarity));
+            }
+        }
+    }
+
+    private void offer(PriorityQueue<SearchHit> best, int limit, int entry, double score) {
+        if (best.size() == limit) {
+            final var worst = best.peek();
+            if (worst.getScore() > score || (worst.getScore() == score && kinds[entry].compareTo(worst.getKind()) >= 0)) {
+                return;
+            }
+        }
+        best.add(new SearchHit(kinds[entry], names[entry], score, places[entry]));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    /**
+     * @return first and last (exclusive) entries of the scope, {@code null} if it has no places
+     */
+    private int[] range(SearchScope scope) {
+        if (Objects.isNull(scope.getState())) {
+            return new int[]{0, places.length};
+        }
+        return ranges.get(Objects.isNull(scope.getMunicipal()) ? scope.getState() : scope.getState() + "/" + scope.getMunicipal());
+    }
+
+    private boolean inScope(int entry, SearchScope scope) {
+        return scope.getKinds().contains(kinds[entry])
+                && (Objects.isNull(scope.getState()) || scope.getState().equals(states[entry]))
+                && (Objects.isNull(scope.getMunicipal()) || scope.getMunicipal().equals(municipals[entry]));
+    }
+
+    private static double prefixScore(String name, String text) {
+        if (name.equals(text)) {
+            return EXACT;
+        }
+        // prefer names covering more of the query, so "san" ranks "Sán" before "San Juan Bautista"
+        final double coverage = (double) text.length() / name.length();
+        return (name.startsWith(text) ? NAME_PREFIX : WORD_PREFIX) + 0.09 * coverage;
+    }
+
+    private static boolean allTermsMatch(String name, String[] terms) {
+        for (String term : terms) {
+            if (!hasWordPrefix(name, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasWordPrefix(String name, String term) {
+        for (int start = 0; start >= 0 && start < name.length(); ) {
+            if (name.startsWith(term, start)) {
+                return true;
+            }
+            start = name.indexOf(' ', start);
+            start = start < 0 ? -1 : start + 1;
+        }
+        return false;
+    }
+
+    private static String longest(String[] terms) {
+        String longest = terms[0];
+        for (String term : terms) {
+            if (term.length() > longest.length()) {
+                longest = term;
+            }
+        }
+        return longest;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] postings, int entry) {
+        int low = 0;
+        int high = postings.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (postings[mid] < entry) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<String> trigramsOf(String text) {
+        final String padded = " " + text + " ";
+        final List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            final String gram = padded.substring(i, i + 3);
+            if (!grams.contains(gram)) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Collects the places to index
+     */
+    public static class Builder {
+        private final List<Object> places = new ArrayList<>();
+
+        public Builder addStates(Collection<MxState> states) {
+            places.addAll(states);
+            return this;
+        }
+
+        public Builder addMunicipals(Collection<MxMunicipal> municipals) {
+            places.addAll(municipals);
+            return this;
+        }
+
+        public Builder addLocalities(Collection<MxLocality> localities) {
+            places.addAll(localities);
+            return this;
+        }
+
+        public PlaceSearchIndex build() {
+            return new PlaceSearchIndex(this);
+        }
+    }
+}
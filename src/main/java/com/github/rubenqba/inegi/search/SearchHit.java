@@ -0,0 +1,31 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import lombok.Value;
+
+import java.util.Optional;
+
+/**
+ * Place matching a name search, with a score between 0 and 1
+ */
+@Value
+public class SearchHit {
+    PlaceKind kind;
+    String name;
+    double score;
+    Object place;
+
+    public Optional<MxState> asState() {
+        return place instanceof MxState ? Optional.of((MxState) place) : Optional.empty();
+    }
+
+    public Optional<MxMunicipal> asMunicipal() {
+        return place instanceof MxMunicipal ? Optional.of((MxMunicipal) place) : Optional.empty();
+    }
+
+    public Optional<MxLocality> asLocality() {
+        return place instanceof MxLocality ? Optional.of((MxLocality) place) : Optional.empty();
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.rubenqba.inegi.search;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Restricts a name search to a state or municipal and to some catalog levels
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SearchScope {
+    String state;
+    String municipal;
+    Set<PlaceKind> kinds;
+
+    public static SearchScope all() {
+        return new SearchScope(null, null, EnumSet.allOf(PlaceKind.class));
+    }
+
+    public static SearchScope state(String state) {
+        return new SearchScope(state, null, EnumSet.allOf(PlaceKind.class));
+    }
+
+    public static SearchScope municipal(String state, String municipal) {
+        return new SearchScope(state, municipal, EnumSet.allOf(PlaceKind.class));
+    }
+
+    /**
+     * @param first searched level
+     * @param others other searched levels
+     * @return a copy of this scope restricted to the given levels
+     */
+    public SearchScope only(PlaceKind first, PlaceKind... others) {
+        return new SearchScope(state, municipal, EnumSet.of(first, others));
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.rubenqba.inegi.service;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking service interface to allow access to INEGI data. Results follow the same contract as
+ * {@link InegiService}, failed requests complete with an empty result.
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface AsyncInegiService {
+
+    /**
+     * get mexican states
+     * @return future immutable list of states or else an empty list
+     * @see InegiService#getMxStates()
+     */
+    CompletableFuture<List<MxState>> getMxStates();
+
+    /**
+     * get mexican state by id
+     * @param state requested state id
+     * @return future valid state, or empty otherwise
+     * @see InegiService#getMxState(String)
+     */
+    CompletableFuture<Optional<MxState>> getMxState(String state);
+
+    /**
+     * get mexican municipals by state
+     * @param state requested state
+     * @return future immutable list of municipals or else an empty list
+     * @see InegiService#getMxMunicipals(MxState)
+     */
+    CompletableFuture<List<MxMunicipal>> getMxMunicipals(MxState state);
+
+    /**
+     * get mexican municipal by id
+     * @param state requested state id
+     * @param municipal requested municipal id
+     * @return future valid municipal, or empty otherwise
+     * @see InegiService#getMxMunicipal(String, String)
+     */
+    CompletableFuture<Optional<MxMunicipal>> getMxMunicipal(String state, String municipal);
+
+    /**
+     * get localities by municipal
+     * @param municipal requested municipal
+     * @return future immutable list of localities or else an empty list
+     * @see InegiService#getMxLocalities(MxMunicipal)
+     */
+    CompletableFuture<List<MxLocality>> getMxLocalities(MxMunicipal municipal);
+
+    /**
+     * get mexican locality by id
+     * @param state requested state id
+     * @param municipal requested municipal id
+     * @param locality requested locality id
+     * @return future valid locality, or empty otherwise
+     * @see InegiService#getMxLocality(String, String, String)
+     */
+    CompletableFuture<Optional<MxLocality>> getMxLocality(String state, String municipal, String locality);
+}
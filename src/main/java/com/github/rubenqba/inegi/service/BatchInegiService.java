@@ -0,0 +1,32 @@
+package com.github.rubenqba.inegi.service;
+
+import com.github.rubenqba.inegi.domain.LocalityKey;
+import com.github.rubenqba.inegi.domain.MunicipalKey;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service interface to resolve many INEGI codes at once
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface BatchInegiService {
+
+    /**
+     * get mexican municipals by id
+     * @param keys requested municipal ids, duplicates are resolved once
+     * @return immutable map with an entry for every distinct key, in request order
+     */
+    Map<MunicipalKey, Optional<MxMunicipal>> getMxMunicipals(Collection<MunicipalKey> keys);
+
+    /**
+     * get localities by id
+     * @param keys requested locality ids, duplicates are resolved once
+     * @return immutable map with an entry for every distinct key, in request order
+     */
+    Map<LocalityKey, Optional<MxLocality>> getMxLocalities(Collection<LocalityKey> keys);
+}
@@ -0,0 +1,57 @@
+package com.github.rubenqba.inegi.service;
+
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.geo.Boundary;
+import com.github.rubenqba.inegi.geo.ReverseGeocoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface to INEGI geostatistical boundaries
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface GeometryService {
+
+    /**
+     * get the boundaries of every mexican state
+     * @return immutable list of boundaries or else an empty list
+     */
+    List<Boundary<MxState>> getMxStateBoundaries();
+
+    /**
+     * get the boundary of a mexican state
+     * @param state requested state id
+     * @return boundary, or empty otherwise
+     */
+    Optional<Boundary<MxState>> getMxStateBoundary(String state);
+
+    /**
+     * get the boundaries of the municipals of a state
+     * @param state requested state
+     * @return immutable list of boundaries or else an empty list
+     */
+    List<Boundary<MxMunicipal>> getMxMunicipalBoundaries(MxState state);
+
+    /**
+     * get the boundary of a municipal
+     * @param state requested state id
+     * @param municipal requested municipal id
+     * @return boundary, or empty otherwise
+     */
+    Optional<Boundary<MxMunicipal>> getMxMunicipalBoundary(String state, String municipal);
+
+    /**
+     * download every state and municipal boundary and index them
+     * @return reverse geocoder of the whole country
+     */
+    default ReverseGeocoder reverseGeocoder() {
+        final var states = getMxStateBoundaries();
+        final List<Boundary<MxMunicipal>> municipals = new ArrayList<>();
+        states.forEach(state -> municipals.addAll(getMxMunicipalBoundaries(state.getArea())));
+        return ReverseGeocoder.of(states, municipals);
+    }
+}
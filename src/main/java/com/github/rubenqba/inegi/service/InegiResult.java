@@ -0,0 +1,85 @@
+package com.github.rubenqba.inegi.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Result of a lookup telling a missing value apart from an unavailable INEGI service
+ *
+ * @param <T> looked up value
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class InegiResult<T> {
+
+    public enum Status {
+        /**
+         * INEGI answered with the value
+         */
+        FOUND,
+        /**
+         * INEGI answered that the value does not exist
+         */
+        NOT_FOUND,
+        /**
+         * INEGI could not be reached, the value is the last one it answered
+         */
+        STALE,
+        /**
+         * INEGI could not be reached and the value was never received before
+         */
+        UNAVAILABLE
+    }
+
+    Status status;
+    T value;
+
+    public static <T> InegiResult<T> found(T value) {
+        return new InegiResult<>(Status.FOUND, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param empty value representing nothing, as an empty list, or {@code null}
+     * @param <T> looked up value
+     * @return not found result
+     */
+    public static <T> InegiResult<T> notFound(T empty) {
+        return new InegiResult<>(Status.NOT_FOUND, empty);
+    }
+
+    public static <T> InegiResult<T> stale(T value) {
+        return new InegiResult<>(Status.STALE, Objects.requireNonNull(value));
+    }
+
+    public static <T> InegiResult<T> unavailable() {
+        return new InegiResult<>(Status.UNAVAILABLE, null);
+    }
+
+    /**
+     * @return whether there is a value, fresh or stale
+     */
+    public boolean isPresent() {
+        return status == Status.FOUND || status == Status.STALE;
+    }
+
+    /**
+     * @return whether the answer comes from INEGI, even if it is not found
+     */
+    public boolean isAvailable() {
+        return status == Status.FOUND || status == Status.NOT_FOUND;
+    }
+
+    public Optional<T> toOptional() {
+        return isPresent() ? Optional.of(value) : Optional.empty();
+    }
+
+    public T orElse(T other) {
+        return isPresent() ? value : other;
+    }
+}
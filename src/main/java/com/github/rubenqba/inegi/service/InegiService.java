@@ -6,6 +6,8 @@ import com.github.rubenqba.inegi.domain.MxState;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service interface to allow access to INEGI data
@@ -51,6 +53,28 @@ public interface InegiService {
      */
     List<MxLocality> getMxLocalities(MxMunicipal municipal);
 
+    /**
+     * stream localities by municipal, the stream must be closed once consumed
+     * @param municipal requested municipal
+     * @return stream of localities or else an empty stream
+     * @since 1.1.0
+     */
+    default Stream<MxLocality> streamMxLocalities(MxMunicipal municipal) {
+        return getMxLocalities(municipal).stream();
+    }
+
+    /**
+     * process localities by municipal one at a time
+     * @param municipal requested municipal
+     * @param action action performed on every locality
+     * @since 1.1.0
+     */
+    default void forEachMxLocality(MxMunicipal municipal, Consumer<? super MxLocality> action) {
+        try (Stream<MxLocality> localities = streamMxLocalities(municipal)) {
+            localities.forEach(action);
+        }
+    }
+
     /**
      * get mexican state by id
      * @param state requested state id
@@ -0,0 +1,108 @@
+package com.github.rubenqba.inegi.service;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface to INEGI data whose results tell a missing value apart from an unavailable service. When
+ * INEGI cannot be reached the last value it answered is returned as {@link InegiResult.Status#STALE}.
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface ResilientInegiService {
+
+    /**
+     * get mexican states
+     * @return immutable list of states
+     * @see InegiService#getMxStates()
+     */
+    InegiResult<List<MxState>> getMxStates();
+
+    /**
+     * get mexican state by id
+     * @param state requested state id
+     * @return state
+     * @see InegiService#getMxState(String)
+     */
+    InegiResult<MxState> getMxState(String state);
+
+    /**
+     * get mexican municipals by state
+     * @param state requested state
+     * @return immutable list of municipals
+     * @see InegiService#getMxMunicipals(MxState)
+     */
+    InegiResult<List<MxMunicipal>> getMxMunicipals(MxState state);
+
+    /**
+     * get mexican municipal by id
+     * @param state requested state id
+     * @param municipal requested municipal id
+     * @return municipal
+     * @see InegiService#getMxMunicipal(String, String)
+     */
+    InegiResult<MxMunicipal> getMxMunicipal(String state, String municipal);
+
+    /**
+     * get mexican localities by municipal
+     * @param municipal requested municipal
+     * @return immutable list of localities
+     * @see InegiService#getMxLocalities(MxMunicipal)
+     */
+    InegiResult<List<MxLocality>> getMxLocalities(MxMunicipal municipal);
+
+    /**
+     * get mexican locality by id
+     * @param state requested state id
+     * @param municipal requested municipal id
+     * @param locality requested locality id
+     * @return locality
+     * @see InegiService#getMxLocality(String, String, String)
+     */
+    InegiResult<MxLocality> getMxLocality(String state, String municipal, String locality);
+
+    /**
+     * view this service as an {@link InegiService}, stale values are returned as found and unavailable ones as
+     * not found
+     * @return adapted service
+     */
+    default InegiService asInegiService() {
+        final ResilientInegiService resilient = this;
+        return new InegiService() {
+            @Override
+            public List<MxState> getMxStates() {
+                return resilient.getMxStates().orElse(Collections.emptyList());
+            }
+
+            @Override
+            public Optional<MxState> getMxState(String state) {
+                return resilient.getMxState(state).toOptional();
+            }
+
+            @Override
+            public List<MxMunicipal> getMxMunicipals(MxState state) {
+                return resilient.getMxMunicipals(state).orElse(Collections.emptyList());
+            }
+
+            @Override
+            public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+                return resilient.getMxMunicipal(state, municipal).toOptional();
+            }
+
+            @Override
+            public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+                return resilient.getMxLocalities(municipal).orElse(Collections.emptyList());
+            }
+
+            @Override
+            public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+                return resilient.getMxLocality(state, municipal, locality).toOptional();
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit adjusted with additive increase and multiplicative decrease (AIMD).
+ * <p>
+ * Every request completed without congestion while the limit was in use raises it by about one per limit's worth of
+ * requests, every congested one (error, throttling, timeout or unusual latency) multiplies it by
+ * {@code backoffRatio}. Callers over the limit wait in arrival order.
+ */
+@Slf4j
+final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Object> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        if (minLimit <= 0 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * wait for a slot, every acquired slot must be released with {@link #release(boolean)}
+     * @param timeoutNanos maximum time to wait
+     * @return whether a slot was acquired
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    boolean acquire(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            final var ticket = new Object();
+            waiters.addLast(ticket);
+            try {
+                long nanos = timeoutNanos;
+                while (waiters.peekFirst() != ticket || inFlight >= (int) limit) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = changed.awaitNanos(nanos);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiters.remove(ticket);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param congested whether the request showed congestion
+     */
+    void release(boolean congested) {
+        lock.lock();
+        try {
+            final boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            final double previous = limit;
+            if (congested) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if ((int) limit != (int) previous) {
+                log.debug("INEGI concurrency limit changed from {} to {}", (int) previous, (int) limit);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.AsyncInegiService;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link AsyncInegiService} built on OkHttp asynchronous calls. Requests are queued in the OkHttp dispatcher,
+ * responses are decoded on the dispatcher threads and futures are completed on the completion executor.
+ * Failed requests, including responses that can not be decoded, complete with an empty result like the synchronous
+ * calls. Cancelling a future cancels its HTTP call.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class AsyncInegiServiceImpl implements AsyncInegiService {
+
+    private final InegiServiceImpl codec;
+    private final Executor completionExecutor;
+
+    public AsyncInegiServiceImpl() {
+        this(new InegiServiceImpl(), ForkJoinPool.commonPool());
+    }
+
+    public AsyncInegiServiceImpl(Executor completionExecutor) {
+        this(new InegiServiceImpl(), completionExecutor);
+    }
+
+    /**
+     * @param codec service used to build requests and decode responses
+     * @param completionExecutor executor used to complete the returned futures
+     */
+    public AsyncInegiServiceImpl(InegiServiceImpl codec, Executor completionExecutor) {
+        this.codec = Objects.requireNonNull(codec);
+        this.completionExecutor = Objects.requireNonNull(completionExecutor);
+    }
+
+    @Override
+    public CompletableFuture<List<MxState>> getMxStates() {
+        return enqueue(codec.mxStatesRequest(), codec::mxStates, Collections.emptyList());
+    }
+
+    @Override
+    public CompletableFuture<Optional<MxState>> getMxState(String state) {
+        return enqueue(codec.mxStateRequest(state), result -> codec.mxState(result, state), Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<List<MxMunicipal>> getMxMunicipals(MxState state) {
+        return enqueue(codec.mxMunicipalsRequest(state), result -> codec.mxMunicipals(result, state), Collections.emptyList());
+    }
+
+    @Override
+    public CompletableFuture<Optional<MxMunicipal>> getMxMunicipal(String state, String municipal) {
+        return enqueue(codec.mxMunicipalRequest(state, municipal), result -> codec.mxMunicipal(result, state, municipal), Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<List<MxLocality>> getMxLocalities(MxMunicipal municipal) {
+        return enqueue(codec.mxLocalitiesRequest(municipal), result -> codec.mxLocalities(result, municipal), Collections.emptyList());
+    }
+
+    @Override
+    public CompletableFuture<Optional<MxLocality>> getMxLocality(String state, String municipal, String locality) {
+        return enqueue(codec.mxLocalityRequest(state, municipal, locality), result -> codec.mxLocality(result, state, municipal, locality), Optional.empty());
+    }
+
+    private <T> CompletableFuture<T> enqueue(Request request, InegiServiceImpl.ResponseDecoder<T> decoder, T fallback) {
+        final var future = new CompletableFuture<T>();
+        final var call = codec.getClient().newCall(request);
+        final long started = codec.started(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                if (!call.isCanceled()) {
+                    codec.failed(request, ex);
+                }
+                codec.finished(request, InegiCallListener.Outcome.ERROR, started);
+                complete(future, fallback);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                T value = fallback;
+                try (response) {
+                    value = codec.received(request, response, started, decoder, fallback);
+                } catch (IOException | RuntimeException ex) {
+                    codec.failed(request, ex);
+                    codec.finished(request, InegiCallListener.Outcome.ERROR, started);
+                }
+                complete(future, value);
+            }
+        });
+        future.whenComplete((value, ex) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private <T> void complete(CompletableFuture<T> future, T value) {
+        completionExecutor.execute(() -> future.complete(value));
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.LocalityKey;
+import com.github.rubenqba.inegi.domain.MunicipalKey;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.BatchInegiService;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BatchInegiService} on top of any {@link InegiService}.
+ * <p>
+ * Keys are de-duplicated and grouped by parent. Groups of at least {@code minGroupSize} keys are answered with a
+ * single list request of the parent (municipals of a state, localities of a municipal), smaller groups with single
+ * lookups. Localities missing from a listing are looked up one by one, since listings only contain enabled
+ * localities. An empty listing can also be a failed request, so all the keys of its group are then looked up one by
+ * one. All requests run on at most {@code parallelism} concurrent workers.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class BatchInegiServiceImpl implements BatchInegiService, Closeable {
+
+    private final InegiService service;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int parallelism;
+    private final int minGroupSize;
+
+    public BatchInegiServiceImpl(InegiService service, InegiProperties.Batch settings) {
+        this.service = Objects.requireNonNull(service);
+        this.parallelism = Math.max(1, settings.getParallelism());
+        this.minGroupSize = Math.max(1, settings.getMinGroupSize());
+        this.ownedExecutor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("inegi-batch"));
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * @param service service used to resolve keys
+     * @param settings batch settings
+     * @param executor executor running the workers, it must allow {@code parallelism} concurrent tasks
+     */
+    public BatchInegiServiceImpl(InegiService service, InegiProperties.Batch settings, Executor executor) {
+        this.service = Objects.requireNonNull(service);
+        this.parallelism = Math.max(1, settings.getParallelism());
+        this.minGroupSize = Math.max(1, settings.getMinGroupSize());
+        this.ownedExecutor = null;
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public Map<MunicipalKey, Optional<MxMunicipal>> getMxMunicipals(Collection<MunicipalKey> keys) {
+        final Set<MunicipalKey> distinct = new LinkedHashSet<>(keys);
+        final Map<MunicipalKey, Optional<MxMunicipal>> found = new ConcurrentHashMap<>();
+        final Queue tasks = new Queue();
+        final Map<String, List<MunicipalKey>> groups = distinct.stream()
+                .collect(Collectors.groupingBy(MunicipalKey::getState, LinkedHashMap::new, Collectors.toList()));
+        groups.forEach((state, group) -> {
+            if (group.size() >= minGroupSize) {
+                tasks.add(() -> {
+                    final Map<String, MxMunicipal> listed = service.getMxMunicipals(new MxState(state, null, null)).stream()
+                            .collect(Collectors.toMap(MxMunicipal::getId, Function.identity(), (a, b) -> a));
+                    if (listed.isEmpty()) {
+                        // an empty list may be a failed request, it does not tell the keys do not exist
+                        group.forEach(key -> tasks.add(() -> found.put(key, service.getMxMunicipal(key.getState(), key.getMunicipal()))));
+                    } else {
+                        group.forEach(key -> found.put(key, Optional.ofNullable(listed.get(key.getMunicipal()))));
+                    }
+                });
+            } else {
+                group.forEach(key -> tasks.add(() -> found.put(key, service.getMxMunicipal(key.getState(), key.getMunicipal()))));
+            }
+        });
+        tasks.drain();
+        return ordered(distinct, found);
+    }
+
+    @Override
+    public Map<LocalityKey, Optional<MxLocality>> getMxLocalities(Collection<LocalityKey> keys) {
+        final Set<LocalityKey> distinct = new LinkedHashSet<>(keys);
+        final Map<LocalityKey, Optional<MxLocality>> found = new ConcurrentHashMap<>();
+        final Queue tasks = new Queue();
+        final Map<MunicipalKey, List<LocalityKey>> groups = distinct.stream()
+                .collect(Collectors.groupingBy(LocalityKey::getMunicipalKey, LinkedHashMap::new, Collectors.toList()));
+        groups.forEach((municipal, group) -> {
+            if (group.size() >= minGroupSize) {
+                tasks.add(() -> {
+                    final Map<String, MxLocality> listed = service.getMxLocalities(new MxMunicipal(municipal.getMunicipal(), municipal.getState(), null, null)).stream()
+                            .collect(Collectors.toMap(MxLocality::getId, Function.identity(), (a, b) -> a));
+                    for (LocalityKey key : group) {
+                        final var locality = listed.get(key.getLocality());
+                        if (Objects.nonNull(locality)) {
+                            found.put(key, Optional.ofNullable(locality));
+                        } else {
+                            tasks.add(() -> found.put(key, lookup(key)));
+                        }
+                    }
+                });
+            } else {
+                group.forEach(key -> tasks.add(() -> found.put(key, lookup(key))));
+            }
+        });
+        tasks.drain();
+        return ordered(distinct, found);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(ownedExecutor)) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private Optional<MxLocality> lookup(LocalityKey key) {
+        return service.getMxLocality(key.getState(), key.getMunicipal(), key.getLocality());
+    }
+
+    private static <K, V> Map<K, Optional<V>> ordered(Set<K> keys, Map<K, Optional<V>> found) {
+        final Map<K, Optional<V>> result = new LinkedHashMap<>();
+        keys.forEach(key -> result.put(key, found.getOrDefault(key, Optional.empty())));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * work queue consumed by at most {@code parallelism} workers, tasks may enqueue more tasks
+     */
+    private final class Queue {
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        void add(Runnable task) {
+            pending.incrementAndGet();
+            tasks.add(task);
+        }
+
+        void drain() {
+            while (pending.get() > 0) {
+                final int workers = Math.min(parallelism, tasks.size());
+                final List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+                for (int i = 0; i < workers; i++) {
+                    running.add(CompletableFuture.runAsync(this::work, executor));
+                }
+                CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+            }
+        }
+
+        private void work() {
+            Runnable task;
+            while (Objects.nonNull(task = tasks.poll())) {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    log.warn("batch lookup task failed", ex);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.cache.CacheStats;
+import com.github.rubenqba.inegi.cache.CatalogCache;
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * {@link InegiService} decorator that keeps the INEGI catalog in process.
+ * <p>
+ * Every level (states, municipals and localities) has its own caches for lists and single lookups. Single lookups
+ * are answered from a cached list whenever the parent list is already present.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class CachingInegiService implements InegiService, Closeable {
+
+    private static final String ALL_STATES = "mgee";
+
+    private static final Predicate<List<?>> NON_EMPTY_LIST = list -> !list.isEmpty();
+    private static final Predicate<Optional<?>> PRESENT = Optional::isPresent;
+
+    private final InegiService delegate;
+    private final ExecutorService ownedExecutor;
+
+    private final CatalogCache<String, List<MxState>> stateLists;
+    private final CatalogCache<String, Optional<MxState>> states;
+    private final CatalogCache<String, List<MxMunicipal>> municipalLists;
+    private final CatalogCache<String, Optional<MxMunicipal>> municipals;
+    private final CatalogCache<String, List<MxLocality>> localityLists;
+    private final CatalogCache<String, Optional<MxLocality>> localities;
+
+    public CachingInegiService(InegiService delegate, InegiProperties.Cache settings) {
+        this(delegate, settings, null);
+    }
+
+    public CachingInegiService(InegiService delegate, InegiProperties.Cache settings, Executor refreshExecutor) {
+        this.delegate = Objects.requireNonNull(delegate);
+        if (Objects.isNull(refreshExecutor)) {
+            this.ownedExecutor = Executors.newFixedThreadPool(Math.max(1, settings.getRefreshThreads()), new DaemonThreadFactory("inegi-cache-refresh"));
+            refreshExecutor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+        }
+        final var ttl = settings.getTtl();
+        final var refreshAfter = settings.getRefreshAfter();
+        this.stateLists = new CatalogCache<>("states", ttl, refreshAfter, 1, refreshExecutor);
+        this.states = new CatalogCache<>("state", ttl, refreshAfter, settings.getMaxStates(), refreshExecutor);
+        this.municipalLists = new CatalogCache<>("municipals", ttl, refreshAfter, settings.getMaxStates(), refreshExecutor);
+        this.municipals = new CatalogCache<>("municipal", ttl, refreshAfter, settings.getMaxMunicipals(), refreshExecutor);
+        this.localityLists = new CatalogCache<>("localities", ttl, refreshAfter, settings.getMaxMunicipals(), refreshExecutor);
+        this.localities = new CatalogCache<>("locality", ttl, refreshAfter, settings.getMaxLocalities(), refreshExecutor);
+    }
+
+    @Override
+    public List<MxState> getMxStates() {
+        return stateLists.get(ALL_STATES, key -> delegate.getMxStates(), NON_EMPTY_LIST::test);
+    }
+
+    @Override
+    public Optional<MxState> getMxState(String state) {
+        final var listed = stateLists.peek(ALL_STATES)
+                .flatMap(list -> list.stream().filter(s -> s.getId().equals(state)).findFirst());
+        if (listed.isPresent()) {
+            return listed;
+        }
+        return states.get(state, delegate::getMxState, PRESENT::test);
+    }
+
+    @Override
+    public List<MxMunicipal> getMxMunicipals(MxState state) {
+        return municipalLists.get(state.getId(), key -> delegate.getMxMunicipals(state), NON_EMPTY_LIST::test);
+    }
+
+    @Override
+    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        final var listed = municipalLists.peek(state)
+                .flatMap(list -> list.stream().filter(m -> m.getId().equals(municipal)).findFirst());
+        if (listed.isPresent()) {
+            return listed;
+        }
+        return municipals.get(key(state, municipal), key -> delegate.getMxMunicipal(state, municipal), PRESENT::test);
+    }
+
+    @Override
+    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+        return localityLists.get(key(municipal.getState(), municipal.getId()), key -> delegate.getMxLocalities(municipal), NON_EMPTY_LIST::test);
+    }
+
+    @Override
+    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        final var listed = localityLists.peek(key(state, municipal))
+                .flatMap(list -> list.stream().filter(l -> l.getId().equals(locality)).findFirst());
+        if (listed.isPresent()) {
+            return listed;
+        }
+        return localities.get(key(state, municipal, locality), key -> delegate.getMxLocality(state, municipal, locality), PRESENT::test);
+    }
+
+    /**
+     * get the counters of every cache, indexed by cache name
+     * @return immutable map of cache statistics
+     */
+    public Map<String, CacheStats> stats() {
+        final Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (CatalogCache<?, ?> cache : List.of(stateLists, states, municipalLists, municipals, localityLists, localities)) {
+            stats.put(cache.getName(), cache.stats());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * discard every cached entry
+     */
+    public void invalidateAll() {
+        List.of(stateLists, states, municipalLists, municipals, localityLists, localities).forEach(CatalogCache::invalidateAll);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(ownedExecutor)) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private static String key(String... codes) {
+        return String.join("/", codes);
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Incremental reader of INEGI list responses ({@code {"datos": [...], "metadatos": {...}, "numReg": n}}).
+ * <p>
+ * Records of the {@code datos} array are mapped straight into domain objects while the response is being read,
+ * so neither the response body nor intermediate DTO lists are held in memory.
+ *
+ * @param <T> domain type
+ */
+final class CatalogJsonReader<T> implements Closeable {
+
+    /**
+     * maps a single JSON object into a domain object
+     * @param <T> domain type
+     */
+    @FunctionalInterface
+    interface RecordMapper<T> {
+        /**
+         * @param parser parser positioned at the start of the record
+         * @return domain object, or null to skip the record
+         */
+        T read(JsonParser parser) throws IOException;
+    }
+
+    static final RecordMapper<MxState> STATE = parser -> {
+        String id = null, name = null, abbreviation = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "cve_agee": id = parser.getValueAsString(); break;
+                case "nom_agee": name = parser.getValueAsString(); break;
+                case "nom_abrev": abbreviation = parser.getValueAsString(); break;
+                default: parser.skipChildren();
+            }
+        }
+        return new MxState(id, name, abbreviation);
+    };
+
+    static final RecordMapper<MxMunicipal> MUNICIPAL = parser -> {
+        String state = null, id = null, name = null, firstCity = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "cve_agee": state = parser.getValueAsString(); break;
+                case "cve_agem": id = parser.getValueAsString(); break;
+                case "nom_agem": name = parser.getValueAsString(); break;
+                case "cve_cab": firstCity = parser.getValueAsString(); break;
+                default: parser.skipChildren();
+            }
+        }
+        return new MxMunicipal(id, state, name, firstCity);
+    };
+
+    /**
+     * maps localities, disabled ones ({@code estatus} false) are skipped
+     */
+    static final RecordMapper<MxLocality> ENABLED_LOCALITY = parser -> {
+        String state = null, municipal = null, id = null, name = null, scope = null;
+        Double latitude = null, longitude = null;
+        boolean enabled = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "cve_agee": state = parser.getValueAsString(); break;
+                case "cve_agem": municipal = parser.getValueAsString(); break;
+                case "cve_loc": id = parser.getValueAsString(); break;
+                case "nom_loc": name = parser.getValueAsString(); break;
+                case "ambito": scope = parser.getValueAsString(); break;
+                case "latitud": latitude = doubleValue(parser); break;
+                case "longitud": longitude = doubleValue(parser); break;
+                case "estatus": enabled = parser.getValueAsBoolean(); break;
+                default: parser.skipChildren();
+            }
+        }
+        if (!enabled) {
+            return null;
+        }
+        return new MxLocality(id, state, municipal, name, Objects.isNull(scope) ? null : LocaltyScope.valueOf(scope), latitude, longitude);
+    };
+
+    private final JsonParser parser;
+    private final RecordMapper<T> mapper;
+
+    private boolean started;
+    private boolean finished;
+    private InegiServiceImpl.MetadatosDto metadatos;
+    private Long numReg;
+
+    CatalogJsonReader(ObjectMapper objectMapper, InputStream input, RecordMapper<T> mapper) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(input);
+        this.mapper = mapper;
+    }
+
+    /**
+     * read the next record
+     * @return next domain object, or null when there are no more records
+     * @throws IOException if the response could not be read
+     */
+    T next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            if (parser.nextToken() != JsonToken.START_OBJECT || !seekRecords()) {
+                finished = true;
+                return null;
+            }
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                final T value = mapper.read(parser);
+                if (Objects.nonNull(value)) {
+                    return value;
+                }
+            } else if (token == JsonToken.END_ARRAY) {
+                seekRecords();
+                break;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        finished = true;
+        return null;
+    }
+
+    /**
+     * advance over the top level fields until the start of the {@code datos} array
+     * @return true if the parser is positioned at the records, false at the end of the response
+     */
+    private boolean seekRecords() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("datos".equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            } else if ("metadatos".equals(field) && value == JsonToken.START_OBJECT) {
+                metadatos = parser.readValueAs(InegiServiceImpl.MetadatosDto.class);
+            } else if ("numReg".equals(field) && value.isNumeric()) {
+                numReg = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return response metadata, available once all records have been read
+     */
+    InegiServiceImpl.MetadatosDto getMetadatos() {
+        return Objects.isNull(metadatos) ? new InegiServiceImpl.MetadatosDto() : metadatos;
+    }
+
+    Long getNumReg() {
+        return numReg;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private static Double doubleValue(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsDouble();
+    }
+}
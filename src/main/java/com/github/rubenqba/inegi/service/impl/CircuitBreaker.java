@@ -0,0 +1,102 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker counting consecutive failures.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls fail fast for
+ * {@code openDuration}. Then a single probe call is let through: its success closes the circuit and its failure
+ * opens it again. A probe that never reports is replaced by a new one after another {@code openDuration}.
+ */
+@Slf4j
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long rejected;
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier ticker) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return whether a call may be sent, every permitted call must report {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onIgnored()}
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        final long now = ticker.getAsLong();
+        if (now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            openedAt = now;
+            log.debug("circuit '{}' is half open, sending a probe", name);
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("circuit '{}' closed", name);
+        }
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            log.warn("circuit '{}' opened after {} consecutive failures", name, failures);
+            state = State.OPEN;
+            openedAt = ticker.getAsLong();
+        }
+    }
+
+    /**
+     * report a call that ended without telling whether the service works, for instance because it was interrupted,
+     * an ignored probe is replaced right away
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            openedAt = ticker.getAsLong() - openNanos;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return number of calls failed fast while the circuit was open
+     */
+    synchronized long getRejected() {
+        return rejected;
+    }
+}
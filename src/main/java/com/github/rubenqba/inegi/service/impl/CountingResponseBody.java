@@ -0,0 +1,61 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Response body counting the bytes read from it
+ */
+final class CountingResponseBody extends ResponseBody {
+
+    private final ResponseBody delegate;
+    private BufferedSource source;
+    private long bytes;
+
+    CountingResponseBody(ResponseBody delegate) {
+        this.delegate = delegate;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+        if (Objects.isNull(source)) {
+            source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    final long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        bytes += read;
+                    }
+                    return read;
+                }
+            });
+        }
+        return source;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.geo.Boundary;
+import com.github.rubenqba.inegi.geo.GeoJson;
+import com.github.rubenqba.inegi.geo.MultiPolygon;
+import com.github.rubenqba.inegi.service.GeometryService;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link GeometryService} reading the GeoJSON served by the {@code geo/mgee} and {@code geo/mgem} endpoints.
+ * Polygons are simplified with the given tolerance to speed up point-in-polygon tests, their original rings are kept.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class GeometryServiceImpl implements GeometryService {
+
+    private final InegiServiceImpl codec;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double tolerance;
+
+    public GeometryServiceImpl(InegiServiceImpl codec) {
+        this(codec, MultiPolygon.DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param codec service used to execute and instrument the requests
+     * @param tolerance polygon simplification tolerance in degrees
+     */
+    public GeometryServiceImpl(InegiServiceImpl codec, double tolerance) {
+        this.codec = Objects.requireNonNull(codec);
+        this.tolerance = tolerance;
+    }
+
+    private Request request(InegiOperation operation, String... segments) {
+        return codec.endpoint(operation).request(segments);
+    }
+
+    @Override
+    public List<Boundary<MxState>> getMxStateBoundaries() {
+        return codec.execute(request(InegiOperation.STATE_BOUNDARIES), result -> features(result, this::state), Collections.emptyList());
+    }
+
+    @Override
+    public Optional<Boundary<MxState>> getMxStateBoundary(String state) {
+        return codec.execute(request(InegiOperation.STATE_BOUNDARY, state),
+                result -> features(result, this::state).stream().findFirst(), Optional.empty());
+    }
+
+    @Override
+    public List<Boundary<MxMunicipal>> getMxMunicipalBoundaries(MxState state) {
+        return codec.execute(request(InegiOperation.MUNICIPAL_BOUNDARIES, state.getId()),
+                result -> features(result, this::municipal), Collections.emptyList());
+    }
+
+    @Override
+    public Optional<Boundary<MxMunicipal>> getMxMunicipalBoundary(String state, String municipal) {
+        return codec.execute(request(InegiOperation.MUNICIPAL_BOUNDARY, state, municipal),
+                result -> features(result, this::municipal).stream().findFirst(), Optional.empty());
+    }
+
+    private <T> List<Boundary<T>> features(Response result, Function<JsonNode, T> area) throws IOException {
+        final var root = objectMapper.readTree(result.body().byteStream());
+        final var features = root.has("features") ? root.get("features") : List.of(root);
+        final List<Boundary<T>> boundaries = new ArrayList<>();
+        for (JsonNode feature : features) {
+            final var geometry = feature.get("geometry");
+            if (Objects.isNull(geometry) || geometry.isNull()) {
+                continue;
+            }
+            try {
+                boundaries.add(new Boundary<>(area.apply(feature.path("properties")), GeoJson.multiPolygon(geometry, tolerance)));
+            } catch (IllegalArgumentException ex) {
+                log.warn("ignoring invalid INEGI geometry of {}: {}", feature.path("properties"), ex.getMessage());
+            }
+        }
+        return Collections.unmodifiableList(boundaries);
+    }
+
+    private MxState state(JsonNode properties) {
+        return new MxState(properties.path("cve_agee").asText(null), properties.path("nom_agee").asText(null),
+                properties.path("nom_abrev").asText(null));
+    }
+
+    private MxMunicipal municipal(JsonNode properties) {
+        return new MxMunicipal(properties.path("cve_agem").asText(null), properties.path("cve_agee").asText(null),
+                properties.path("nom_agem").asText(null), properties.path("cve_cab").asText(null));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptors used with the on-disk HTTP cache.
+ * <p>
+ * INEGI responses carry no caching headers, so {@link #freshFor(Duration)} gives them a fixed freshness lifetime
+ * before they are stored. {@link #staleIfError(Duration)} answers from the cache, even with an expired entry, when
+ * the service cannot be reached, times out or answers with a server error.
+ */
+@Slf4j
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    /**
+     * network interceptor setting {@code Cache-Control: max-age} on successful responses without caching headers
+     * @param maxAge freshness lifetime
+     * @return interceptor
+     */
+    static Interceptor freshFor(Duration maxAge) {
+        final String cacheControl = "max-age=" + maxAge.toSeconds();
+        return chain -> {
+            final var response = chain.proceed(chain.request());
+            if (!response.isSuccessful() || Objects.nonNull(response.header("Cache-Control")) || Objects.nonNull(response.header("Expires"))) {
+                return response;
+            }
+            return response.newBuilder()
+                    .header("Cache-Control", cacheControl)
+                    .removeHeader("Pragma")
+                    .build();
+        };
+    }
+
+    /**
+     * application interceptor falling back to a cached response when the network call fails
+     * @param maxStale maximum age past expiration of a cached response to be served
+     * @return interceptor
+     */
+    static Interceptor staleIfError(Duration maxStale) {
+        final var onlyCached = new CacheControl.Builder()
+                .onlyIfCached()
+                .maxStale((int) Math.min(Integer.MAX_VALUE, maxStale.toSeconds()), TimeUnit.SECONDS)
+                .build();
+        return chain -> {
+            final var request = chain.request();
+            if (!"GET".equals(request.method())) {
+                return chain.proceed(request);
+            }
+            final Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException ex) {
+                final var stale = cached(chain, request, onlyCached);
+                if (Objects.isNull(stale)) {
+                    throw ex;
+                }
+                log.warn("INEGI is unreachable, serving '{}' from cache", request.url());
+                return stale;
+            }
+            if (response.code() < HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                return response;
+            }
+            final var stale = cached(chain, request, onlyCached);
+            if (Objects.isNull(stale)) {
+                return response;
+            }
+            response.close();
+            log.warn("INEGI answered {}, serving '{}' from cache", response.code(), request.url());
+            return stale;
+        };
+    }
+
+    private static Response cached(Interceptor.Chain chain, Request request, CacheControl onlyCached) {
+        try {
+            final var cached = chain.proceed(request.newBuilder()
+                    .removeHeader("If-None-Match")
+                    .removeHeader("If-Modified-Since")
+                    .cacheControl(onlyCached)
+                    .build());
+            if (cached.isSuccessful()) {
+                return cached;
+            }
+            cached.close();
+        } catch (IOException ex) {
+            log.trace("no cached response for '{}'", request.url(), ex);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.TlsVersion;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link OkHttpClient} used to reach the INEGI service.
+ * <p>
+ * The dispatcher runs on daemon threads, so a client that is simply dropped does not keep the JVM alive; idle
+ * threads and pooled connections are released after their keep alive. When a cache directory is configured
+ * responses are kept on disk, as transferred (OkHttp asks for gzip encoding), so a restarted node is warmed from
+ * its disk and stale responses are served while INEGI is failing. With a rate limit the requests not answered from
+ * the cache are shaped by a {@link TrafficShaper}, the last application interceptor. The given application
+ * interceptors, for instance for metrics or authentication, run before it and can tell the operations apart by the
+ * {@link InegiOperation} tag of the requests.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public final class HttpClientFactory {
+
+    private HttpClientFactory() {
+    }
+
+    /**
+     * @return client built from the default settings, shared by the services created without a client
+     */
+    public static OkHttpClient shared() {
+        return Shared.CLIENT;
+    }
+
+    /**
+     * @param baseUrl base URL of the INEGI service
+     * @return client built from the default settings, allowing plain HTTP connections for an {@code http:} URL
+     */
+    public static OkHttpClient shared(String baseUrl) {
+        return cleartext(baseUrl) ? SharedCleartext.CLIENT : Shared.CLIENT;
+    }
+
+    /**
+     * @param url absolute URL
+     * @return whether the URL is reached through plain HTTP connections
+     */
+    public static boolean cleartext(String url) {
+        return "http".equals(HttpUrl.get(url).scheme());
+    }
+
+    /**
+     * create a client, every client owns its connection pool and dispatcher
+     * @param settings transport settings
+     * @return new client
+     */
+    public static OkHttpClient create(InegiProperties.Http settings) {
+        return create(settings, List.of());
+    }
+
+    /**
+     * create a client, every client owns its connection pool and dispatcher, it only makes TLS connections unless
+     * {@code cleartext} is set
+     * @param settings transport settings
+     * @param interceptors application interceptors, in calling order
+     * @return new client
+     */
+    public static OkHttpClient create(InegiProperties.Http settings, List<Interceptor> interceptors) {
+        final var dispatcher = new Dispatcher(new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new DaemonThreadFactory("inegi-http")));
+        dispatcher.setMaxRequests(settings.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
+        final var tls = new ConnectionSpec.Builder(ConnectionSpec.MODERN_TLS)
+                .tlsVersions(settings.getTlsVersions().toArray(TlsVersion[]::new))
+                .build();
+        final var builder = new OkHttpClient.Builder()
+                .connectionSpecs(settings.isCleartext() ? List.of(tls, ConnectionSpec.CLEARTEXT) : List.of(tls))
+                .connectionPool(new ConnectionPool(settings.getMaxIdleConnections(), settings.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(settings.getProtocols())
+                .connectTimeout(settings.getConnectTimeout())
+                .readTimeout(settings.getReadTimeout())
+                .callTimeout(settings.getCallTimeout())
+                .followRedirects(true)
+                .followSslRedirects(true);
+        interceptors.forEach(builder::addInterceptor);
+        final var diskCache = settings.getDiskCache();
+        if (Objects.nonNull(diskCache.getDirectory())) {
+            builder.cache(new Cache(diskCache.getDirectory().toFile(), diskCache.getMaxSize().toBytes()))
+                    .addInterceptor(HttpCaching.staleIfError(diskCache.getStaleIfError()))
+                    .addNetworkInterceptor(HttpCaching.freshFor(diskCache.getMaxAge()));
+        }
+        if (settings.getRateLimit().isEnabled()) {
+            builder.addInterceptor(new TrafficShaper(settings.getRateLimit(), Objects.nonNull(diskCache.getDirectory())));
+        }
+        return builder.build();
+    }
+
+    /**
+     * lazily initialized by the class loader, which makes it safe to share between threads
+     */
+    private static final class Shared {
+        private static final OkHttpClient CLIENT = create(new InegiProperties.Http());
+    }
+
+    private static final class SharedCleartext {
+        private static final OkHttpClient CLIENT = create(cleartextSettings());
+
+        private static InegiProperties.Http cleartextSettings() {
+            final var settings = new InegiProperties.Http();
+            settings.setCleartext(true);
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Request;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link InegiService} answered from a local copy of the catalog lists that is kept up to date with cheap
+ * conditional requests.
+ * <p>
+ * Lists are downloaded the first time they are requested and kept together with their HTTP validators
+ * ({@code ETag}, {@code Last-Modified}) and a digest of their content. {@link #refresh()} revalidates the copy:
+ * the states list carries the catalog update stamp ({@code fechaActualizacion}), so while it is not modified the
+ * rest of the catalog is considered unchanged and the refresh costs a single request. Otherwise every held list
+ * is revalidated and only the lists whose content changed are decoded again.
+ * <p>
+ * Concurrent callers of a list missing from the copy share a single download, and downloads do not wait for a
+ * refresh in progress. The lists omit the inactive localities, so a single municipal or locality missing from them
+ * is looked up in INEGI.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class IncrementalCatalogService implements InegiService, Closeable {
+
+    private static final String ALL_STATES = "mgee";
+
+    private final InegiServiceImpl source;
+
+    private volatile Entry<MxState> states;
+    private final Map<String, Entry<MxMunicipal>> municipals = new ConcurrentHashMap<>();
+    private final Map<String, Entry<MxLocality>> localities = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry<?>>> loading = new ConcurrentHashMap<>();
+    private volatile String catalogUpdate;
+    private volatile ScheduledExecutorService scheduler;
+
+    public IncrementalCatalogService(InegiServiceImpl source) {
+        this.source = Objects.requireNonNull(source);
+    }
+
+    /**
+     * refresh the local copy periodically on a background thread, until the service is closed
+     * @param interval time between refreshes
+     */
+    public synchronized void scheduleRefresh(Duration interval) {
+        if (Objects.nonNull(scheduler)) {
+            throw new IllegalStateException("refresh already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("inegi-catalog-refresh"));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                log.error("INEGI catalog refresh failed", ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * a downloaded list, its decoder and the validators needed to revalidate it
+     */
+    @Value
+    private static class Entry<T> {
+        Request request;
+        InegiServiceImpl.ResponseDecoder<List<T>> decoder;
+        List<T> values;
+        Revalidation.Validators validators;
+
+        private Entry<T> revised(Revalidation<List<T>> outcome) {
+            return new Entry<>(request, decoder, outcome.getValue(), outcome.getValidators());
+        }
+    }
+
+    /**
+     * Summary of a refresh
+     */
+    @Value
+    public static class RefreshReport {
+        /**
+         * catalog update stamp after the refresh, if known
+         */
+        String catalogUpdate;
+        /**
+         * number of HTTP requests sent
+         */
+        int requests;
+        /**
+         * number of lists that did not change, either not modified or received with the same content
+         */
+        int unchanged;
+        /**
+         * lists whose content changed and was decoded again, as {@code mgee}, {@code mgem/SS} or
+         * {@code localidades/SS/MMM}
+         */
+        Set<String> changed;
+        /**
+         * number of requests that failed, their lists keep the previous content
+         */
+        int failed;
+    }
+
+    /**
+     * @return catalog update stamp of the local copy, or empty if it has not been loaded yet
+     */
+    public Optional<String> getCatalogUpdate() {
+        return Optional.ofNullable(catalogUpdate);
+    }
+
+    /**
+     * revalidate the local copy, stopping after the states list when it did not change
+     * @return refresh summary
+     */
+    public RefreshReport refresh() {
+        return refresh(false);
+    }
+
+    /**
+     * revalidate the local copy
+     * @param full revalidate every held list even if the states list did not change
+     * @return refresh summary
+     */
+    public synchronized RefreshReport refresh(boolean full) {
+        final var counters = new Counters();
+        final var current = states;
+        if (Objects.nonNull(current)) {
+            final var outcome = counters.count(ALL_STATES, source.revalidate(current.request, current.validators, current.decoder));
+            if (outcome.isChanged()) {
+                states = current.revised(outcome);
+                catalogUpdate = source.getCatalogUpdate().orElse(catalogUpdate);
+            } else if (!full) {
+                log.debug("INEGI catalog {} did not change", catalogUpdate);
+                return counters.report(catalogUpdate);
+            }
+        }
+        municipals.forEach((state, entry) -> {
+            final var outcome = counters.count("mgem/" + state, source.revalidate(entry.request, entry.validators, entry.decoder));
+            if (outcome.isChanged()) {
+                municipals.put(state, entry.revised(outcome));
+                final Set<String> listed = municipalKeys(state, outcome.getValue());
+                localities.keySet().removeIf(key -> key.startsWith(state + "/") && !listed.contains(key));
+            }
+        });
+        localities.forEach((key, entry) -> {
+            final var outcome = counters.count("localidades/" + key, source.revalidate(entry.request, entry.validators, entry.decoder));
+            if (outcome.isChanged()) {
+                localities.put(key, entry.revised(outcome));
+            }
+        });
+        final var report = counters.report(catalogUpdate);
+        log.info("INEGI catalog {} refreshed with {} requests, {} lists changed", catalogUpdate, report.requests, report.changed.size());
+        return report;
+    }
+
+    @Override
+    public List<MxState> getMxStates() {
+        var current = states;
+        if (Objects.isNull(current)) {
+            current = load(ALL_STATES, source.mxStatesRequest(), source::mxStates, () -> states, entry -> states = entry);
+        }
+        return Objects.isNull(current) ? Collections.emptyList() : current.values;
+    }
+
+    @Override
+    public Optional<MxState> getMxState(String state) {
+        return getMxStates().stream().filter(s -> s.getId().equals(state)).findFirst();
+    }
+
+    @Override
+    public List<MxMunicipal> getMxMunicipals(MxState state) {
+        var current = municipals.get(state.getId());
+        if (Objects.isNull(current)) {
+            current = load("mgem/" + state.getId(), source.mxMunicipalsRequest(state), result -> source.mxMunicipals(result, state),
+                    () -> municipals.get(state.getId()), entry -> municipals.put(state.getId(), entry));
+        }
+        return Objects.isNull(current) ? Collections.emptyList() : current.values;
+    }
+
+    @Override
+    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        return getMxState(state)
+                .flatMap(parent -> getMxMunicipals(parent).stream().filter(m -> m.getId().equals(municipal)).findFirst())
+                .or(() -> source.getMxMunicipal(state, municipal));
+    }
+
+    @Override
+    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+        final String key = key(municipal.getState(), municipal.getId());
+        var current = localities.get(key);
+        if (Objects.isNull(current)) {
+            current = load("localidades/" + key, source.mxLocalitiesRequest(municipal), result -> source.mxLocalities(result, municipal),
+                    () -> localities.get(key), entry -> localities.put(key, entry));
+        }
+        return Objects.isNull(current) ? Collections.emptyList() : current.values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Inactive localities are not in the lists, they are looked up in INEGI on every call.
+     */
+    @Override
+    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        return getMxMunicipal(state, municipal)
+                .flatMap(parent -> getMxLocalities(parent).stream().filter(l -> l.getId().equals(locality)).findFirst())
+                .or(() -> source.getMxLocality(state, municipal, locality));
+    }
+
+    /**
+     * download a list missing from the local copy, concurrent callers of the same list wait for a single download
+     * @param list list name, as in {@link RefreshReport#getChanged()}
+     * @return downloaded list, or null if it could not be downloaded
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Entry<T> load(String list, Request request, InegiServiceImpl.ResponseDecoder<List<T>> decoder,
+                              Supplier<Entry<T>> loaded, Consumer<Entry<T>> store) {
+        final var download = new CompletableFuture<Entry<?>>();
+        final var pending = loading.putIfAbsent(list, download);
+        if (Objects.nonNull(pending)) {
+            return (Entry<T>) pending.join();
+        }
+        Entry<T> entry = null;
+        try {
+            entry = loaded.get();
+            if (Objects.isNull(entry)) {
+                final var outcome = source.revalidate(request, Revalidation.Validators.NONE, decoder);
+                if (outcome.isChanged() && !outcome.getValue().isEmpty()) {
+                    entry = new Entry<>(request, decoder, outcome.getValue(), outcome.getValidators());
+                    store.accept(entry);
+                    if (Objects.isNull(catalogUpdate)) {
+                        catalogUpdate = source.getCatalogUpdate().orElse(null);
+                    }
+                }
+            }
+            return entry;
+        } finally {
+            loading.remove(list, download);
+            download.complete(entry);
+        }
+    }
+
+    @Override
+    public void close() {
+        final var current = scheduler;
+        if (Objects.nonNull(current)) {
+            current.shutdownNow();
+        }
+    }
+
+    private static Set<String> municipalKeys(String state, List<MxMunicipal> values) {
+        final Set<String> keys = new HashSet<>();
+        values.forEach(municipal -> keys.add(key(state, municipal.getId())));
+        return keys;
+    }
+
+    private static String key(String state, String municipal) {
+        return state + "/" + municipal;
+    }
+
+    private static final class Counters {
+        private final Set<String> changed = new TreeSet<>();
+        private int requests;
+        private int unchanged;
+        private int failed;
+
+        private <T> Revalidation<T> count(String list, Revalidation<T> outcome) {
+            requests++;
+            switch (outcome.getStatus()) {
+                case CHANGED:
+                    changed.add(list);
+                    break;
+                case FAILED:
+                    failed++;
+                    break;
+                default:
+                    unchanged++;
+            }
+            return outcome;
+        }
+
+        private RefreshReport report(String catalogUpdate) {
+            return new RefreshReport(catalogUpdate, requests, unchanged, Collections.unmodifiableSet(changed), failed);
+        }
+    }
+}
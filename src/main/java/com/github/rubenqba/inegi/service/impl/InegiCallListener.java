@@ -0,0 +1,61 @@
+package com.github.rubenqba.inegi.service.impl;
+
+/**
+ * Receives the events of every HTTP call made to INEGI, used to collect metrics. Every started call is finished
+ * exactly once. Methods are called from the thread executing the call and must not block.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface InegiCallListener {
+
+    InegiCallListener NONE = new InegiCallListener() {
+    };
+
+    enum Outcome {
+        /**
+         * successful response with at least one record
+         */
+        SUCCESS,
+        /**
+         * successful response without records, or a {@code 404} response
+         */
+        NOT_FOUND,
+        /**
+         * response with any other non 2xx status
+         */
+        HTTP_ERROR,
+        /**
+         * the call failed or its response could not be decoded
+         */
+        ERROR
+    }
+
+    default void callStarted(InegiOperation operation) {
+    }
+
+    /**
+     * @param operation operation
+     * @param status HTTP status code
+     * @param nanos time from the start of the call until the response headers were received
+     */
+    default void responseReceived(InegiOperation operation, int status, long nanos) {
+    }
+
+    /**
+     * @param operation operation
+     * @param bytes response body size, as decompressed
+     * @param records number of decoded records
+     * @param nanos time spent reading and decoding the body
+     */
+    default void responseDecoded(InegiOperation operation, long bytes, int records, long nanos) {
+    }
+
+    /**
+     * @param operation operation
+     * @param outcome result of the call
+     * @param nanos total time of the call
+     */
+    default void callFinished(InegiOperation operation, Outcome outcome, long nanos) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+import java.util.Objects;
+
+/**
+ * URL template of an {@link InegiOperation}, parsed once with the path of its endpoint so that a request only appends
+ * the keys of the call. Requests are tagged with their operation, for the listener and the HTTP interceptors.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+final class InegiEndpoint {
+
+    private final InegiOperation operation;
+    private final HttpUrl template;
+
+    /**
+     * @param base base URL of the INEGI service
+     * @param operation operation served by the endpoint
+     */
+    InegiEndpoint(HttpUrl base, InegiOperation operation) {
+        this.operation = Objects.requireNonNull(operation);
+        this.template = base.newBuilder().addPathSegments(operation.getEndpoint()).build();
+    }
+
+    InegiOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @param segments keys of the call, every one is a single encoded path segment
+     * @return request of the call
+     */
+    Request request(String... segments) {
+        final var url = template.newBuilder();
+        for (String segment : segments) {
+            url.addPathSegment(segment);
+        }
+        return new Request.Builder()
+                .url(url.build())
+                .tag(InegiOperation.class, operation)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Operations of the INEGI service, each one is a request to one of its endpoints
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Getter
+@AllArgsConstructor
+public enum InegiOperation {
+    STATES("mgee", "getMxStates"),
+    STATE("mgee", "getMxState"),
+    MUNICIPALS("mgem", "getMxMunicipals"),
+    MUNICIPAL("mgem", "getMxMunicipal"),
+    LOCALITIES("localidades", "getMxLocalities"),
+    LOCALITY("localidades", "getMxLocality"),
+    STATE_BOUNDARIES("geo/mgee", "getMxStateBoundaries"),
+    STATE_BOUNDARY("geo/mgee", "getMxStateBoundary"),
+    MUNICIPAL_BOUNDARIES("geo/mgem", "getMxMunicipalBoundaries"),
+    MUNICIPAL_BOUNDARY("geo/mgem", "getMxMunicipalBoundary");
+
+    /**
+     * INEGI endpoint, as the first path segments of the request
+     */
+    private final String endpoint;
+    /**
+     * {@link com.github.rubenqba.inegi.service.InegiService} or {@link com.github.rubenqba.inegi.service.GeometryService}
+     * method performing the operation
+     */
+    private final String method;
+}
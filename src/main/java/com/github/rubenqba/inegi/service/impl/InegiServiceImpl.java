@@ -5,42 +5,446 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.github.rubenqba.inegi.domain.LocaltyScope;
 import com.github.rubenqba.inegi.domain.MxLocality;
 import com.github.rubenqba.inegi.domain.MxMunicipal;
 import com.github.rubenqba.inegi.domain.MxState;
 import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.store.CatalogStore;
+import com.github.rubenqba.inegi.store.StoreEntry;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
-import org.springframework.web.util.UriComponentsBuilder;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link InegiService} calling the INEGI service.
+ * <p>
+ * Every operation goes through the same pipeline: its request is built from a precompiled {@link InegiEndpoint}, it is
+ * executed once for all the concurrent callers of the same URL, answered from the {@link CatalogStore} when possible,
+ * and its response is decoded with a reader prepared for its type while the {@link InegiCallListener} is notified. The
+ * HTTP interceptors of the client see every request tagged with its {@link InegiOperation}.
+ * <p>
+ * With a store, successful responses are read whole into memory before being decoded, so they can be stored. Only
+ * {@link #streamMxLocalities(MxMunicipal)} decodes while downloading, it neither consults nor updates the store.
+ */
 @Slf4j
 public class InegiServiceImpl implements InegiService {
 
-    private static final String INEGI_GEO_API = "https://gaia.inegi.org.mx/wscatgeo";
+    /**
+     * base URL of the INEGI geostatistical catalog service
+     */
+    public static final String INEGI_GEO_API = "https://gaia.inegi.org.mx/wscatgeo";
+
+    private static final MediaType JSON = MediaType.get("application/json");
 
     private static final Function<InegiState, MxState> stateDomainMapper = (dto) -> new MxState(dto.cveAgee, dto.nomAgee, dto.nomAbrev);
     private static final Function<InegiMunicipio, MxMunicipal> regionDomainMapper = (dto) -> new MxMunicipal(dto.municipaly, dto.state, dto.name, dto.principalCity);
-    private static final Function<InegiLocalidad, MxLocality> localtyDomainMapper = (dto) -> new MxLocality(dto.localty, dto.state, dto.municipal, dto.name, LocaltyScope.valueOf(dto.ambito), dto.latitud, dto.longitud);
+    static final Function<InegiLocalidad, MxLocality> localtyDomainMapper = (dto) -> new MxLocality(dto.localty, dto.state, dto.municipal, dto.name, LocaltyScope.valueOf(dto.ambito), dto.latitud, dto.longitud);
+
+    private final OkHttpClient client;
+
+    private final InegiCallListener listener;
+
+    private final String baseUrl;
+
+    private final CatalogStore store;
+
+    private final LongAdder storeHits = new LongAdder();
 
     private final ObjectMapper objectMapper;
 
+    private final ObjectReader stateReader;
+
+    private final ObjectReader regionReader;
+
+    private final ObjectReader localtyReader;
+
+    private final Map<InegiOperation, InegiEndpoint> endpoints = new EnumMap<>(InegiOperation.class);
+
+    private final SingleFlight inFlight = new SingleFlight();
+
+    private volatile String catalogUpdate;
+
     public InegiServiceImpl() {
+        this(HttpClientFactory.shared());
+    }
+
+    /**
+     * @param client HTTP client used to reach the INEGI service
+     */
+    public InegiServiceImpl(OkHttpClient client) {
+        this(client, InegiCallListener.NONE);
+    }
+
+    /**
+     * @param client HTTP client used to reach the INEGI service
+     * @param listener listener notified of every HTTP call
+     */
+    public InegiServiceImpl(OkHttpClient client, InegiCallListener listener) {
+        this(client, listener, INEGI_GEO_API);
+    }
+
+    /**
+     * @param client HTTP client used to reach the INEGI service
+     * @param listener listener notified of every HTTP call
+     * @param baseUrl base URL of the INEGI service, for instance a local stand-in
+     */
+    public InegiServiceImpl(OkHttpClient client, InegiCallListener listener, String baseUrl) {
+        this(client, listener, baseUrl, CatalogStore.NONE);
+    }
+
+    /**
+     * @param client HTTP client used to reach the INEGI service
+     * @param listener listener notified of every HTTP call
+     * @param baseUrl base URL of the INEGI service, for instance a local stand-in
+     * @param store store consulted before calling INEGI and updated with its successful responses, which are then
+     * buffered in memory
+     */
+    public InegiServiceImpl(OkHttpClient client, InegiCallListener listener, String baseUrl, CatalogStore store) {
+        this.client = Objects.requireNonNull(client);
+        this.listener = Objects.requireNonNull(listener);
+        this.baseUrl = Objects.requireNonNull(baseUrl);
+        this.store = Objects.requireNonNull(store);
         this.objectMapper = new ObjectMapper();
         objectMapper.configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true);
+        this.stateReader = objectMapper.readerFor(StateDto.class);
+        this.regionReader = objectMapper.readerFor(RegionDto.class);
+        this.localtyReader = objectMapper.readerFor(LocaltyDto.class);
+        final var base = HttpUrl.get(baseUrl);
+        for (InegiOperation operation : InegiOperation.values()) {
+            endpoints.put(operation, new InegiEndpoint(base, operation));
+        }
+    }
 
+    OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return base URL of the INEGI service
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @param operation INEGI operation
+     * @return precompiled endpoint of the operation
+     */
+    InegiEndpoint endpoint(InegiOperation operation) {
+        return endpoints.get(operation);
+    }
+
+    /**
+     * get the last update date reported by INEGI metadata ({@code fechaActualizacion})
+     * @return last seen update date, or empty if no response has been received yet
+     */
+    public Optional<String> getCatalogUpdate() {
+        return Optional.ofNullable(catalogUpdate);
+    }
+
+    /**
+     * @return number of HTTP calls executed
+     */
+    public long getExecutedCalls() {
+        return inFlight.getExecuted();
+    }
+
+    /**
+     * @return number of HTTP calls saved by sharing the result of an identical call already in flight
+     */
+    public long getCoalescedCalls() {
+        return inFlight.getCoalesced();
+    }
+
+    /**
+     * @return number of HTTP calls saved by answering from the catalog store
+     */
+    public long getStoreHits() {
+        return storeHits.sum();
+    }
+
+    private void track(MetadatosDto metadatos) {
+        if (Objects.nonNull(metadatos) && Objects.nonNull(metadatos.fechaActualizacion)) {
+            catalogUpdate = metadatos.fechaActualizacion;
+        }
+    }
+
+    @FunctionalInterface
+    interface ResponseDecoder<T> {
+        T decode(Response response) throws IOException;
+    }
+
+    /**
+     * execute a request in the caller thread and decode its response, concurrent callers of the same URL share
+     * a single HTTP call and its decoded result
+     * @param request INEGI request
+     * @param decoder decoder used for successful responses
+     * @param fallback value returned when the request fails, including unexpected errors of the client or the decoder
+     * @param <T> decoded type
+     * @return decoded value or else fallback
+     */
+    <T> T execute(Request request, ResponseDecoder<T> decoder, T fallback) {
+        return inFlight.execute(request.url().toString(), () -> call(request, decoder, fallback));
+    }
+
+    private <T> T call(Request request, ResponseDecoder<T> decoder, T fallback) {
+        final var stored = stored(request, decoder);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        final long started = started(request);
+        try (Response result = client.newCall(request).execute()) {
+            return receivedAndStored(request, result, started, decoder, fallback);
+        } catch (IOException | RuntimeException ex) {
+            failed(request, ex);
+            finished(request, InegiCallListener.Outcome.ERROR, started);
+        }
+        return fallback;
+    }
+
+    /**
+     * decode a response and notify it like {@link #received}, keeping successful responses with records in the store
+     */
+    <T> T receivedAndStored(Request request, Response result, long started, ResponseDecoder<T> decoder, T fallback) throws IOException {
+        if (store == CatalogStore.NONE || !result.isSuccessful()) {
+            return received(request, result, started, decoder, fallback);
+        }
+        final byte[] content = result.body().bytes();
+        final T value = received(request, result.newBuilder().body(ResponseBody.create(result.body().contentType(), content)).build(),
+                started, decoder, fallback);
+        if (records(value) > 0) {
+            store.put(storeKey(request), StoreEntry.of(catalogUpdate, Instant.now(), content));
+        }
+        return value;
+    }
+
+    /**
+     * decode the stored response of a request, entries of a catalog older than the last one seen are ignored
+     */
+    <T> Optional<T> stored(Request request, ResponseDecoder<T> decoder) {
+        if (store == CatalogStore.NONE) {
+            return Optional.empty();
+        }
+        final var key = storeKey(request);
+        try {
+            final var entry = store.get(key).filter(this::current);
+            if (entry.isEmpty()) {
+                return Optional.empty();
+            }
+            final var response = new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(HttpURLConnection.HTTP_OK)
+                    .message("OK")
+                    .body(ResponseBody.create(JSON, entry.get().body()))
+                    .build();
+            final T value = decoder.decode(response);
+            storeHits.increment();
+            return Optional.of(value);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("stored INEGI response '{}' could not be read, calling INEGI", key, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * catalog update dates are ISO dates, they sort as text
+     */
+    private boolean current(StoreEntry entry) {
+        final var seen = catalogUpdate;
+        return Objects.isNull(entry.getVersion()) || Objects.isNull(seen) || entry.getVersion().compareTo(seen) >= 0;
+    }
+
+    private static String storeKey(Request request) {
+        return request.url().encodedPath().substring(1);
+    }
+
+    /**
+     * notify the start of a call
+     * @param request INEGI request
+     * @return start time of the call
+     */
+    long started(Request request) {
+        listener.callStarted(request.tag(InegiOperation.class));
+        return System.nanoTime();
+    }
+
+    /**
+     * decode a response and notify it, failures must be notified by the caller with {@link #finished}
+     * @param request INEGI request
+     * @param result response of the request
+     * @param started start time of the call
+     * @param decoder decoder used for successful responses
+     * @param fallback value returned for unsuccessful responses
+     * @param <T> decoded type
+     * @return decoded value or else fallback
+     * @throws IOException if the response could not be read
+     */
+    <T> T received(Request request, Response result, long started, ResponseDecoder<T> decoder, T fallback) throws IOException {
+        final var operation = request.tag(InegiOperation.class);
+        listener.responseReceived(operation, result.code(), System.nanoTime() - started);
+        if (!result.isSuccessful()) {
+            finished(request, result.code() == HttpURLConnection.HTTP_NOT_FOUND
+                    ? InegiCallListener.Outcome.NOT_FOUND : InegiCallListener.Outcome.HTTP_ERROR, started);
+            return fallback;
+        }
+        return decode(request, result, started, decoder);
+    }
+
+    private <T> T decode(Request request, Response result, long started, ResponseDecoder<T> decoder) throws IOException {
+        final var operation = request.tag(InegiOperation.class);
+        final var body = new CountingResponseBody(result.body());
+        final long decoding = System.nanoTime();
+        final T value = decoder.decode(result.newBuilder().body(body).build());
+        final int records = records(value);
+        listener.responseDecoded(operation, body.getBytes(), records, System.nanoTime() - decoding);
+        finished(request, records == 0 ? InegiCallListener.Outcome.NOT_FOUND : InegiCallListener.Outcome.SUCCESS, started);
+        return value;
+    }
+
+    void finished(Request request, InegiCallListener.Outcome outcome, long started) {
+        listener.callFinished(request.tag(InegiOperation.class), outcome, System.nanoTime() - started);
+    }
+
+    private static int records(Object value) {
+        if (value instanceof List) {
+            return ((List<?>) value).size();
+        }
+        if (value instanceof Optional) {
+            return ((Optional<?>) value).isPresent() ? 1 : 0;
+        }
+        return Objects.isNull(value) ? 0 : 1;
+    }
+
+    void failed(Request request, Exception ex) {
+        log.error("There was an error downloading the URL '{}' ", request.url());
+        if (log.isTraceEnabled()) {
+            log.trace(ex.getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * execute a conditional request, the response is only decoded when its content differs from the previous one
+     * @param request INEGI request
+     * @param previous validators of the previous response
+     * @param decoder decoder used for changed responses
+     * @param <T> decoded type
+     * @return outcome of the request
+     */
+    <T> Revalidation<T> revalidate(Request request, Revalidation.Validators previous, ResponseDecoder<T> decoder) {
+        final var conditional = request.newBuilder();
+        if (Objects.nonNull(previous.getEtag())) {
+            conditional.header("If-None-Match", previous.getEtag());
+        }
+        if (Objects.nonNull(previous.getLastModified())) {
+            conditional.header("If-Modified-Since", previous.getLastModified());
+        }
+        final long started = started(request);
+        try (Response result = client.newCall(conditional.build()).execute()) {
+            if (result.code() != HttpURLConnection.HTTP_NOT_MODIFIED && !result.isSuccessful()) {
+                received(request, result, started, decoder, null);
+                return new Revalidation<>(Revalidation.Status.FAILED, null, previous);
+            }
+            listener.responseReceived(request.tag(InegiOperation.class), result.code(), System.nanoTime() - started);
+            if (result.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                finished(request, InegiCallListener.Outcome.SUCCESS, started);
+                return new Revalidation<>(Revalidation.Status.NOT_MODIFIED, null, previous);
+            }
+            final byte[] content = result.body().bytes();
+            final String digest = digest(content);
+            if (previous.sameContent(digest)) {
+                finished(request, InegiCallListener.Outcome.SUCCESS, started);
+                return new Revalidation<>(Revalidation.Status.UNCHANGED, null, previous);
+            }
+            final var validators = new Revalidation.Validators(result.header("ETag"), result.header("Last-Modified"), digest);
+            final var body = ResponseBody.create(result.body().contentType(), content);
+            return new Revalidation<>(Revalidation.Status.CHANGED, decode(request, result.newBuilder().body(body).build(), started, decoder), validators);
+        } catch (IOException ex) {
+            failed(request, ex);
+            finished(request, InegiCallListener.Outcome.ERROR, started);
+            return new Revalidation<>(Revalidation.Status.FAILED, null, previous);
+        } catch (RuntimeException ex) {
+            finished(request, InegiCallListener.Outcome.ERROR, started);
+            throw ex;
+        }
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * response of a single record lookup
+     * @param <E> record type
+     */
+    interface Envelope<E> {
+        MetadatosDto getMetadatos();
+
+        Long getNumReg();
+
+        Stream<E> records();
+    }
+
+    /**
+     * decode the response of a single record lookup, shared by every lookup
+     * @param result response of the lookup
+     * @param reader reader of the response type, an {@link Envelope}
+     * @param mapper domain mapper of the record
+     * @param description description of the record for the logs
+     * @param <E> record type
+     * @param <T> domain type
+     * @return the record, empty unless the response has exactly one
+     * @throws IOException if the response could not be read
+     */
+    private <E, T> Optional<T> single(Response result, ObjectReader reader, Function<E, T> mapper, Supplier<String> description) throws IOException {
+        final Envelope<E> dto = reader.readValue(result.body().byteStream());
+        track(dto.getMetadatos());
+        final Optional<T> first = Objects.nonNull(dto.getNumReg()) && dto.getNumReg() == 1 ? dto.records().map(mapper).findFirst() : Optional.empty();
+        if (first.isEmpty()) {
+            log.warn("{} was not found", description.get());
+        } else if (log.isTraceEnabled()) {
+            log.trace("received {} from INEGI service, catalog updated at {}", description.get(), catalogUpdate);
+        }
+        return first;
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class MetadatosDto {
         private String fechaActualizacion;
         private String fuenteInfo;
@@ -58,83 +462,57 @@ public class InegiServiceImpl implements InegiService {
         private String nomAbrev;
     }
 
-
-    @Data
-    @JsonInclude(JsonInclude.Include.NON_NULL)
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    static class StatesDto {
-        @JsonProperty("datos")
-        private List<InegiState> datos;
-        private MetadatosDto metadatos;
-        private Long numReg;
+    Request mxStatesRequest() {
+        return endpoint(InegiOperation.STATES).request();
     }
 
-    @Override
-    public List<MxState> getMxStates() {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("mgee");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.toUriString())
-                    .build();
-
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
-
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), StatesDto.class);
-                if (log.isTraceEnabled()) {
-                    log.trace("received {} states from INEGI service, last updated at {} by '{}'", dto.numReg, dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                }
-                return dto.datos.stream().map(stateDomainMapper).collect(Collectors.toUnmodifiableList());
+    List<MxState> mxStates(Response result) throws IOException {
+        final List<MxState> states = new ArrayList<>();
+        try (var reader = new CatalogJsonReader<>(objectMapper, result.body().byteStream(), CatalogJsonReader.STATE)) {
+            for (var state = reader.next(); Objects.nonNull(state); state = reader.next()) {
+                states.add(state);
             }
-        } catch (IOException ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.build().toUri());
+            track(reader.getMetadatos());
             if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
+                log.trace("received {} states from INEGI service, last updated at {} by '{}'", reader.getNumReg(), reader.getMetadatos().fechaActualizacion, reader.getMetadatos().fuenteInfo);
             }
         }
-        return Collections.emptyList();
+        return Collections.unmodifiableList(states);
+    }
+
+    @Override
+    public List<MxState> getMxStates() {
+        return execute(mxStatesRequest(), this::mxStates, Collections.emptyList());
     }
 
     @Data
     @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonIgnoreProperties(ignoreUnknown = true)
-    static class StateDto {
+    static class StateDto implements Envelope<InegiState> {
         @JsonProperty("datos")
         private InegiState state;
         private MetadatosDto metadatos;
         private Long numReg;
         private String result;
         private String mensaje;
+
+        @Override
+        public Stream<InegiState> records() {
+            return Stream.ofNullable(state);
+        }
     }
 
-    @Override
-    public Optional<MxState> getMxState(String state) {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("mgee", "{state}");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.buildAndExpand(state).toUriString())
-                    .build();
+    Request mxStateRequest(String state) {
+        return endpoint(InegiOperation.STATE).request(state);
+    }
 
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
+    Optional<MxState> mxState(Response result, String state) throws IOException {
+        return single(result, stateReader, stateDomainMapper, () -> "state '" + state + "'");
+    }
 
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), StateDto.class);
-                if (Objects.nonNull(dto.numReg) && dto.numReg == 1) {
-                    if (log.isTraceEnabled()) {
-                        log.trace("received {} states from INEGI service, last updated at {} by '{}'", dto.numReg, dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                    }
-                    return Optional.of(stateDomainMapper.apply(dto.state));
-                } else {
-                    log.warn("state id '{}' was not found", state);
-                }
-            }
-        } catch (IOException ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.buildAndExpand(state).toUri());
-            if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
-            }
-        }
-        return Optional.empty();
+    @Override
+    public Optional<MxState> getMxState(String state) {
+        return execute(mxStateRequest(state), result -> mxState(result, state), Optional.empty());
     }
 
     @Data
@@ -154,72 +532,53 @@ public class InegiServiceImpl implements InegiService {
     @Data
     @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonIgnoreProperties(ignoreUnknown = true)
-    static class RegionDto {
+    static class RegionDto implements Envelope<InegiMunicipio> {
         @JsonProperty("datos")
         private List<InegiMunicipio> datos;
         private MetadatosDto metadatos;
         private Long numReg;
-    }
 
-    @Override
-    public List<MxMunicipal> getMxMunicipals(MxState state) {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("mgem", "{state}");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.buildAndExpand(state.getId()).toUriString())
-                    .build();
+        @Override
+        public Stream<InegiMunicipio> records() {
+            return Objects.isNull(datos) ? Stream.empty() : datos.stream();
+        }
+    }
 
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
+    Request mxMunicipalsRequest(MxState state) {
+        return endpoint(InegiOperation.MUNICIPALS).request(state.getId());
+    }
 
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), RegionDto.class);
-                if (log.isTraceEnabled()) {
-                    log.trace("received {} {} state's regions from INEGI service, last updated at {} by '{}'",
-                            state.getName(), dto.numReg, dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                }
-                return dto.datos.stream().map(regionDomainMapper).collect(Collectors.toUnmodifiableList());
+    List<MxMunicipal> mxMunicipals(Response result, MxState state) throws IOException {
+        final List<MxMunicipal> municipals = new ArrayList<>();
+        try (var reader = new CatalogJsonReader<>(objectMapper, result.body().byteStream(), CatalogJsonReader.MUNICIPAL)) {
+            for (var municipal = reader.next(); Objects.nonNull(municipal); municipal = reader.next()) {
+                municipals.add(municipal);
             }
-        } catch (IOException ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.buildAndExpand(state.getId()).toUri());
+            track(reader.getMetadatos());
             if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
+                log.trace("received {} {} state's regions from INEGI service, last updated at {} by '{}'",
+                        state.getName(), reader.getNumReg(), reader.getMetadatos().fechaActualizacion, reader.getMetadatos().fuenteInfo);
             }
         }
-        return Collections.emptyList();
+        return Collections.unmodifiableList(municipals);
     }
 
     @Override
-    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("mgem", "{state}", "{municipal}");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.buildAndExpand(state, municipal).toUriString())
-                    .build();
+    public List<MxMunicipal> getMxMunicipals(MxState state) {
+        return execute(mxMunicipalsRequest(state), result -> mxMunicipals(result, state), Collections.emptyList());
+    }
 
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
-
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), RegionDto.class);
-                if (Objects.nonNull(dto.numReg) && dto.numReg == 1) {
-                    final var first = dto.datos.stream().map(regionDomainMapper).findFirst();
-                    first.ifPresentOrElse(mun -> {
-                        if (log.isTraceEnabled()) {
-                            log.trace("received municipal '{}' of state '{}' from INEGI service, last updated at {} by '{}'",
-                                    mun.getName(), mun.getState(), dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                        }
-                    }, () -> log.warn("municipal '{}' in state '{}', was not found", municipal, state));
-                    return first;
-                } else {
-                    log.warn("municipal id '{}' in state '{}' was not found", municipal, state);
-                }
-            }
-        } catch (Exception ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.buildAndExpand(state, municipal).toUri());
-            if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
-            }
-        }
-        return Optional.empty();
+    Request mxMunicipalRequest(String state, String municipal) {
+        return endpoint(InegiOperation.MUNICIPAL).request(state, municipal);
+    }
+
+    Optional<MxMunicipal> mxMunicipal(Response result, String state, String municipal) throws IOException {
+        return single(result, regionReader, regionDomainMapper, () -> "municipal '" + municipal + "' in state '" + state + "'");
+    }
+
+    @Override
+    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        return execute(mxMunicipalRequest(state, municipal), result -> mxMunicipal(result, state, municipal), Optional.empty());
     }
 
     @Data
@@ -247,73 +606,130 @@ public class InegiServiceImpl implements InegiService {
     @Data
     @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonIgnoreProperties(ignoreUnknown = true)
-    static class LocaltyDto {
+    static class LocaltyDto implements Envelope<InegiLocalidad> {
         @JsonProperty("datos")
         private List<InegiLocalidad> datos;
         private MetadatosDto metadatos;
         private Long numReg;
         private String result;
         private String mensaje;
-    }
 
-    @Override
-    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("localidades", "{state}", "{region}");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.buildAndExpand(municipal.getState(), municipal.getId()).toUriString())
-                    .build();
+        @Override
+        public Stream<InegiLocalidad> records() {
+            return Objects.isNull(datos) ? Stream.empty() : datos.stream();
+        }
+    }
 
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
+    Request mxLocalitiesRequest(MxMunicipal municipal) {
+        return endpoint(InegiOperation.LOCALITIES).request(municipal.getState(), municipal.getId());
+    }
 
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), LocaltyDto.class);
-                if (log.isTraceEnabled()) {
-                    log.trace("received {} {} municipal's localties from INEGI service, last updated at {} by '{}'",
-                            municipal.getName(), dto.numReg, dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                }
-                return dto.datos.stream().filter(InegiLocalidad::isEnabled).map(localtyDomainMapper).collect(Collectors.toUnmodifiableList());
-            }
-        } catch (IOException ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.buildAndExpand(municipal.getState(), municipal.getId()).toUri());
-            if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
+    List<MxLocality> mxLocalities(Response result, MxMunicipal municipal) throws IOException {
+        final List<MxLocality> localities = new ArrayList<>();
+        try (var reader = new CatalogJsonReader<>(objectMapper, result.body().byteStream(), CatalogJsonReader.ENABLED_LOCALITY)) {
+            for (var locality = reader.next(); Objects.nonNull(locality); locality = reader.next()) {
+                localities.add(locality);
             }
+            localitiesReceived(reader, municipal);
+        }
+        return Collections.unmodifiableList(localities);
+    }
+
+    private void localitiesReceived(CatalogJsonReader<MxLocality> reader, MxMunicipal municipal) {
+        track(reader.getMetadatos());
+        if (log.isTraceEnabled()) {
+            log.trace("received {} {} municipal's localties from INEGI service, last updated at {} by '{}'",
+                    municipal.getName(), reader.getNumReg(), reader.getMetadatos().fechaActualizacion, reader.getMetadatos().fuenteInfo);
         }
-        return Collections.emptyList();
     }
 
     @Override
-    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
-        final var uriComponents = UriComponentsBuilder.fromHttpUrl(INEGI_GEO_API).pathSegment("localidades", "{state}{region}{locality}");
-        try {
-            Request request = new Request.Builder()
-                    .url(uriComponents.buildAndExpand(state, municipal, locality).toUriString())
-                    .build();
+    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+        return execute(mxLocalitiesRequest(municipal), result -> mxLocalities(result, municipal), Collections.emptyList());
+    }
 
-            final var result = HttpClientHolder.getHttpClient().newCall(request).execute();
-
-            if (result.isSuccessful()) {
-                final var dto = objectMapper.readValue(result.body().string(), LocaltyDto.class);
-                if (Objects.nonNull(dto.numReg) && dto.numReg == 1) {
-                    final var first = dto.datos.stream().map(localtyDomainMapper).findFirst();
-                    first.ifPresentOrElse(loc -> {
-                        if (log.isTraceEnabled()) {
-                            log.trace("received locality '{}' of municipal '{}' in state '{}' from INEGI service, last updated at {} by '{}'",
-                                    loc.getName(), loc.getMunicipal(), loc.getState(), dto.metadatos.fechaActualizacion, dto.metadatos.fuenteInfo);
-                        }
-                    }, () -> log.warn("locality '{}' of municipal '{}' in state '{}', was not found", locality, municipal, state));
-                    return first;
-                } else {
-                    log.warn("locality id '{}' in municipal '{}' in state '{}' was not found", locality, municipal, state);
-                }
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Localities are decoded while the response is being downloaded, the HTTP response stays open until the
+     * stream is closed. A response that fails while being read raises an {@link UncheckedIOException}. The catalog
+     * store is not consulted.
+     */
+    @Override
+    public Stream<MxLocality> streamMxLocalities(MxMunicipal municipal) {
+        final var request = mxLocalitiesRequest(municipal);
+        final long started = started(request);
+        final Response result;
+        try {
+            result = client.newCall(request).execute();
         } catch (IOException ex) {
-            log.error("There was an error downloading the URL '{}' ", uriComponents.buildAndExpand(state, municipal, locality).toUri());
-            if (log.isTraceEnabled()) {
-                log.trace(ex.getMessage(), ex.getCause());
+            failed(request, ex);
+            finished(request, InegiCallListener.Outcome.ERROR, started);
+            return Stream.empty();
+        }
+        if (!result.isSuccessful()) {
+            try (result) {
+                received(request, result, started, null, null);
+            } catch (IOException ex) {
+                failed(request, ex);
             }
+            return Stream.empty();
+        }
+        listener.responseReceived(InegiOperation.LOCALITIES, result.code(), System.nanoTime() - started);
+        final long decoding = System.nanoTime();
+        final var body = new CountingResponseBody(result.body());
+        final CatalogJsonReader<MxLocality> reader;
+        try {
+            reader = new CatalogJsonReader<>(objectMapper, body.byteStream(), CatalogJsonReader.ENABLED_LOCALITY);
+        } catch (IOException ex) {
+            result.close();
+            failed(request, ex);
+            finished(request, InegiCallListener.Outcome.ERROR, started);
+            return Stream.empty();
         }
-        return Optional.empty();
+        final var records = new Spliterators.AbstractSpliterator<MxLocality>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int count;
+            private boolean error;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super MxLocality> action) {
+                try {
+                    final var locality = reader.next();
+                    if (Objects.isNull(locality)) {
+                        localitiesReceived(reader, municipal);
+                        return false;
+                    }
+                    count++;
+                    action.accept(locality);
+                    return true;
+                } catch (IOException ex) {
+                    error = true;
+                    failed(request, ex);
+                    throw new UncheckedIOException(ex);
+                }
+            }
+
+            private void close() {
+                result.close();
+                listener.responseDecoded(InegiOperation.LOCALITIES, body.getBytes(), count, System.nanoTime() - decoding);
+                finished(request, error ? InegiCallListener.Outcome.ERROR
+                        : count == 0 ? InegiCallListener.Outcome.NOT_FOUND : InegiCallListener.Outcome.SUCCESS, started);
+            }
+        };
+        return StreamSupport.stream(records, false).onClose(records::close);
+    }
+
+    Request mxLocalityRequest(String state, String municipal, String locality) {
+        return endpoint(InegiOperation.LOCALITY).request(state + municipal + locality);
+    }
+
+    Optional<MxLocality> mxLocality(Response result, String state, String municipal, String locality) throws IOException {
+        return single(result, localtyReader, localtyDomainMapper,
+                () -> "locality '" + locality + "' of municipal '" + municipal + "' in state '" + state + "'");
+    }
+
+    @Override
+    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        return execute(mxLocalityRequest(state, municipal, locality), result -> mxLocality(result, state, municipal, locality), Optional.empty());
     }
 }
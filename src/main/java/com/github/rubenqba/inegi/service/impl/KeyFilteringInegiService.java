@@ -0,0 +1,166 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.cache.CatalogCache;
+import com.github.rubenqba.inegi.catalog.KeyFilter;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link InegiService} decorator answering lookups of keys that cannot exist without calling its delegate.
+ * <p>
+ * Keys are checked against a {@link KeyFilter} that learns the states and municipals lists passing through this
+ * service. When a {@link ResilientInegiService} is given, single lookups go through it instead of the delegate and a
+ * key INEGI answers does not exist is remembered for a short time, so repeated lookups of the same unknown key are not
+ * sent again. Without it an empty answer can also mean INEGI failed, so nothing is remembered.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class KeyFilteringInegiService implements InegiService {
+
+    private final InegiService delegate;
+    private final KeyFilter filter;
+    private final ResilientInegiService confirmation;
+    private final CatalogCache<String, Boolean> missing;
+    private final LongAdder rejected = new LongAdder();
+
+    public KeyFilteringInegiService(InegiService delegate, InegiProperties.KeyFilter settings) {
+        this(delegate, null, settings, new KeyFilter());
+    }
+
+    /**
+     * @param delegate service answering the keys that may exist
+     * @param confirmation service answering the single lookups and telling the missing keys apart, {@code null} to
+     *                     look them up with the delegate and not remember them
+     * @param settings negative cache settings
+     */
+    public KeyFilteringInegiService(InegiService delegate, ResilientInegiService confirmation, InegiProperties.KeyFilter settings) {
+        this(delegate, confirmation, settings, new KeyFilter());
+    }
+
+    /**
+     * @param delegate service answering the keys that may exist
+     * @param confirmation service answering the single lookups and telling the missing keys apart, {@code null} to
+     *                     look them up with the delegate and not remember them
+     * @param settings negative cache settings
+     * @param filter filter of impossible keys, it is updated with the lists answered by the delegate
+     */
+    public KeyFilteringInegiService(InegiService delegate, ResilientInegiService confirmation, InegiProperties.KeyFilter settings,
+                                    KeyFilter filter) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.filter = Objects.requireNonNull(filter);
+        this.confirmation = confirmation;
+        this.missing = new CatalogCache<>("missing", settings.getNegativeTtl(), null, settings.getMaxNegativeEntries(), Runnable::run);
+    }
+
+    /**
+     * learn the states and the municipals of every state, so unknown municipals are rejected from then on
+     */
+    public void prime() {
+        getMxStates().forEach(this::getMxMunicipals);
+        log.info("INEGI key filter primed with the municipals of {} states", filter.getLearntStates());
+    }
+
+    public KeyFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return number of lookups answered without calling the delegate
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public List<MxState> getMxStates() {
+        final var states = delegate.getMxStates();
+        filter.learnStates(states);
+        return states;
+    }
+
+    @Override
+    public Optional<MxState> getMxState(String state) {
+        return lookup(filter.mayExist(state), "mgee/" + state, () -> delegate.getMxState(state),
+                resilient -> resilient.getMxState(state));
+    }
+
+    @Override
+    public List<MxMunicipal> getMxMunicipals(MxState state) {
+        if (!filter.mayExist(state.getId())) {
+            rejected.increment();
+            return Collections.emptyList();
+        }
+        final var municipals = delegate.getMxMunicipals(state);
+        filter.learnMunicipals(state.getId(), municipals);
+        return municipals;
+    }
+
+    @Override
+    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        return lookup(filter.mayExist(state, municipal), "mgem/" + state + "/" + municipal, () -> delegate.getMxMunicipal(state, municipal),
+                resilient -> resilient.getMxMunicipal(state, municipal));
+    }
+
+    @Override
+    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+        if (!filter.mayExist(municipal.getState(), municipal.getId())) {
+            rejected.increment();
+            return Collections.emptyList();
+        }
+        return delegate.getMxLocalities(municipal);
+    }
+
+    @Override
+    public Stream<MxLocality> streamMxLocalities(MxMunicipal municipal) {
+        if (!filter.mayExist(municipal.getState(), municipal.getId())) {
+            rejected.increment();
+            return Stream.empty();
+        }
+        return delegate.streamMxLocalities(municipal);
+    }
+
+    @Override
+    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        return lookup(filter.mayExist(state, municipal, locality), "localidades/" + state + municipal + locality,
+                () -> delegate.getMxLocality(state, municipal, locality), resilient -> resilient.getMxLocality(state, municipal, locality));
+    }
+
+    /**
+     * @param mayExist whether the key passes the filter
+     * @param key negative cache key
+     * @param loader lookup through the delegate, used without a confirmation service
+     * @param confirm lookup through the confirmation service, only the keys INEGI answered as not found are remembered
+     */
+    private <T> Optional<T> lookup(boolean mayExist, String key, Supplier<Optional<T>> loader,
+                                   Function<ResilientInegiService, InegiResult<T>> confirm) {
+        if (!mayExist || missing.peek(key).isPresent()) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        if (Objects.isNull(confirmation)) {
+            return loader.get();
+        }
+        final var confirmed = confirm.apply(confirmation);
+        if (confirmed.getStatus() == InegiResult.Status.NOT_FOUND) {
+            missing.put(key, Boolean.TRUE);
+        }
+        return confirmed.toOptional();
+    }
+}
@@ -0,0 +1,327 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.cache.CatalogCache;
+import com.github.rubenqba.inegi.concurrent.DaemonThreadFactory;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link ResilientInegiService} built on OkHttp asynchronous calls.
+ * <p>
+ * Every lookup sends a request and, when no response has arrived after {@code hedgeDelay}, a second identical
+ * one; the first successful response wins and the other call is cancelled. Failed lookups, connection errors or
+ * {@code 408}, {@code 429} and {@code 5xx} answers, are retried with capped and jittered exponential backoff. Only a
+ * {@code 404} or an answer without records is not found. Other {@code 4xx} answers and responses that can not be
+ * decoded are rejected: the lookup is unavailable without a retry or a stale value, and INEGI still counts as
+ * reachable. Consecutive failed lookups open a circuit breaker that fails fast until INEGI is probed again. While
+ * INEGI is unavailable the last value received for the same request is returned as stale. The catalog store of the
+ * codec, if any, is consulted before calling INEGI and updated with its successful responses.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class ResilientInegiServiceImpl implements ResilientInegiService, Closeable {
+
+    private final InegiServiceImpl codec;
+    private final InegiProperties.Resilience settings;
+    private final CircuitBreaker breaker;
+    private final CatalogCache<String, Object> lastGood;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param codec service used to build requests and decode responses
+     * @param settings hedging, retry, circuit breaker and fallback settings
+     */
+    public ResilientInegiServiceImpl(InegiServiceImpl codec, InegiProperties.Resilience settings) {
+        this.codec = Objects.requireNonNull(codec);
+        this.settings = Objects.requireNonNull(settings);
+        this.breaker = new CircuitBreaker("inegi", settings.getFailureThreshold(), settings.getOpenDuration());
+        this.lastGood = new CatalogCache<>("inegi-last-good", settings.getStaleTtl(), null, settings.getMaxStaleEntries(), Runnable::run);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("inegi-resilience"));
+    }
+
+    CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public InegiResult<List<MxState>> getMxStates() {
+        return list(codec.mxStatesRequest(), codec::mxStates);
+    }
+
+    @Override
+    public InegiResult<MxState> getMxState(String state) {
+        return single(codec.mxStateRequest(state), result -> codec.mxState(result, state));
+    }
+
+    @Override
+    public InegiResult<List<MxMunicipal>> getMxMunicipals(MxState state) {
+        return list(codec.mxMunicipalsRequest(state), result -> codec.mxMunicipals(result, state));
+    }
+
+    @Override
+    public InegiResult<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        return single(codec.mxMunicipalRequest(state, municipal), result -> codec.mxMunicipal(result, state, municipal));
+    }
+
+    @Override
+    public InegiResult<List<MxLocality>> getMxLocalities(MxMunicipal municipal) {
+        return list(codec.mxLocalitiesRequest(municipal), result -> codec.mxLocalities(result, municipal));
+    }
+
+    @Override
+    public InegiResult<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        return single(codec.mxLocalityRequest(state, municipal, locality), result -> codec.mxLocality(result, state, municipal, locality));
+    }
+
+    private <T> InegiResult<List<T>> list(Request request, InegiServiceImpl.ResponseDecoder<List<T>> decoder) {
+        return execute(request, decoder, Collections.emptyList(),
+                values -> values.isEmpty() ? InegiResult.notFound(values) : InegiResult.found(values));
+    }
+
+    private <T> InegiResult<T> single(Request request, InegiServiceImpl.ResponseDecoder<Optional<T>> decoder) {
+        return execute(request, decoder, Optional.empty(),
+                value -> value.map(InegiResult::found).orElseGet(() -> InegiResult.notFound(null)));
+    }
+
+    /**
+     * execute a lookup through the circuit breaker, falling back to the last good value when it fails
+     * @param request INEGI request
+     * @param decoder decoder used for successful responses
+     * @param fallback value decoded when INEGI answers the request does not exist
+     * @param classify maps a decoded value to its result
+     * @param <T> decoded type
+     * @param <R> result type
+     * @return lookup result
+     */
+    private <T, R> InegiResult<R> execute(Request request, InegiServiceImpl.ResponseDecoder<T> decoder, T fallback,
+                                          Function<T, InegiResult<R>> classify) {
+        final String key = request.url().toString();
+        final var stored = codec.stored(request, decoder);
+        if (stored.isPresent()) {
+            return classify.apply(stored.get());
+        }
+        if (!breaker.tryAcquire()) {
+            log.debug("circuit is open, not requesting '{}'", key);
+            return stale(key);
+        }
+        final var future = new CompletableFuture<T>();
+        attempt(request, decoder, fallback, 1, future);
+        try {
+            final var result = classify.apply(future.get());
+            breaker.onSuccess();
+            if (result.isPresent()) {
+                lastGood.put(key, result.getValue());
+            } else {
+                lastGood.invalidate(key);
+            }
+            return result;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RejectedException) {
+                // INEGI answered, the request is what it can not serve
+                breaker.onSuccess();
+                log.warn("INEGI request '{}' rejected: {}", key, ex.getCause().getMessage());
+                return InegiResult.unavailable();
+            }
+            breaker.onFailure();
+            log.warn("INEGI request '{}' failed: {}", key, ex.getCause().toString());
+            return stale(key);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            breaker.onIgnored();
+            Thread.currentThread().interrupt();
+            return stale(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> InegiResult<R> stale(String key) {
+        return lastGood.peek(key).map(value -> InegiResult.stale((R) value)).orElseGet(InegiResult::unavailable);
+    }
+
+    private <T> void attempt(Request request, InegiServiceImpl.ResponseDecoder<T> decoder, T fallback, int attempt,
+                             CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        final var hedged = new Hedged<>(request, decoder, fallback).start();
+        result.whenComplete((value, ex) -> hedged.cancel(false));
+        hedged.whenComplete((value, ex) -> {
+            if (Objects.isNull(ex)) {
+                result.complete(value);
+            } else if (attempt >= settings.getMaxAttempts() || !"GET".equals(request.method()) || ex instanceof RejectedException) {
+                result.completeExceptionally(ex);
+            } else {
+                final long delay = backoff(attempt);
+                log.debug("retrying '{}' in {} ms after attempt {} failed: {}", request.url(), delay, attempt, ex.toString());
+                scheduler.schedule(() -> attempt(request, decoder, fallback, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * exponential backoff capped at {@code maxBackoff}, waiting a random time between half and all of it
+     * @param attempt number of the failed attempt, starting at one
+     * @return delay in milliseconds
+     */
+    long backoff(int attempt) {
+        final long base = settings.getBackoff().toMillis();
+        final long exponential = base << Math.min(attempt - 1, 30);
+        final long cap = Math.min(settings.getMaxBackoff().toMillis(), exponential < 0 ? Long.MAX_VALUE : exponential);
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    private static boolean retryable(int code) {
+        return code >= HttpURLConnection.HTTP_INTERNAL_ERROR || code == HttpURLConnection.HTTP_CLIENT_TIMEOUT || code == 429;
+    }
+
+    /**
+     * answer from INEGI meaning it can not serve the request right now
+     */
+    static final class UnavailableException extends IOException {
+        UnavailableException(Request request, int code) {
+            super("INEGI answered " + code + " to '" + request.url() + "'");
+        }
+    }
+
+    /**
+     * answer from INEGI refusing the request, other than not found, or that can not be decoded, retrying would not
+     * change it
+     */
+    static final class RejectedException extends IOException {
+        RejectedException(Request request, int code) {
+            super("INEGI rejected '" + request.url() + "' with " + code);
+        }
+
+        RejectedException(Request request, RuntimeException cause) {
+            super("INEGI answer to '" + request.url() + "' could not be decoded: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * a single attempt, made of the primary call and a delayed hedge call
+     */
+    private final class Hedged<T> {
+        private final Request request;
+        private final InegiServiceImpl.ResponseDecoder<T> decoder;
+        private final T fallback;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<Call> calls = new ArrayList<>();
+        private int outstanding;
+
+        private Hedged(Request request, InegiServiceImpl.ResponseDecoder<T> decoder, T fallback) {
+            this.request = request;
+            this.decoder = decoder;
+            this.fallback = fallback;
+        }
+
+        private CompletableFuture<T> start() {
+            launch();
+            final Duration hedgeDelay = settings.getHedgeDelay();
+            if (!hedgeDelay.isZero() && !hedgeDelay.isNegative()) {
+                final var hedge = scheduler.schedule(this::launch, hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+                result.whenComplete((value, ex) -> hedge.cancel(false));
+            }
+            result.whenComplete((value, ex) -> cancelCalls());
+            return result;
+        }
+
+        private synchronized void launch() {
+            if (result.isDone()) {
+                return;
+            }
+            if (!calls.isEmpty()) {
+                log.debug("no response from '{}' after {}, sending a hedged request", request.url(), settings.getHedgeDelay());
+            }
+            final var call = codec.getClient().newCall(request);
+            if (!settings.getAttemptTimeout().isZero()) {
+                call.timeout().timeout(settings.getAttemptTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            calls.add(call);
+            outstanding++;
+            final long started = codec.started(request);
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException ex) {
+                    if (!call.isCanceled()) {
+                        codec.failed(request, ex);
+                    }
+                    codec.finished(request, InegiCallListener.Outcome.ERROR, started);
+                    failed(ex);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (response) {
+                        if (retryable(response.code())) {
+                            codec.received(request, response, started, decoder, fallback);
+                            failed(new UnavailableException(request, response.code()));
+                        } else if (!response.isSuccessful() && response.code() != HttpURLConnection.HTTP_NOT_FOUND) {
+                            codec.received(request, response, started, decoder, fallback);
+                            result.completeExceptionally(new RejectedException(request, response.code()));
+                        } else {
+                            result.complete(codec.receivedAndStored(request, response, started, decoder, fallback));
+                        }
+                    } catch (IOException ex) {
+                        codec.failed(request, ex);
+                        codec.finished(request, InegiCallListener.Outcome.ERROR, started);
+                        failed(ex);
+                    } catch (RuntimeException ex) {
+                        codec.finished(request, InegiCallListener.Outcome.ERROR, started);
+                        result.completeExceptionally(new RejectedException(request, ex));
+                    }
+                }
+            });
+        }
+
+        /**
+         * the attempt fails once none of its calls can succeed anymore
+         */
+        private synchronized void failed(IOException ex) {
+            outstanding--;
+            if (outstanding == 0) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        private void cancelCalls() {
+            final List<Call> sent;
+            synchronized (this) {
+                sent = new ArrayList<>(calls);
+            }
+            sent.forEach(Call::cancel);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
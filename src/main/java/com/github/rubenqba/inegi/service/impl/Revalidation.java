@@ -0,0 +1,63 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Outcome of a conditional request made against a previously downloaded catalog list.
+ *
+ * @param <T> decoded type
+ */
+@Value
+class Revalidation<T> {
+
+    enum Status {
+        /**
+         * the content changed and has been decoded again
+         */
+        CHANGED,
+        /**
+         * the server answered {@code 304 Not Modified}, nothing was downloaded
+         */
+        NOT_MODIFIED,
+        /**
+         * the server sent the content again but it is byte for byte the same, it has not been decoded
+         */
+        UNCHANGED,
+        /**
+         * the request failed, the previous content is still the best known one
+         */
+        FAILED
+    }
+
+    Status status;
+    /**
+     * decoded content, only present when {@link Status#CHANGED}
+     */
+    T value;
+    /**
+     * validators to send in the next request, the previous ones unless the content changed
+     */
+    Validators validators;
+
+    boolean isChanged() {
+        return status == Status.CHANGED;
+    }
+
+    /**
+     * HTTP validators and digest of a downloaded body
+     */
+    @Value
+    static class Validators {
+        static final Validators NONE = new Validators(null, null, null);
+
+        String etag;
+        String lastModified;
+        String digest;
+
+        boolean sameContent(String digest) {
+            return Objects.nonNull(this.digest) && this.digest.equals(digest);
+        }
+    }
+}
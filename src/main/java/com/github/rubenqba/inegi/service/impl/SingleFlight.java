@@ -0,0 +1,63 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent executions of the same key: the first caller runs the loader, callers arriving while it is
+ * running wait for it and share its result. Nothing is cached once the execution finishes.
+ */
+final class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * run loader, or wait for the running execution of the same key
+     * @param key execution key, executions with the same key must produce the same type
+     * @param loader value loader
+     * @param <T> value type
+     * @return loaded or shared value
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Supplier<T> loader) {
+        final var mine = new CompletableFuture<Object>();
+        final var running = inFlight.putIfAbsent(key, mine);
+        if (Objects.nonNull(running)) {
+            coalesced.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        executed.increment();
+        try {
+            final T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    long getExecuted() {
+        return executed.sum();
+    }
+
+    long getCoalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket handing out send times at a steady rate, allowing bursts of up to {@code burst} requests.
+ * <p>
+ * Callers reserve a send time and wait until it comes, so requests leave in the order they arrived.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier ticker;
+
+    /**
+     * theoretical send time of the next request
+     */
+    private long next;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier ticker) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.intervalNanos = (long) (1e9 / ratePerSecond);
+        this.burstNanos = (burst - 1) * intervalNanos;
+        this.ticker = ticker;
+        this.next = ticker.getAsLong();
+    }
+
+    /**
+     * reserve a send time
+     * @param maxWaitNanos maximum time the caller accepts to wait
+     * @return time to wait before sending, or -1 without reserving if it would be longer than {@code maxWaitNanos}
+     */
+    synchronized long tryReserve(long maxWaitNanos) {
+        final long now = ticker.getAsLong();
+        final long slot = Math.max(next, now);
+        final long wait = Math.max(0, slot - burstNanos - now);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        next = slot + intervalNanos;
+        return wait;
+    }
+
+    /**
+     * hold every request for a while, for instance when INEGI answers {@code Retry-After}
+     * @param duration time no request is sent
+     */
+    synchronized void pause(Duration duration) {
+        next = Math.max(next, ticker.getAsLong() + duration.toNanos() + burstNanos);
+    }
+}
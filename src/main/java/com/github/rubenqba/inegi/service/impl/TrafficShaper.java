@@ -0,0 +1,252 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application interceptor shaping the traffic sent to INEGI.
+ * <p>
+ * Requests to every endpoint ({@code mgee}, {@code mgem}, {@code localidades}...) leave at most at the endpoint rate,
+ * and the requests in flight to INEGI are bounded by an {@link AdaptiveConcurrencyLimit}. The limit grows while
+ * INEGI answers promptly and shrinks on server errors, throttling ({@code 429}, whose {@code Retry-After} also holds
+ * the endpoint), timeouts and responses slower than {@code latencyTolerance} times the fastest recent one of their
+ * endpoint, so throughput settles at what INEGI tolerates. Excess requests wait in arrival order, up to
+ * {@code maxQueueTime}.
+ * <p>
+ * A request holds its concurrency slot until its response body is closed, so the body transfer counts against the
+ * limit and a body that fails to be read, for instance on a read timeout, counts as congestion. With a cache, fresh
+ * cached responses are looked up before the request is shaped and are not shaped.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public final class TrafficShaper implements Interceptor {
+
+    /**
+     * responses after which the latency baseline of an endpoint is measured again
+     */
+    private static final int BASELINE_SAMPLES = 500;
+    private static final CacheControl ONLY_IF_CACHED = new CacheControl.Builder().onlyIfCached().build();
+
+    private final InegiProperties.RateLimit settings;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final long maxQueueNanos;
+    private final boolean cache;
+
+    TrafficShaper(InegiProperties.RateLimit settings) {
+        this(settings, false);
+    }
+
+    /**
+     * @param settings rate limit settings
+     * @param cache the client has a cache, fresh cached responses are looked up before shaping a request
+     */
+    TrafficShaper(InegiProperties.RateLimit settings, boolean cache) {
+        this.settings = Objects.requireNonNull(settings);
+        this.cache = cache;
+        this.limit = new AdaptiveConcurrencyLimit(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit(),
+                settings.getBackoffRatio());
+        this.maxQueueNanos = settings.getMaxQueueTime().toNanos();
+    }
+
+    /**
+     * rate limit and latency baseline of an endpoint
+     */
+    private final class Endpoint {
+        private final TokenBucket bucket;
+        private long fastest = Long.MAX_VALUE;
+        private int samples;
+
+        private Endpoint(String name) {
+            this.bucket = new TokenBucket(settings.getRates().getOrDefault(name, settings.getRate()), settings.getBurst());
+        }
+
+        private synchronized boolean slow(long latency) {
+            if (++samples % BASELINE_SAMPLES == 0) {
+                fastest = latency;
+            }
+            fastest = Math.min(fastest, latency);
+            return latency > fastest * settings.getLatencyTolerance();
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        if (cache && "GET".equals(request.method()) && !request.cacheControl().noCache()) {
+            final var cached = chain.proceed(request.newBuilder().cacheControl(ONLY_IF_CACHED).build());
+            if (Objects.nonNull(cached.cacheResponse())) {
+                return cached.newBuilder().request(request).build();
+            }
+            cached.close();
+        }
+        final var name = endpoint(request);
+        final var endpoint = endpoints.computeIfAbsent(name, Endpoint::new);
+        final long queued = System.nanoTime();
+        try {
+            final long wait = endpoint.bucket.tryReserve(maxQueueNanos);
+            if (wait < 0) {
+                throw new IOException("INEGI '" + name + "' requests exceed the rate limit for more than " + settings.getMaxQueueTime());
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+            if (!limit.acquire(maxQueueNanos - (System.nanoTime() - queued))) {
+                throw new IOException("INEGI '" + name + "' request waited more than " + settings.getMaxQueueTime() + " for a concurrency slot");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to send an INEGI request");
+        }
+        final long started = System.nanoTime();
+        final Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException ex) {
+            limit.release(true);
+            throw ex;
+        }
+        boolean congested = true;
+        final int code = response.code();
+        if (code == 429) {
+            final var retryAfter = retryAfter(response);
+            log.debug("INEGI throttled '{}', holding it {} ms", name, retryAfter.toMillis());
+            endpoint.bucket.pause(retryAfter);
+        } else {
+            congested = code >= 500 || endpoint.slow(System.nanoTime() - started);
+        }
+        if (Objects.isNull(response.body())) {
+            limit.release(congested);
+            return response;
+        }
+        return response.newBuilder().body(new SlotBody(response.body(), congested)).build();
+    }
+
+    /**
+     * response body releasing the concurrency slot of its request when either it or its source is closed
+     */
+    private final class SlotBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final boolean congested;
+        private BufferedSource source;
+        private volatile boolean failed;
+
+        private SlotBody(ResponseBody delegate, boolean congested) {
+            this.delegate = delegate;
+            this.congested = congested;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (Objects.isNull(source)) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        try {
+                            return super.read(sink, byteCount);
+                        } catch (IOException ex) {
+                            failed = true;
+                            throw ex;
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            release();
+                        }
+                    }
+                });
+            }
+            return source;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (open.compareAndSet(true, false)) {
+                limit.release(congested || failed);
+            }
+        }
+    }
+
+    private static String endpoint(Request request) {
+        final var operation = request.tag(InegiOperation.class);
+        if (Objects.nonNull(operation)) {
+            return operation.getEndpoint();
+        }
+        final var segments = request.url().pathSegments();
+        return segments.get(segments.size() > 1 ? 1 : 0);
+    }
+
+    private static Duration retryAfter(Response response) {
+        try {
+            return Duration.ofSeconds(Math.max(1, Long.parseLong(Objects.requireNonNull(response.header("Retry-After")).trim())));
+        } catch (RuntimeException ex) {
+            return Duration.ofSeconds(1);
+        }
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * @return requests in flight to INEGI
+     */
+    public int getInFlight() {
+        return limit.getInFlight();
+    }
+
+    /**
+     * @return requests waiting for a concurrency slot
+     */
+    public int getQueued() {
+        return limit.getQueued();
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.rubenqba.inegi.snapshot;
+
+import com.github.rubenqba.inegi.domain.CatalogKeys;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static com.github.rubenqba.inegi.snapshot.SnapshotFormat.*;
+
+/**
+ * Builds a binary catalog snapshot readable by {@link MappedCatalogService}.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class CatalogSnapshotBuilder {
+
+    private final TreeMap<Integer, MxState> states = new TreeMap<>();
+    private final TreeMap<Integer, MxMunicipal> municipals = new TreeMap<>();
+    private final TreeMap<Long, MxLocality> localities = new TreeMap<>();
+    private String updatedAt;
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * download the whole catalog, state by state and municipal by municipal
+     * @param service service used to crawl INEGI
+     * @param updatedAt catalog update date stored in the snapshot header, may be null
+     * @return builder filled with the downloaded catalog
+     */
+    public static CatalogSnapshotBuilder crawl(InegiService service, String updatedAt) {
+        final var builder = new CatalogSnapshotBuilder().updatedAt(updatedAt);
+        for (MxState state : service.getMxStates()) {
+            builder.add(state);
+            final var regions = service.getMxMunicipals(state);
+            log.debug("crawling {} municipals of state '{}'", regions.size(), state.getName());
+            for (MxMunicipal municipal : regions) {
+                builder.add(municipal);
+                service.getMxLocalities(municipal).forEach(builder::add);
+            }
+        }
+        log.info("crawled {} states, {} municipals and {} localities", builder.states.size(), builder.municipals.size(), builder.localities.size());
+        return builder;
+    }
+
+    /**
+     * download the whole catalog using the INEGI update date reported by the service metadata
+     * @param service service used to crawl INEGI
+     * @return builder filled with the downloaded catalog
+     */
+    public static CatalogSnapshotBuilder crawl(InegiServiceImpl service) {
+        final var builder = crawl((InegiService) service, null);
+        return builder.updatedAt(service.getCatalogUpdate().orElse(null));
+    }
+
+    public CatalogSnapshotBuilder updatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+        return this;
+    }
+
+    CatalogSnapshotBuilder clock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    public CatalogSnapshotBuilder add(MxState state) {
+        states.put(CatalogKeys.state(state.getId()), state);
+        return this;
+    }
+
+    public CatalogSnapshotBuilder add(MxMunicipal municipal) {
+        municipals.put(CatalogKeys.municipal(municipal.getState(), municipal.getId()), municipal);
+        return this;
+    }
+
+    public CatalogSnapshotBuilder add(MxLocality locality) {
+        localities.put(CatalogKeys.locality(locality.getState(), locality.getMunicipal(), locality.getId()), locality);
+        return this;
+    }
+
+    /**
+     * write the snapshot, the target file is replaced atomically
+     * @param target snapshot file
+     * @throws IOException if the file could not be written
+     */
+    public void write(Path target) throws IOException {
+        final var strings = new StringPool();
+        final var stateTable = ByteBuffer.allocate(states.size() * STATE_RECORD);
+        states.forEach((code, state) -> stateTable
+                .putInt(code)
+                .putInt(strings.ref(state.getName()))
+                .putInt(strings.ref(state.getAbbreviation())));
+
+        final var municipalTable = ByteBuffer.allocate(municipals.size() * MUNICIPAL_RECORD);
+        municipals.forEach((key, municipal) -> municipalTable
+                .putInt(key)
+                .putInt(strings.ref(municipal.getName()))
+                .putInt(strings.ref(municipal.getFirstCity())));
+
+        final var localityTable = ByteBuffer.allocate(localities.size() * LOCALITY_RECORD);
+        localities.forEach((key, locality) -> localityTable
+                .putLong(key)
+                .putInt(strings.ref(locality.getName()))
+                .put(Objects.isNull(locality.getScope()) ? NO_SCOPE : (byte) locality.getScope().ordinal())
+                .put(new byte[3])
+                .putDouble(Objects.isNull(locality.getLatitude()) ? Double.NaN : locality.getLatitude())
+                .putDouble(Objects.isNull(locality.getLongitude()) ? Double.NaN : locality.getLongitude()));
+
+        final int updatedAtRef = strings.ref(updatedAt);
+        final int statesOffset = HEADER_SIZE;
+        final int municipalsOffset = statesOffset + stateTable.capacity();
+        final int localitiesOffset = municipalsOffset + municipalTable.capacity();
+        final int stringsOffset = localitiesOffset + localityTable.capacity();
+
+        final var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putLong(clock.millis())
+                .putInt(states.size())
+                .putInt(municipals.size())
+                .putInt(localities.size())
+                .putInt(statesOffset)
+                .putInt(municipalsOffset)
+                .putInt(localitiesOffset)
+                .putInt(stringsOffset)
+                .putInt(updatedAtRef);
+
+        final var temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (ByteBuffer buffer : new ByteBuffer[]{header, stateTable, municipalTable, localityTable, strings.toBuffer()}) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("catalog snapshot written to '{}' ({} bytes)", target, stringsOffset + strings.size());
+    }
+
+    /**
+     * de-duplicated string storage, every string is written once as length prefixed UTF-8
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int ref(String value) {
+            if (Objects.isNull(value)) {
+                return NO_STRING;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                final int ref = bytes.size();
+                final byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("string too long for snapshot: " + v.substring(0, 32));
+                }
+                bytes.write(utf8.length >>> 8);
+                bytes.write(utf8.length);
+                bytes.writeBytes(utf8);
+                return ref;
+            });
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        ByteBuffer toBuffer() {
+            final var buffer = ByteBuffer.wrap(bytes.toByteArray());
+            buffer.position(buffer.limit());
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.github.rubenqba.inegi.snapshot;
+
+import com.github.rubenqba.inegi.domain.CatalogKeys;
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.rubenqba.inegi.snapshot.SnapshotFormat.*;
+
+/**
+ * Read only {@link InegiService} backed by a memory mapped catalog snapshot.
+ * <p>
+ * The catalog stays off-heap, lookups are binary searches over fixed width records and domain objects are only
+ * created for the records being returned. Snapshots are written by {@link CatalogSnapshotBuilder}.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class MappedCatalogService implements InegiService, Closeable {
+
+    private static final LocaltyScope[] SCOPES = LocaltyScope.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private final int states;
+    private final int municipals;
+    private final int localities;
+    private final int statesOffset;
+    private final int municipalsOffset;
+    private final int localitiesOffset;
+    private final int stringsOffset;
+
+    private MappedCatalogService(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(OFF_MAGIC) != MAGIC) {
+            throw new IOException("not an INEGI catalog snapshot");
+        }
+        final short version = buffer.getShort(OFF_VERSION);
+        if (version != VERSION) {
+            throw new IOException("unsupported catalog snapshot version " + version);
+        }
+        this.states = buffer.getInt(OFF_STATES);
+        this.municipals = buffer.getInt(OFF_MUNICIPALS);
+        this.localities = buffer.getInt(OFF_LOCALITIES);
+        this.statesOffset = buffer.getInt(OFF_STATES_OFFSET);
+        this.municipalsOffset = buffer.getInt(OFF_MUNICIPALS_OFFSET);
+        this.localitiesOffset = buffer.getInt(OFF_LOCALITIES_OFFSET);
+        this.stringsOffset = buffer.getInt(OFF_STRINGS_OFFSET);
+        if (stringsOffset > buffer.capacity()) {
+            throw new IOException("truncated catalog snapshot");
+        }
+    }
+
+    /**
+     * map a snapshot file in memory
+     * @param snapshot snapshot file
+     * @return read only service
+     * @throws IOException if the file could not be mapped or is not a valid snapshot
+     */
+    public static MappedCatalogService open(Path snapshot) throws IOException {
+        final var channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+        try {
+            final var service = new MappedCatalogService(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            log.info("catalog snapshot '{}' mapped: {} states, {} municipals, {} localities, updated at {}",
+                    snapshot, service.states, service.municipals, service.localities, service.getUpdatedAt().orElse("-"));
+            return service;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return INEGI update date ({@code fechaActualizacion}) of the catalog
+     */
+    public Optional<String> getUpdatedAt() {
+        return Optional.ofNullable(string(buffer.getInt(OFF_UPDATED_AT)));
+    }
+
+    /**
+     * @return time the snapshot was created
+     */
+    public Instant getCreatedAt() {
+        return Instant.ofEpochMilli(buffer.getLong(OFF_CREATED_AT));
+    }
+
+    public int getLocalityCount() {
+        return localities;
+    }
+
+    @Override
+    public List<MxState> getMxStates() {
+        final List<MxState> result = new ArrayList<>(states);
+        for (int i = 0; i < states; i++) {
+            result.add(state(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Optional<MxState> getMxState(String state) {
+        if (!CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS)) {
+            return Optional.empty();
+        }
+        final int index = lowerBoundInt(statesOffset, STATE_RECORD, states, CatalogKeys.state(state));
+        if (index < states && stateCode(index) == CatalogKeys.state(state)) {
+            return Optional.of(state(index));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<MxMunicipal> getMxMunicipals(MxState state) {
+        if (!CatalogKeys.isCode(state.getId(), CatalogKeys.STATE_DIGITS)) {
+            return Collections.emptyList();
+        }
+        final int code = CatalogKeys.state(state.getId());
+        final List<MxMunicipal> result = new ArrayList<>();
+        for (int i = lowerBoundInt(municipalsOffset, MUNICIPAL_RECORD, municipals, CatalogKeys.firstMunicipal(code));
+             i < municipals && CatalogKeys.stateOf(municipalKey(i)) == code; i++) {
+            result.add(municipal(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+        if (!CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS) || !CatalogKeys.isCode(municipal, CatalogKeys.MUNICIPAL_DIGITS)) {
+            return Optional.empty();
+        }
+        final int key = CatalogKeys.municipal(state, municipal);
+        final int index = lowerBoundInt(municipalsOffset, MUNICIPAL_RECORD, municipals, key);
+        if (index < municipals && municipalKey(index) == key) {
+            return Optional.of(municipal(index));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+        if (!CatalogKeys.isCode(municipal.getState(), CatalogKeys.STATE_DIGITS) || !CatalogKeys.isCode(municipal.getId(), CatalogKeys.MUNICIPAL_DIGITS)) {
+            return Collections.emptyList();
+        }
+        final int key = CatalogKeys.municipal(municipal.getState(), municipal.getId());
+        final List<MxLocality> result = new ArrayList<>();
+        for (int i = lowerBoundLong(CatalogKeys.firstLocality(key)); i < localities && CatalogKeys.municipalOf(localityKey(i)) == key; i++) {
+            result.add(locality(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+        if (!CatalogKeys.isCode(state, CatalogKeys.STATE_DIGITS) || !CatalogKeys.isCode(municipal, CatalogKeys.MUNICIPAL_DIGITS)
+                || !CatalogKeys.isCode(locality, CatalogKeys.LOCALITY_DIGITS)) {
+            return Optional.empty();
+        }
+        final long key = CatalogKeys.locality(state, municipal, locality);
+        final int index = lowerBoundLong(key);
+        if (index < localities && localityKey(index) == key) {
+            return Optional.of(locality(index));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * releases the file handle, the mapping itself is released by the garbage collector
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int stateCode(int index) {
+        return buffer.getInt(statesOffset + index * STATE_RECORD);
+    }
+
+    private MxState state(int index) {
+        final int offset = statesOffset + index * STATE_RECORD;
+        return new MxState(CatalogKeys.format(buffer.getInt(offset), CatalogKeys.STATE_DIGITS),
+                string(buffer.getInt(offset + 4)), string(buffer.getInt(offset + 8)));
+    }
+
+    private int municipalKey(int index) {
+        return buffer.getInt(municipalsOffset + index * MUNICIPAL_RECORD);
+    }
+
+    private MxMunicipal municipal(int index) {
+        final int offset = municipalsOffset + index * MUNICIPAL_RECORD;
+        final int key = buffer.getInt(offset);
+        return new MxMunicipal(CatalogKeys.municipalCode(key), CatalogKeys.stateCode(key),
+                string(buffer.getInt(offset + 4)), string(buffer.getInt(offset + 8)));
+    }
+
+    private long localityKey(int index) {
+        return buffer.getLong(localitiesOffset + index * LOCALITY_RECORD);
+    }
+
+    private MxLocality locality(int index) {
+        final int offset = localitiesOffset + index * LOCALITY_RECORD;
+        final long key = buffer.getLong(offset);
+        final int municipalKey = CatalogKeys.municipalOf(key);
+        final byte scope = buffer.get(offset + 12);
+        final double latitude = buffer.getDouble(offset + 16);
+        final double longitude = buffer.getDouble(offset + 24);
+        return new MxLocality(CatalogKeys.localityCode(key), CatalogKeys.stateCode(municipalKey), CatalogKeys.municipalCode(municipalKey),
+                string(buffer.getInt(offset + 8)), scope == NO_SCOPE ? null : SCOPES[scope],
+                Double.isNaN(latitude) ? null : latitude, Double.isNaN(longitude) ? null : longitude);
+    }
+
+    private String string(int ref) {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        final int offset = stringsOffset + ref;
+        final int length = buffer.getShort(offset) & 0xFFFF;
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int lowerBoundInt(int tableOffset, int recordSize, int count, int key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (buffer.getInt(tableOffset + mid * recordSize) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerBoundLong(long key) {
+        int low = 0;
+        int high = localities;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (localityKey(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.rubenqba.inegi.snapshot;
+
+/**
+ * Layout of the binary catalog snapshot (big endian).
+ * <pre>
+ * header      magic:int version:short reserved:short createdAt:long
+ *             states:int municipals:int localities:int
+ *             statesOffset:int municipalsOffset:int localitiesOffset:int stringsOffset:int
+ *             updatedAtRef:int
+ * states      code:int nameRef:int abbreviationRef:int                       (sorted by code)
+ * municipals  key:int nameRef:int firstCityRef:int                            (sorted by key)
+ * localities  key:long nameRef:int scope:byte pad:3 latitude:double longitude:double (sorted by key)
+ * strings     length:short utf8:byte[length]                                  (referenced by offset)
+ * </pre>
+ * Missing strings are referenced as {@link #NO_STRING}, missing coordinates are stored as {@code NaN} and a
+ * missing scope as {@link #NO_SCOPE}.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x494E4547; // "INEG"
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 48;
+    static final int STATE_RECORD = 12;
+    static final int MUNICIPAL_RECORD = 12;
+    static final int LOCALITY_RECORD = 32;
+
+    static final int NO_STRING = -1;
+    static final byte NO_SCOPE = -1;
+
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_CREATED_AT = 8;
+    static final int OFF_STATES = 16;
+    static final int OFF_MUNICIPALS = 20;
+    static final int OFF_LOCALITIES = 24;
+    static final int OFF_STATES_OFFSET = 28;
+    static final int OFF_MUNICIPALS_OFFSET = 32;
+    static final int OFF_LOCALITIES_OFFSET = 36;
+    static final int OFF_STRINGS_OFFSET = 40;
+    static final int OFF_UPDATED_AT = 44;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.rubenqba.inegi.store;
+
+import java.util.Optional;
+
+/**
+ * Second level store of INEGI responses consulted before calling INEGI, so the nodes sharing it download every
+ * catalog resource once.
+ * <p>
+ * Implementations must be thread safe and should not throw: a store that cannot be reached answers nothing and
+ * ignores writes, and the connector falls back to INEGI.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public interface CatalogStore {
+
+    /**
+     * store that keeps nothing
+     */
+    CatalogStore NONE = new CatalogStore() {
+        @Override
+        public Optional<StoreEntry> get(String key) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void put(String key, StoreEntry entry) {
+        }
+    };
+
+    /**
+     * @param key resource path, for instance {@code wscatgeo/mgem/09}
+     * @return stored entry, or empty if there is none or it has expired
+     */
+    Optional<StoreEntry> get(String key);
+
+    /**
+     * @param key resource path
+     * @param entry entry to store, replacing any previous one
+     */
+    void put(String key, StoreEntry entry);
+}
@@ -0,0 +1,108 @@
+package com.github.rubenqba.inegi.store;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionSpec;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link CatalogStore} shared by several nodes through a key-value HTTP service, such as a WebDAV server or a
+ * key-value store with an HTTP interface: entries are written with {@code PUT <url>/<key>} and read with
+ * {@code GET <url>/<key>}, any other answer than 200 is a miss.
+ * <p>
+ * Reads wait at most the configured timeout, writes are sent in background. Entries older than the time to live are
+ * ignored, the service is not required to expire them.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class HttpCatalogStore implements CatalogStore {
+
+    private static final MediaType ENTRY = MediaType.get("application/octet-stream");
+
+    private final OkHttpClient client;
+    private final HttpUrl url;
+    private final Duration ttl;
+    private final Clock clock;
+
+    /**
+     * @param client HTTP client, only its connection pool and dispatcher are shared: the store does not go through its
+     *               cache nor its interceptors, which are meant for the INEGI traffic
+     * @param url base URL of the entries, plain HTTP connections are allowed for an {@code http:} URL
+     * @param ttl time an entry is answered after it was stored
+     * @param timeout maximum time of every read or write
+     */
+    public HttpCatalogStore(OkHttpClient client, String url, Duration ttl, Duration timeout) {
+        this(client, url, ttl, timeout, Clock.systemUTC());
+    }
+
+    HttpCatalogStore(OkHttpClient client, String url, Duration ttl, Duration timeout, Clock clock) {
+        this.url = Objects.requireNonNull(HttpUrl.parse(url), "invalid catalog store URL " + url);
+        final var builder = client.newBuilder().cache(null).callTimeout(timeout);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        if (!this.url.isHttps() && !client.connectionSpecs().contains(ConnectionSpec.CLEARTEXT)) {
+            final List<ConnectionSpec> specs = new ArrayList<>(client.connectionSpecs());
+            specs.add(ConnectionSpec.CLEARTEXT);
+            builder.connectionSpecs(specs);
+        }
+        this.client = builder.build();
+        this.ttl = Objects.requireNonNull(ttl);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    private HttpUrl entry(String key) {
+        return url.newBuilder().addPathSegments(key).build();
+    }
+
+    @Override
+    public Optional<StoreEntry> get(String key) {
+        final var request = new Request.Builder().url(entry(key)).get().build();
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() != HttpURLConnection.HTTP_OK) {
+                return Optional.empty();
+            }
+            final var entry = StoreEntry.fromBytes(response.body().bytes());
+            return entry.age(clock.instant()).compareTo(ttl) < 0 ? Optional.of(entry) : Optional.empty();
+        } catch (IOException ex) {
+            log.debug("catalog store entry '{}' could not be read: {}", key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, StoreEntry entry) {
+        final var request = new Request.Builder().url(entry(key)).put(RequestBody.create(ENTRY, entry.toBytes())).build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                log.debug("catalog store entry '{}' could not be written: {}", key, ex.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        log.debug("catalog store entry '{}' was rejected with status {}", key, response.code());
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.rubenqba.inegi.store;
+
+import com.github.rubenqba.inegi.cache.CacheStats;
+import com.github.rubenqba.inegi.cache.CatalogCache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * {@link CatalogStore} kept in the heap of a single node, bounded to the most recently used entries
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+public class InMemoryCatalogStore implements CatalogStore {
+
+    private final CatalogCache<String, StoreEntry> entries;
+
+    /**
+     * @param ttl time an entry is answered after it was stored
+     * @param maxEntries maximum number of entries
+     */
+    public InMemoryCatalogStore(Duration ttl, int maxEntries) {
+        this.entries = new CatalogCache<>("store", ttl, null, maxEntries, Runnable::run);
+    }
+
+    @Override
+    public Optional<StoreEntry> get(String key) {
+        return entries.peek(key);
+    }
+
+    @Override
+    public void put(String key, StoreEntry entry) {
+        entries.put(key, entry);
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+}
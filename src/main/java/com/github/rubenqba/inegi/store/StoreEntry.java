@@ -0,0 +1,121 @@
+package com.github.rubenqba.inegi.store;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * INEGI response kept in a {@link CatalogStore}.
+ * <p>
+ * The response body is kept deflated, INEGI lists are repetitive JSON and shrink to about a tenth of their size.
+ * Entries are versioned with the catalog update date reported by INEGI ({@code fechaActualizacion}) so that entries of
+ * a previous catalog are not used once a newer one has been seen.
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StoreEntry {
+
+    private static final byte FORMAT = 1;
+
+    /**
+     * catalog update date of the response, null if INEGI did not report it
+     */
+    String version;
+    /**
+     * time the response was received from INEGI
+     */
+    Instant storedAt;
+    /**
+     * deflated response body
+     */
+    byte[] content;
+
+    /**
+     * @param version catalog update date of the response
+     * @param storedAt time the response was received
+     * @param body response body
+     * @return entry with the body deflated
+     */
+    public static StoreEntry of(String version, Instant storedAt, byte[] body) {
+        final var deflated = new ByteArrayOutputStream(body.length / 4 + 16);
+        try (var out = new DeflaterOutputStream(deflated)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new StoreEntry(version, Objects.requireNonNull(storedAt), deflated.toByteArray());
+    }
+
+    /**
+     * @return inflated response body
+     * @throws IOException if the content is corrupt
+     */
+    public byte[] body() throws IOException {
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * @param now current time
+     * @return time since the response was received
+     */
+    public Duration age(Instant now) {
+        return Duration.between(storedAt, now);
+    }
+
+    /**
+     * @return serialized entry, read with {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        final var bytes = new ByteArrayOutputStream(content.length + 64);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeBoolean(Objects.nonNull(version));
+            if (Objects.nonNull(version)) {
+                out.writeUTF(version);
+            }
+            out.writeLong(storedAt.toEpochMilli());
+            out.writeInt(content.length);
+            out.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param bytes serialized entry
+     * @return entry
+     * @throws IOException if the bytes are not a serialized entry
+     */
+    public static StoreEntry fromBytes(byte[] bytes) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT) {
+                throw new IOException("unsupported catalog store entry format");
+            }
+            final String version = in.readBoolean() ? in.readUTF() : null;
+            final var storedAt = Instant.ofEpochMilli(in.readLong());
+            final int length = in.readInt();
+            if (length < 0 || length > in.available()) {
+                throw new IOException("truncated catalog store entry");
+            }
+            return new StoreEntry(version, storedAt, in.readNBytes(length));
+        }
+    }
+}
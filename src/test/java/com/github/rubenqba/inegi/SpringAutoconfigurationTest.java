@@ -1,11 +1,30 @@
 package com.github.rubenqba.inegi;
 
+import com.github.rubenqba.inegi.metrics.InegiMetrics;
+import com.github.rubenqba.inegi.prewarm.CatalogPrewarmer;
+import com.github.rubenqba.inegi.service.AsyncInegiService;
 import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import com.github.rubenqba.inegi.service.impl.CachingInegiService;
+import com.github.rubenqba.inegi.service.impl.KeyFilteringInegiService;
+import com.github.rubenqba.inegi.store.CatalogStore;
+import com.github.rubenqba.inegi.store.InMemoryCatalogStore;
+import okhttp3.ConnectionSpec;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class SpringAutoconfigurationTest {
@@ -24,6 +43,8 @@ public class SpringAutoconfigurationTest {
                 )
                 .run(ctx -> {
                     assertThat(ctx).hasSingleBean(InegiService.class);
+                    assertThat(ctx).hasSingleBean(AsyncInegiService.class);
+                    assertThat(ctx).hasSingleBean(InegiMetrics.class);
                 });
         contextRunner
                 .withPropertyValues(
@@ -34,6 +55,144 @@ public class SpringAutoconfigurationTest {
                 .run(ctx -> assertThat(ctx).doesNotHaveBean(InegiService.class));
     }
 
+    @Test
+    public void contextWithCache() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.cache.enabled=true",
+                        "inegi.cache.ttl=1h"
+                )
+                .run(ctx -> assertThat(ctx).getBean(InegiService.class).isInstanceOf(CachingInegiService.class));
+    }
+
+    @Test
+    public void contextWithStore() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.store.type=memory",
+                        "inegi.store.ttl=1h"
+                )
+                .run(ctx -> assertThat(ctx).getBean(CatalogStore.class).isInstanceOf(InMemoryCatalogStore.class));
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.store.type=http"
+                )
+                .run(ctx -> assertThat(ctx).hasFailed());
+    }
+
+    @Test
+    public void contextWithKeyFilter() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.key-filter.enabled=true",
+                        "inegi.key-filter.negative-ttl=1m"
+                )
+                .run(ctx -> {
+                    assertThat(ctx).getBean(InegiService.class).isInstanceOf(KeyFilteringInegiService.class);
+                    assertThat(ctx.getBean(InegiService.class).getMxState("99")).isEmpty();
+                });
+    }
+
+    @Test
+    public void contextWithResilience() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.resilience.enabled=true",
+                        "inegi.resilience.hedge-delay=500ms"
+                )
+                .run(ctx -> {
+                    assertThat(ctx).hasSingleBean(ResilientInegiService.class);
+                    assertThat(ctx).hasSingleBean(InegiService.class);
+                    assertThat(ctx.getBean(InegiProperties.class).getResilience().getHedgeDelay()).isEqualTo(Duration.ofMillis(500));
+                });
+    }
+
+    @Test
+    public void contextWithPrewarm() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.cache.enabled=true",
+                        "inegi.prewarm.enabled=true",
+                        "inegi.prewarm.parallelism=4"
+                )
+                .run(ctx -> {
+                    assertThat(ctx).hasSingleBean(CatalogPrewarmer.class);
+                    assertThat(ctx).hasBean("inegiCatalogHealthIndicator");
+                    assertThat(ctx.getBean("inegiCatalogHealthIndicator", HealthIndicator.class).health().getStatus().getCode())
+                            .isEqualTo("OUT_OF_SERVICE");
+                });
+        contextRunner
+                .withPropertyValues("inegi.enabled=true")
+                .run(ctx -> assertThat(ctx).doesNotHaveBean(CatalogPrewarmer.class));
+    }
+
+    @Test
+    public void contextWithHttpSettings() {
+        contextRunner
+                .withPropertyValues(
+                        "inegi.enabled=true",
+                        "inegi.http.max-requests-per-host=32",
+                        "inegi.http.read-timeout=5s",
+                        "inegi.http.protocols=http_1_1"
+                )
+                .run(ctx -> {
+                    final var client = ctx.getBean(InegiAutoConfiguration.HTTP_CLIENT, OkHttpClient.class);
+                    assertThat(client.dispatcher().getMaxRequestsPerHost()).isEqualTo(32);
+                    assertThat(client.readTimeoutMillis()).isEqualTo(5_000);
+                    assertThat(client.protocols()).containsExactly(Protocol.HTTP_1_1);
+                    assertThat(client.connectionSpecs()).doesNotContain(ConnectionSpec.CLEARTEXT);
+                });
+        contextRunner
+                .withPropertyValues("inegi.enabled=true", "inegi.base-url=http://localhost:8089/wscatgeo")
+                .run(ctx -> assertThat(ctx).hasFailed());
+        contextRunner
+                .withPropertyValues("inegi.enabled=true", "inegi.base-url=http://localhost:8089/wscatgeo", "inegi.http.cleartext=true")
+                .run(ctx -> assertThat(ctx.getBean(InegiAutoConfiguration.HTTP_CLIENT, OkHttpClient.class).connectionSpecs())
+                        .contains(ConnectionSpec.CLEARTEXT));
+    }
+
+    @Test
+    public void contextWithCustomHttpClient() {
+        final var custom = new OkHttpClient();
+        contextRunner
+                .withPropertyValues("inegi.enabled=true")
+                .withBean(InegiAutoConfiguration.HTTP_CLIENT, OkHttpClient.class, () -> custom)
+                .run(ctx -> {
+                    assertThat(ctx).hasSingleBean(OkHttpClient.class);
+                    assertThat(ctx).getBean(OkHttpClient.class).isSameAs(custom);
+                    assertThat(ctx).hasSingleBean(InegiService.class);
+                });
+    }
+
+    @Test
+    public void contextWithHttpInterceptors() {
+        final Interceptor metrics = chain -> chain.proceed(chain.request());
+        final Interceptor unrelated = chain -> chain.proceed(chain.request());
+        contextRunner
+                .withPropertyValues("inegi.enabled=true")
+                .withBean("metricsInterceptor", Interceptor.class, () -> metrics, definition -> ((AbstractBeanDefinition) definition)
+                        .addQualifier(new AutowireCandidateQualifier(Qualifier.class, InegiAutoConfiguration.HTTP_INTERCEPTOR)))
+                .withBean("unrelatedInterceptor", Interceptor.class, () -> unrelated)
+                .run(ctx -> assertThat(ctx.getBean(InegiAutoConfiguration.HTTP_CLIENT, OkHttpClient.class).interceptors())
+                        .containsExactly(metrics));
+    }
+
+    @Test
+    public void contextWithAsyncExecutor() {
+        final Executor executor = Runnable::run;
+        contextRunner
+                .withPropertyValues("inegi.enabled=true")
+                .withBean("asyncExecutor", Executor.class, () -> executor, definition -> ((AbstractBeanDefinition) definition)
+                        .addQualifier(new AutowireCandidateQualifier(Qualifier.class, InegiAutoConfiguration.ASYNC_EXECUTOR)))
+                .run(ctx -> assertThat(ctx.getBean(AsyncInegiService.class)).extracting("completionExecutor").isSameAs(executor));
+    }
+
     @Test
     public void contextMissingConfiguration() {
         contextRunner.run(ctx -> assertThat(ctx).doesNotHaveBean(InegiAutoConfiguration.class).doesNotHaveBean(InegiService.class));
@@ -0,0 +1,71 @@
+package com.github.rubenqba.inegi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CatalogCache<String, String> cache = new CatalogCache<>("test",
+            Duration.ofSeconds(10), Duration.ofSeconds(5), 2, Runnable::run, clock::get);
+
+    private String load(String key) {
+        return key + "-" + loads.incrementAndGet();
+    }
+
+    @Test
+    void hitsAndMisses() {
+        assertThat(cache.get("a", this::load, v -> true)).isEqualTo("a-1");
+        assertThat(cache.get("a", this::load, v -> true)).isEqualTo("a-1");
+
+        assertThat(cache.stats()).extracting(CacheStats::getHitCount, CacheStats::getMissCount, CacheStats::getSize)
+                .containsExactly(1L, 1L, 1);
+    }
+
+    @Test
+    void nonCacheableValuesAreNotStored() {
+        cache.get("a", this::load, v -> false);
+        cache.get("a", this::load, v -> false);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.peek("a")).isNotPresent();
+    }
+
+    @Test
+    void refreshAheadServesCurrentValue() {
+        cache.get("a", this::load, v -> true);
+        clock.set(Duration.ofSeconds(6).toNanos());
+
+        assertThat(cache.get("a", this::load, v -> true)).isEqualTo("a-1");
+        assertThat(cache.peek("a")).contains("a-2");
+        assertThat(cache.stats().getRefreshCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntriesAreLoadedAgain() {
+        cache.get("a", this::load, v -> true);
+        clock.set(Duration.ofSeconds(11).toNanos());
+
+        assertThat(cache.peek("a")).isNotPresent();
+        assertThat(cache.get("a", this::load, v -> true)).isEqualTo("a-2");
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        cache.get("a", this::load, v -> true);
+        cache.get("b", this::load, v -> true);
+        cache.get("a", this::load, v -> true);
+        cache.get("c", this::load, v -> true);
+
+        assertThat(cache.peek("a")).isPresent();
+        assertThat(cache.peek("b")).isNotPresent();
+        assertThat(cache.stats().getEvictionCount()).isEqualTo(1);
+    }
+}
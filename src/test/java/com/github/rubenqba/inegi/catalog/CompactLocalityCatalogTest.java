@@ -0,0 +1,56 @@
+package com.github.rubenqba.inegi.catalog;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactLocalityCatalogTest {
+
+    private static final MxLocality xochimilco = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality tlahuac = new MxLocality("0001", "09", "011", "Tláhuac", URBANO, 19.28, -99.00);
+    private static final MxLocality unknown = new MxLocality("0002", "09", "011", "Xochimilco", null, null, null);
+
+    private final CompactLocalityCatalog catalog = CompactLocalityCatalog.of(List.of(ixotitla, xochimilco, unknown, tlahuac));
+
+    @Test
+    void lookups() {
+        assertThat(catalog.size()).isEqualTo(4);
+        assertThat(catalog.get("09", "013", "0096")).contains(ixotitla);
+        assertThat(catalog.get("09", "011", "0002")).contains(unknown);
+        assertThat(catalog.get("09", "013", "XXXX")).isNotPresent();
+        assertThat(catalog.get("09", "013", "0097")).isNotPresent();
+    }
+
+    @Test
+    void municipalRanges() {
+        assertThat(catalog.localities(new MxMunicipal("013", "09", "Xochimilco", "0001"))).containsExactly(xochimilco, ixotitla);
+        assertThat(catalog.localities(new MxMunicipal("011", "09", "Tláhuac", "0001"))).containsExactly(tlahuac, unknown);
+        assertThat(catalog.localities(new MxMunicipal("012", "09", "Tlalpan", "0001"))).isEmpty();
+    }
+
+    @Test
+    void columns() {
+        final int i = catalog.indexOf("09", "011", "0002");
+        assertThat(catalog.latitude(i)).isNaN();
+        assertThat(catalog.scope(i)).isNull();
+        assertThat(catalog.nameCount()).isEqualTo(3);
+    }
+
+    @Test
+    void longIntMap() {
+        final var map = new LongIntMap(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(90_130_000L + i * 7, i);
+        }
+        assertThat(map.size()).isEqualTo(1_000);
+        assertThat(map.get(90_130_000L + 7 * 999)).isEqualTo(999);
+        assertThat(map.get(90_130_001L)).isEqualTo(LongIntMap.MISSING);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.rubenqba.inegi.catalog;
+
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyFilterTest {
+
+    private final KeyFilter filter = new KeyFilter();
+
+    @Test
+    void federalEntitiesByDefault() {
+        assertThat(filter.mayExist("01")).isTrue();
+        assertThat(filter.mayExist("32")).isTrue();
+        assertThat(filter.mayExist("00")).isFalse();
+        assertThat(filter.mayExist("33")).isFalse();
+        assertThat(filter.mayExist("9")).isFalse();
+        assertThat(filter.mayExist("0A")).isFalse();
+        assertThat(filter.mayExist(null)).isFalse();
+        assertThat(filter.mayExist("09", "999")).isTrue();
+        assertThat(filter.mayExist("09", "13")).isFalse();
+        assertThat(filter.mayExist("33", "001", "0001")).isFalse();
+    }
+
+    @Test
+    void learntListsNarrowTheKeys() {
+        filter.learnStates(Arrays.asList(new MxState("09", "Ciudad de México", "CDMX"), new MxState("15", "México", "Mex.")));
+        filter.learnMunicipals("09", Arrays.asList(new MxMunicipal("013", "09", "Xochimilco", "0001"),
+                new MxMunicipal("002", "09", "Azcapotzalco", "0001")));
+        filter.learnMunicipals("15", Collections.emptyList());
+
+        assertThat(filter.mayExist("01")).isFalse();
+        assertThat(filter.mayExist("09", "002")).isTrue();
+        assertThat(filter.mayExist("09", "013", "0001")).isTrue();
+        assertThat(filter.mayExist("09", "001")).isFalse();
+        assertThat(filter.mayExist("15", "120")).isTrue();
+        assertThat(filter.getLearntStates()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.rubenqba.inegi.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderedWindowTest {
+
+    @Test
+    void handsOverInOrderOnceTheWindowIsFull() throws Exception {
+        final var window = new OrderedWindow<Integer>(2);
+        final List<Integer> received = new ArrayList<>();
+        final var first = new CompletableFuture<Integer>();
+        final var second = CompletableFuture.completedFuture(2);
+
+        window.add(first, received::add);
+        window.add(second, received::add);
+        assertThat(received).isEmpty();
+
+        first.complete(1);
+        window.add(CompletableFuture.completedFuture(3), received::add);
+        assertThat(received).containsExactly(1);
+
+        window.drain(received::add);
+        assertThat(received).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void failedTasksStopTheHandOver() {
+        final var window = new OrderedWindow<Integer>(0);
+        final List<Integer> received = new ArrayList<>();
+        final var later = new CompletableFuture<Integer>();
+
+        assertThatThrownBy(() -> window.add(CompletableFuture.failedFuture(new IllegalStateException("boom")), received::add))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        window.cancel();
+        assertThat(received).isEmpty();
+
+        final var next = new OrderedWindow<Integer>(1);
+        assertThatCode(() -> next.add(later, received::add)).doesNotThrowAnyException();
+        next.cancel();
+        assertThat(later).isCancelled();
+    }
+
+    @Test
+    void threadsAreNamedDaemons() {
+        final var thread = new DaemonThreadFactory("inegi-test").newThread(() -> {
+        });
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(thread.getName()).startsWith("inegi-test-");
+    }
+}
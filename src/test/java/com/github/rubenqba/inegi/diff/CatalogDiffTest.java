@@ -0,0 +1,138 @@
+package com.github.rubenqba.inegi.diff;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.search.PlaceKind;
+import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.snapshot.CatalogSnapshotBuilder;
+import com.github.rubenqba.inegi.snapshot.MappedCatalogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CatalogDiffTest {
+
+    private static final MxState cdmx = new MxState("09", "Ciudad de México", "CDMX");
+    private static final MxState sonora = new MxState("26", "Sonora", "Son.");
+    private static final MxMunicipal tlahuac = new MxMunicipal("011", "09", "Tláhuac", "0001");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+    private static final MxLocality center = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality tlahuacCenter = new MxLocality("0001", "09", "011", "Tláhuac", URBANO, 19.28, -99.0);
+
+    @TempDir
+    Path folder;
+
+    private MappedCatalogService snapshot(String name, CatalogSnapshotBuilder builder) throws IOException {
+        final var file = folder.resolve(name);
+        builder.write(file);
+        return MappedCatalogService.open(file);
+    }
+
+    @Test
+    void publishesChangesInCodeOrder() throws IOException {
+        final var older = new CatalogSnapshotBuilder().add(cdmx).add(xochimilco).add(ixotitla).add(center)
+                .add(tlahuac).add(tlahuacCenter);
+        final var newer = new CatalogSnapshotBuilder().add(new MxState("09", "Ciudad de México", "CDMX")).add(sonora)
+                .add(new MxMunicipal("013", "09", "Xochimilco", "0001"))
+                .add(new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031))
+                .add(new MxLocality("0096", "09", "013", "San Lucas Ixotitla", URBANO, 19.25, -99.0569950));
+        final List<CatalogChange<?>> changes = new ArrayList<>();
+
+        try (var before = snapshot("before.bin", older); var after = snapshot("after.bin", newer)) {
+            final var report = new CatalogDiff().compare(before, after, changes::add);
+
+            assertThat(changes).extracting(CatalogChange::getType, CatalogChange::getKey).containsExactly(
+                    tuple(ChangeType.REMOVED, "09/011"),
+                    tuple(ChangeType.REMOVED, "09/011/0001"),
+                    tuple(ChangeType.RENAMED, "09/013/0096"),
+                    tuple(ChangeType.MOVED, "09/013/0096"),
+                    tuple(ChangeType.SCOPE_CHANGED, "09/013/0096"),
+                    tuple(ChangeType.ADDED, "26"));
+            assertThat(changes.get(2).getBefore()).isEqualTo(ixotitla);
+            assertThat(report.count(ChangeType.REMOVED)).isEqualTo(2);
+            assertThat(report.getTotal()).isEqualTo(6);
+            assertThat(report.getRecords()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void unreadableChildrenFailTheComparison() throws IOException {
+        final var catalog = new CatalogSnapshotBuilder().add(cdmx).add(xochimilco).add(center).add(tlahuac).add(tlahuacCenter);
+        final List<CatalogChange<?>> changes = new ArrayList<>();
+
+        try (var before = snapshot("before.bin", catalog); var after = snapshot("after.bin", catalog)) {
+            assertThatThrownBy(() -> new CatalogDiff().compare(before, withoutMunicipals(after, "09"), changes::add))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("state 09");
+            assertThat(changes).isEmpty();
+            assertThat(new CatalogDiff().compare(before, after, changes::add).getTotal()).isZero();
+        }
+    }
+
+    /**
+     * @return catalog failing to read the municipals of a state, answering an empty list as the INEGI service does
+     */
+    private static InegiService withoutMunicipals(InegiService catalog, String failing) {
+        return new InegiService() {
+            @Override
+            public List<MxState> getMxStates() {
+                return catalog.getMxStates();
+            }
+
+            @Override
+            public Optional<MxState> getMxState(String state) {
+                return catalog.getMxState(state);
+            }
+
+            @Override
+            public List<MxMunicipal> getMxMunicipals(MxState state) {
+                return failing.equals(state.getId()) ? List.of() : catalog.getMxMunicipals(state);
+            }
+
+            @Override
+            public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+                return catalog.getMxMunicipal(state, municipal);
+            }
+
+            @Override
+            public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+                return catalog.getMxLocalities(municipal);
+            }
+
+            @Override
+            public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+                return catalog.getMxLocality(state, municipal, locality);
+            }
+        };
+    }
+
+    @Test
+    void patchFile() throws IOException {
+        final var patch = new ByteArrayOutputStream();
+        try (var writer = new PatchWriter(patch)) {
+            writer.accept(new CatalogChange<>(ChangeType.MOVED, PlaceKind.LOCALITY, "09", "013", "0096",
+                    ixotitla, new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.25, -99.0569950)));
+            writer.accept(new CatalogChange<>(ChangeType.ADDED, PlaceKind.STATE, "26", null, null, null, sonora));
+        }
+        assertThat(patch.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"change\":\"moved\",\"kind\":\"locality\",\"key\":\"09/013/0096\","
+                        + "\"before\":{\"state\":\"09\",\"municipal\":\"013\",\"locality\":\"0096\",\"name\":\"Ixotitla\",\"scope\":\"RURAL\",\"latitude\":19.2372167,\"longitude\":-99.056995},"
+                        + "\"after\":{\"state\":\"09\",\"municipal\":\"013\",\"locality\":\"0096\",\"name\":\"Ixotitla\",\"scope\":\"RURAL\",\"latitude\":19.25,\"longitude\":-99.056995}}",
+                "{\"change\":\"added\",\"kind\":\"state\",\"key\":\"26\",\"after\":{\"state\":\"26\",\"name\":\"Sonora\",\"abbreviation\":\"Son.\"}}");
+    }
+}
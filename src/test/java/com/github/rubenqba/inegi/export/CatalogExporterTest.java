@@ -0,0 +1,143 @@
+package com.github.rubenqba.inegi.export;
+
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogExporterTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 3 states with 20 municipals of 5 localities each, lists in {@code unavailable} can not be downloaded
+     */
+    private static class Catalog implements ResilientInegiService {
+        private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+        private final Set<String> requested = ConcurrentHashMap.newKeySet();
+
+        private <T> InegiResult<List<T>> list(String unit, List<T> values) {
+            requested.add(unit);
+            return unavailable.contains(unit) ? InegiResult.unavailable() : InegiResult.found(values);
+        }
+
+        @Override
+        public InegiResult<List<MxState>> getMxStates() {
+            return list("mgee", IntStream.rangeClosed(1, 3)
+                    .mapToObj(i -> new MxState(String.format("%02d", i), "Estado, " + i, "E" + i))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public InegiResult<MxState> getMxState(String state) {
+            return InegiResult.notFound(null);
+        }
+
+        @Override
+        public InegiResult<List<MxMunicipal>> getMxMunicipals(MxState state) {
+            return list("mgem/" + state.getId(), IntStream.rangeClosed(1, 20)
+                    .mapToObj(i -> new MxMunicipal(String.format("%03d", i), state.getId(), "Municipio \"" + i + "\"", "0001"))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public InegiResult<MxMunicipal> getMxMunicipal(String state, String municipal) {
+            return InegiResult.notFound(null);
+        }
+
+        @Override
+        public InegiResult<List<MxLocality>> getMxLocalities(MxMunicipal municipal) {
+            return list("localidades/" + municipal.getState() + "/" + municipal.getId(), IntStream.rangeClosed(1, 5)
+                    .mapToObj(i -> new MxLocality(String.format("%04d", i), municipal.getState(), municipal.getId(), "Localidad " + i,
+                            LocaltyScope.RURAL, 19.5 + i, -99.25))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public InegiResult<MxLocality> getMxLocality(String state, String municipal, String locality) {
+            return InegiResult.notFound(null);
+        }
+    }
+
+    private static String read(Path file, boolean gzip) throws IOException {
+        try (InputStream input = gzip ? new GZIPInputStream(Files.newInputStream(file)) : Files.newInputStream(file)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void exportsWholeCatalogInOrder() throws IOException {
+        final var output = directory.resolve("catalog.csv");
+        try (var exporter = new CatalogExporter(new Catalog(), 4, 10)) {
+            final var report = exporter.export(output, ExportFormat.CSV, false);
+            assertThat(report.getRecords()).isEqualTo(3 + 60 + 300);
+            assertThat(report.getUnits()).isEqualTo(1 + 3 + 60);
+            assertThat(report.isResumed()).isFalse();
+        }
+        final var lines = read(output, false).split("\n");
+        assertThat(lines).hasSize(1 + 3 + 60 + 300);
+        assertThat(lines[0]).startsWith("type,state,municipal,locality,name");
+        assertThat(lines[1]).isEqualTo("state,01,,,\"Estado, 1\",E1,,,,");
+        assertThat(lines[4]).isEqualTo("municipal,01,001,,\"Municipio \"\"1\"\"\",,0001,,,");
+        assertThat(lines[24]).isEqualTo("locality,01,001,0001,Localidad 1,,,RURAL,20.5,-99.25");
+        assertThat(lines[lines.length - 1]).startsWith("locality,03,020,0005,");
+        assertThat(ExportCheckpoint.of(output)).doesNotExist();
+    }
+
+    @Test
+    void resumesInterruptedExport() throws IOException {
+        final var expected = directory.resolve("expected.ndjson.gz");
+        try (var exporter = new CatalogExporter(new Catalog(), 4, 7)) {
+            exporter.export(expected, ExportFormat.NDJSON, true);
+        }
+
+        final var output = directory.resolve("catalog.ndjson.gz");
+        final var catalog = new Catalog();
+        catalog.unavailable.add("localidades/02/011");
+        try (var exporter = new CatalogExporter(catalog, 4, 7)) {
+            assertThatThrownBy(() -> exporter.export(output, ExportFormat.NDJSON, true))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("localidades/02/011");
+            assertThat(ExportCheckpoint.of(output)).exists();
+            assertThat(ExportCheckpoint.read(ExportCheckpoint.of(output))).get()
+                    .extracting(ExportCheckpoint::getUnit).isEqualTo("localidades/02/010");
+
+            catalog.unavailable.clear();
+            catalog.requested.clear();
+            final var report = exporter.export(output, ExportFormat.NDJSON, true);
+            assertThat(report.isResumed()).isTrue();
+            assertThat(report.getRecords()).isEqualTo(363);
+            assertThat(catalog.requested).doesNotContain("mgem/01", "localidades/02/010").contains("mgem/02", "localidades/02/011");
+        }
+        assertThat(read(output, true)).isEqualTo(read(expected, true));
+        assertThat(read(output, true).split("\n")[0])
+                .isEqualTo("{\"type\":\"state\",\"state\":\"01\",\"name\":\"Estado, 1\",\"abbreviation\":\"E1\"}");
+        assertThat(ExportCheckpoint.of(output)).doesNotExist();
+    }
+
+    @Test
+    void commandLineRejectsBadArguments() {
+        assertThat(CatalogExportCommand.run(new String[]{"--format", "xml", "out"}, System.out, System.err)).isEqualTo(2);
+        assertThat(CatalogExportCommand.run(new String[]{"--gzip"}, System.out, System.err)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.rubenqba.inegi.geo;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LocalityIndexTest {
+
+    private static final MxLocality xochimilco = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality monterrey = new MxLocality("0001", "19", "039", "Monterrey", URBANO, 25.6714, -100.3086);
+    private static final MxLocality unknown = new MxLocality("0002", "19", "039", "Sin coordenadas", RURAL, null, null);
+
+    @Test
+    void haversine() {
+        assertThat(GeoDistance.haversineKm(19.4326, -99.1332, 25.6866, -100.3161)).isCloseTo(706.0, within(5.0));
+        assertThat(GeoDistance.haversineKm(19.4326, -99.1332, 19.4326, -99.1332)).isZero();
+    }
+
+    @Test
+    void nearest() {
+        final var index = LocalityIndex.of(List.of(monterrey, ixotitla, xochimilco, unknown));
+        final var hits = index.newHits(2);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.nearest(19.25, -99.10, hits)).isEqualTo(2);
+        assertThat(hits.toList()).containsExactly(xochimilco, ixotitla);
+        assertThat(hits.distanceKm(0)).isCloseTo(GeoDistance.haversineKm(19.25, -99.10, 19.2572, -99.1031), within(1e-6));
+    }
+
+    @Test
+    void withinRadius() {
+        final var index = LocalityIndex.of(List.of(monterrey, ixotitla, xochimilco));
+        final var hits = index.newHits(1);
+
+        assertThat(index.within(19.25, -99.10, 10, hits)).isEqualTo(2);
+        assertThat(hits.toList()).containsExactly(xochimilco, ixotitla);
+        assertThat(index.within(19.25, -99.10, 0.1, hits)).isZero();
+        assertThat(index.within(19.25, -99.10, 1_000, hits)).isEqualTo(3);
+    }
+
+    @Test
+    void matchesBruteForce() {
+        final var random = new Random(42);
+        final List<MxLocality> localities = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            localities.add(new MxLocality(String.valueOf(i), "01", "001", "L" + i, RURAL,
+                    14.5 + random.nextDouble() * 18, -118 + random.nextDouble() * 31));
+        }
+        final var index = LocalityIndex.of(localities);
+        final var hits = index.newHits(10);
+        for (int q = 0; q < 100; q++) {
+            final double lat = 14.5 + random.nextDouble() * 18;
+            final double lon = -118 + random.nextDouble() * 31;
+            final Comparator<MxLocality> byDistance = Comparator.comparingDouble(l -> GeoDistance.haversineKm(lat, lon, l.getLatitude(), l.getLongitude()));
+
+            index.nearest(lat, lon, hits);
+            assertThat(hits.toList()).containsExactlyElementsOf(localities.stream().sorted(byDistance).limit(10).collect(Collectors.toList()));
+
+            index.within(lat, lon, 50, hits);
+            assertThat(hits.toList()).containsExactlyElementsOf(localities.stream()
+                    .filter(l -> GeoDistance.haversineKm(lat, lon, l.getLatitude(), l.getLongitude()) <= 50)
+                    .sorted(byDistance).collect(Collectors.toList()));
+        }
+    }
+}
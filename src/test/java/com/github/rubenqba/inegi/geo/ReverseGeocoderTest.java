@@ -0,0 +1,88 @@
+package com.github.rubenqba.inegi.geo;
+
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReverseGeocoderTest {
+
+    private static final int GRID = 20;
+    private static final double CELL = 0.1;
+    private static final double LAT0 = 19.0;
+    private static final double LON0 = -100.0;
+
+    /**
+     * cell of the grid with wavy horizontal edges of many vertices, neighbours share their edges exactly
+     */
+    private static double[] cell(int row, int column) {
+        final int steps = 200;
+        final double[] ring = new double[2 * (2 * steps + 3)];
+        int i = 0;
+        final double west = LON0 + column * CELL;
+        for (int s = 0; s <= steps; s++) {
+            final double lon = west + CELL * s / steps;
+            ring[i++] = lon;
+            ring[i++] = edge(row, lon);
+        }
+        for (int s = steps; s >= 0; s--) {
+            final double lon = west + CELL * s / steps;
+            ring[i++] = lon;
+            ring[i++] = edge(row + 1, lon);
+        }
+        ring[i++] = ring[0];
+        ring[i] = ring[1];
+        return ring;
+    }
+
+    private static double edge(int row, double lon) {
+        return LAT0 + row * CELL + 0.01 * Math.sin(lon * 300);
+    }
+
+    @Test
+    void simplifiedTestsMatchExactOnes() {
+        final List<Boundary<MxMunicipal>> simplified = new ArrayList<>();
+        final List<MultiPolygon> exact = new ArrayList<>();
+        for (int row = 0; row < GRID; row++) {
+            for (int column = 0; column < GRID; column++) {
+                final var ring = cell(row, column);
+                final var id = String.format("%03d", row * GRID + column);
+                simplified.add(new Boundary<>(new MxMunicipal(id, "15", id, null), MultiPolygon.of(List.of(ring), 0.002)));
+                exact.add(MultiPolygon.of(List.of(ring), 0));
+            }
+        }
+        assertThat(simplified.get(0).getGeometry().getSimplifiedVertices()).isLessThan(simplified.get(0).getGeometry().getVertices() / 2);
+
+        final var state = MultiPolygon.of(List.of(new double[]{LON0, LAT0 - 1, LON0 + 2, LAT0 - 1, LON0 + 2, LAT0 + 3, LON0, LAT0 + 3}), 0);
+        final var geocoder = ReverseGeocoder.of(List.of(new Boundary<>(new MxState("15", "México", "Mex."), state)), simplified);
+
+        final var random = new Random(42);
+        for (int q = 0; q < 20_000; q++) {
+            final double lat = LAT0 - 0.05 + random.nextDouble() * (GRID * CELL + 0.1);
+            final double lon = LON0 - 0.05 + random.nextDouble() * (GRID * CELL + 0.1);
+            String expected = null;
+            for (int i = 0; i < exact.size(); i++) {
+                if (exact.get(i).contains(lat, lon)) {
+                    expected = simplified.get(i).getArea().getId();
+                    break;
+                }
+            }
+            final var found = geocoder.municipal(lat, lon).map(MxMunicipal::getId).orElse(null);
+            assertThat(found).as("(%s, %s)", lat, lon).isEqualTo(expected);
+        }
+        assertThat(geocoder.state(19.5, -99.5)).get().extracting(MxState::getId).isEqualTo("15");
+        assertThat(geocoder.state(25.0, -99.5)).isEmpty();
+    }
+
+    @Test
+    void emptyIndex() {
+        final var geocoder = ReverseGeocoder.of(List.of(), List.of());
+        assertThat(geocoder.state(19.0, -99.0)).isEmpty();
+        assertThat(geocoder.municipal(19.0, -99.0)).isEmpty();
+    }
+}
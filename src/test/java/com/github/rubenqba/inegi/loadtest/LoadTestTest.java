@@ -0,0 +1,56 @@
+package com.github.rubenqba.inegi.loadtest;
+
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import com.github.rubenqba.inegi.standin.InegiStandIn;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestTest {
+
+    private final InegiStandIn standIn = new InegiStandIn();
+    private InegiServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        standIn.withLatency(Duration.ofMillis(2), Duration.ofMillis(2)).start();
+        service = new InegiServiceImpl(new OkHttpClient(), InegiCallListener.NONE, standIn.getBaseUrl());
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        standIn.close();
+    }
+
+    @Test
+    void catalogMixAgainstStandIn() throws InterruptedException {
+        final var operations = LoadTest.catalogMix(service, 10);
+        assertThat(operations).hasSize(6);
+
+        final var report = new LoadTest(4, Duration.ofMillis(300)).run(operations);
+        assertThat(report.getThreads()).isEqualTo(4);
+        assertThat(report.getCalls()).isPositive();
+        assertThat(report.getErrors()).isZero();
+        assertThat(report.getThroughput()).isPositive();
+        assertThat(report.getP50()).isGreaterThanOrEqualTo(Duration.ofMillis(2));
+        assertThat(report.getP50()).isLessThanOrEqualTo(report.getP99());
+        assertThat(report.getP99()).isLessThanOrEqualTo(report.getMax());
+    }
+
+    @Test
+    void injectedErrorsAreReported() throws InterruptedException {
+        final var operations = LoadTest.catalogMix(service, 10);
+        standIn.withErrorRate(0.5);
+
+        final var report = new LoadTest(2, Duration.ofMillis(200)).run(operations);
+        assertThat(report.getErrors()).isPositive();
+        assertThat(report.getErrorRate()).isBetween(0.1, 0.9);
+    }
+}
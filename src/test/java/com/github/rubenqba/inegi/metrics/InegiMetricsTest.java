@@ -0,0 +1,66 @@
+package com.github.rubenqba.inegi.metrics;
+
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InegiMetricsTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private InegiServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+        final var metrics = new InegiMetrics();
+        metrics.bindTo(registry);
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .url(chain.request().url().newBuilder().scheme("http").host(server.getHostName()).port(server.getPort()).build())
+                        .build()))
+                .build();
+        service = new InegiServiceImpl(client, metrics);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void recordsEveryCall() throws IOException {
+        final String states;
+        try (var input = getClass().getClassLoader().getResourceAsStream("inegi/mgee/all.json")) {
+            states = new String(Objects.requireNonNull(input).readAllBytes(), StandardCharsets.UTF_8);
+        }
+        server.enqueue(new MockResponse().setBody(states));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(service.getMxState("99")).isEmpty();
+        assertThat(service.getMxState("09")).isEmpty();
+
+        assertThat(registry.get("inegi.requests").tags("endpoint", "mgee", "method", "getMxStates", "outcome", "SUCCESS").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inegi.requests").tags("method", "getMxState", "outcome", "NOT_FOUND").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inegi.requests").tags("method", "getMxState", "outcome", "HTTP_ERROR").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inegi.requests.network").tags("method", "getMxState", "status", "503").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inegi.requests.decode").tags("method", "getMxStates").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inegi.response.size").tags("method", "getMxStates").summary().totalAmount())
+                .isEqualTo(states.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(registry.get("inegi.response.records").tags("method", "getMxStates").summary().totalAmount()).isEqualTo(5);
+        assertThat(registry.get("inegi.requests.active").tags("method", "getMxStates").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.rubenqba.inegi.prewarm;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.LocaltyScope;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogPrewarmerTest {
+
+    /**
+     * catalog of 4 states with 10 municipals each and 3 localities per municipal, except state 04 whose
+     * municipals have no localities
+     */
+    private static class SlowCatalog implements InegiService {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        private <T> T request(T value) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return value;
+        }
+
+        @Override
+        public List<MxState> getMxStates() {
+            return request(IntStream.rangeClosed(1, 4)
+                    .mapToObj(i -> new MxState(String.format("%02d", i), "state " + i, null))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Optional<MxState> getMxState(String state) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<MxMunicipal> getMxMunicipals(MxState state) {
+            return request(IntStream.rangeClosed(1, 10)
+                    .mapToObj(i -> new MxMunicipal(String.format("%03d", i), state.getId(), "municipal " + i, null))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+            if ("04".equals(municipal.getState())) {
+                return request(Collections.emptyList());
+            }
+            return request(IntStream.rangeClosed(1, 3)
+                    .mapToObj(i -> new MxLocality(String.format("%04d", i), municipal.getState(), municipal.getId(), "locality " + i, LocaltyScope.URBANO, 19.0, -99.0))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+            return Optional.empty();
+        }
+    }
+
+    @Test
+    void crawlsWholeCatalogWithBoundedConcurrency() throws Exception {
+        final var catalog = new SlowCatalog();
+        final var settings = new InegiProperties.Prewarm();
+        settings.setParallelism(3);
+        try (var prewarmer = new CatalogPrewarmer(catalog, settings)) {
+            assertThat(prewarmer.isReady()).isFalse();
+            assertThat(prewarmer.getProgress().getMunicipals()).isZero();
+
+            final var progress = prewarmer.start().get(10, TimeUnit.SECONDS);
+            assertThat(prewarmer.start()).isCompleted();
+            assertThat(prewarmer.isReady()).isTrue();
+            assertThat(progress.isDone()).isTrue();
+            assertThat(progress.getStates()).isEqualTo(4);
+            assertThat(progress.getMunicipals()).isEqualTo(40);
+            assertThat(progress.getMunicipalsLoaded()).isEqualTo(40);
+            assertThat(progress.getLocalities()).isEqualTo(90);
+            assertThat(progress.getEmpty()).isEqualTo(10);
+            assertThat(prewarmer.getProgress().getElapsed()).isEqualTo(progress.getElapsed());
+        }
+        assertThat(catalog.maxActive.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void emptyListsAreRequestedAgain() throws Exception {
+        final var failures = new AtomicInteger(2);
+        final var catalog = new SlowCatalog() {
+            @Override
+            public List<MxState> getMxStates() {
+                return failures.getAndDecrement() > 1 ? Collections.emptyList() : super.getMxStates();
+            }
+
+            @Override
+            public List<MxMunicipal> getMxMunicipals(MxState state) {
+                return "02".equals(state.getId()) && failures.getAndDecrement() > 0 ? Collections.emptyList() : super.getMxMunicipals(state);
+            }
+        };
+        final var settings = new InegiProperties.Prewarm();
+        settings.setRetryDelay(Duration.ofMillis(10));
+        try (var prewarmer = new CatalogPrewarmer(catalog, settings)) {
+            final var progress = prewarmer.start().get(10, TimeUnit.SECONDS);
+            assertThat(progress.getStates()).isEqualTo(4);
+            assertThat(progress.getMunicipals()).isEqualTo(40);
+            assertThat(progress.getIncomplete()).isZero();
+        }
+    }
+
+    @Test
+    void crawlFailsWhileMunicipalsAreMissing() {
+        final var requests = new AtomicInteger();
+        final var catalog = new SlowCatalog() {
+            @Override
+            public List<MxMunicipal> getMxMunicipals(MxState state) {
+                if ("03".equals(state.getId())) {
+                    requests.incrementAndGet();
+                    return Collections.emptyList();
+                }
+                return super.getMxMunicipals(state);
+            }
+        };
+        final var settings = new InegiProperties.Prewarm();
+        settings.setMaxAttempts(2);
+        settings.setRetryDelay(Duration.ofMillis(10));
+        try (var prewarmer = new CatalogPrewarmer(catalog, settings)) {
+            assertThatThrownBy(() -> prewarmer.start().get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(prewarmer.isReady()).isFalse();
+            assertThat(prewarmer.isFailed()).isTrue();
+            assertThat(prewarmer.getProgress().getIncomplete()).isEqualTo(1);
+            assertThat(prewarmer.getProgress().getMunicipalsLoaded()).isEqualTo(30);
+            assertThat(new PrewarmHealthIndicator(prewarmer).health().getStatus()).isEqualTo(Status.DOWN);
+        }
+        assertThat(requests.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressResolverTest {
+
+    private static final MxState cdmx = new MxState("09", "Ciudad de México", "CDMX");
+    private static final MxState guanajuato = new MxState("11", "Guanajuato", "Gto.");
+    private static final MxState quintanaRoo = new MxState("23", "Quintana Roo", "Q. Roo");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+    private static final MxMunicipal benitoJuarez = new MxMunicipal("014", "09", "Benito Juárez", "0001");
+    private static final MxMunicipal leon = new MxMunicipal("020", "11", "León", "0001");
+    private static final MxMunicipal cancun = new MxMunicipal("005", "23", "Benito Juárez", "0001");
+    private static final MxLocality xochimilcoCenter = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality sanLucas = new MxLocality("0030", "09", "013", "San Lucas Xochimanca", RURAL, 19.24, -99.11);
+    private static final MxLocality leonCenter = new MxLocality("0001", "11", "020", "León de los Aldama", URBANO, 21.12, -101.68);
+
+    private final AddressResolver resolver = AddressResolver.builder()
+            .addStates(List.of(cdmx, guanajuato, quintanaRoo))
+            .addMunicipals(List.of(xochimilco, benitoJuarez, leon, cancun))
+            .addLocalities(List.of(xochimilcoCenter, sanLucas, leonCenter))
+            .build();
+
+    @Test
+    void resolvesFromTheStateDown() {
+        final var match = resolver.resolve(AddressQuery.parse("san lucas xochimanca, XOCHIMILCO, Ciudad de Mexico"));
+        assertThat(match.getKey()).isEqualTo("09/013/0030");
+        assertThat(match.getMunicipal()).isEqualTo(xochimilco);
+        assertThat(match.getConfidence()).isEqualTo(1.0);
+        assertThat(match.isComplete()).isTrue();
+
+        assertThat(resolver.resolve(AddressQuery.parse("Benito Juarez, Q. Roo")).getMunicipal()).isEqualTo(cancun);
+        assertThat(resolver.resolve(AddressQuery.of("leon", null, "gto")).getLocality()).isEqualTo(leonCenter);
+    }
+
+    @Test
+    void confidenceDropsWithTyposAmbiguityAndMisses() {
+        final var typo = resolver.resolve(AddressQuery.parse("Xochimilko, CDMX"));
+        assertThat(typo.getMunicipal()).isEqualTo(xochimilco);
+        assertThat(typo.getConfidence()).isBetween(0.3, 0.7);
+
+        final var ambiguous = resolver.resolve(AddressQuery.parse("Benito Juárez,"));
+        assertThat(ambiguous.getLevel()).isEqualTo(PlaceKind.MUNICIPAL);
+        assertThat(ambiguous.getConfidence()).isEqualTo(AddressResolver.AMBIGUOUS);
+
+        final var wrongState = resolver.resolve(AddressQuery.parse("Xochimilco, Distrito Federal"));
+        assertThat(wrongState.getKey()).isEqualTo("09/013");
+        assertThat(wrongState.getConfidence()).isEqualTo(AddressResolver.UNMATCHED);
+        assertThat(wrongState.isComplete()).isFalse();
+
+        final var nothing = resolver.resolve(AddressQuery.parse("Springfield"));
+        assertThat(nothing.getLevel()).isNull();
+        assertThat(nothing.getConfidence()).isZero();
+    }
+
+    @Test
+    void batchKeepsInputOrder() {
+        final var names = List.of("Xochimilco, CDMX", "León, Guanajuato", "Springfield", "San Lucas, Xochimilco, CDMX");
+        final var keys = new ArrayList<String>();
+        try (var batch = new BatchAddressResolver(resolver, 4, 3)) {
+            final var report = batch.resolve(IntStream.range(0, 1_000).mapToObj(i -> AddressQuery.parse(names.get(i % 4))),
+                    match -> keys.add(match.getKey()));
+            assertThat(report.getRecords()).isEqualTo(1_000);
+            assertThat(report.getComplete()).isEqualTo(750);
+            assertThat(report.getUnmatched()).isEqualTo(250);
+        }
+        assertThat(keys).hasSize(1_000);
+        assertThat(keys.subList(996, 1_000)).containsExactly("09/013", "11/020", null, "09/013/0030");
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.rubenqba.inegi.search;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceSearchIndexTest {
+
+    private static final MxState cdmx = new MxState("09", "Ciudad de México", "CDMX");
+    private static final MxState michoacan = new MxState("16", "Michoacán de Ocampo", "Mich.");
+    private static final MxState nuevoLeon = new MxState("19", "Nuevo León", "NL");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+    private static final MxMunicipal monterrey = new MxMunicipal("039", "19", "Monterrey", "0001");
+    private static final MxMunicipal leon = new MxMunicipal("020", "11", "León", "0001");
+    private static final MxLocality xochimilcoCenter = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality sanLucas = new MxLocality("0030", "09", "013", "San Lucas Xochimanca", RURAL, 19.24, -99.11);
+    private static final MxLocality leonCenter = new MxLocality("0001", "11", "020", "León de los Aldama", URBANO, 21.12, -101.68);
+
+    private final PlaceSearchIndex index = PlaceSearchIndex.builder()
+            .addStates(List.of(cdmx, michoacan, nuevoLeon))
+            .addMunicipals(List.of(xochimilco, monterrey, leon))
+            .addLocalities(List.of(xochimilcoCenter, ixotitla, sanLucas, leonCenter))
+            .build();
+
+    @Test
+    void prefixSearchRanksEveryCandidateWithinTheScope() {
+        final var builder = PlaceSearchIndex.builder().addStates(List.of(cdmx)).addMunicipals(List.of(xochimilco));
+        for (int i = 1; i <= 50; i++) {
+            builder.addLocalities(List.of(new MxLocality(String.format("%04d", i), "09", "013", "San Pedro " + i, RURAL, 19.2, -99.1)));
+        }
+        final var san = new MxLocality("0001", "09", "012", "San", RURAL, 19.3, -99.2);
+        final var many = builder.addLocalities(List.of(san)).build();
+
+        assertThat(many.search("san", 1)).extracting(SearchHit::getPlace).containsExactly(san);
+        assertThat(many.search("san", SearchScope.municipal("09", "012"), 5)).extracting(SearchHit::getPlace).containsExactly(san);
+        assertThat(many.search("san", SearchScope.municipal("09", "013"), 3)).hasSize(3)
+                .allSatisfy(hit -> assertThat(hit.getName()).startsWith("San Pedro"));
+    }
+
+    @Test
+    void prefixSearchRanksByScoreNotByWordOrder() {
+        final var sabinas = new MxLocality("0001", "19", "039", "Sabinas Hidalgo", URBANO, 26.5, -100.2);
+        final var salto = new MxLocality("0002", "19", "039", "Salto de Agua", RURAL, 25.6, -100.3);
+        final var san = new MxLocality("0003", "19", "039", "San", RURAL, 25.7, -100.3);
+        final var few = PlaceSearchIndex.builder().addLocalities(List.of(sabinas, salto, san)).build();
+
+        assertThat(few.search("sa", 1)).extracting(SearchHit::getPlace).containsExactly(san);
+        assertThat(few.search("sa", 2)).extracting(SearchHit::getPlace).containsExactly(san, salto);
+    }
+
+    @Test
+    void normalize() {
+        assertThat(NameNormalizer.normalize("  San José del Cabo (Los Cabos) ")).isEqualTo("san jose del cabo los cabos");
+        assertThat(NameNormalizer.normalize("PEÑÓN")).isEqualTo("penon");
+    }
+
+    @Test
+    void accentInsensitivePrefix() {
+        assertThat(index.search("micho", 5)).extracting(SearchHit::getPlace).containsExactly(michoacan);
+        assertThat(index.search("LEON", 5)).extracting(SearchHit::getPlace).containsExactly(leon, leonCenter, nuevoLeon);
+    }
+
+    @Test
+    void everyWordIsAPrefix() {
+        assertThat(index.search("san xoch", 5)).extracting(SearchHit::getPlace).containsExactly(sanLucas);
+        assertThat(index.search("ciudad mex", 5)).extracting(SearchHit::getPlace).containsExactly(cdmx);
+    }
+
+    @Test
+    void exactMatchesRankFirst() {
+        final var hits = index.search("xochimilco", 5);
+        assertThat(hits).extracting(SearchHit::getPlace).startsWith(xochimilco, xochimilcoCenter);
+        assertThat(hits.get(0).getScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    void typoTolerant() {
+        assertThat(index.search("monterey", 5)).extracting(SearchHit::getPlace).containsExactly(monterrey);
+        assertThat(index.search("ixotilta", 5)).extracting(SearchHit::getPlace).contains(ixotitla);
+    }
+
+    @Test
+    void scoped() {
+        assertThat(index.search("leon", SearchScope.state("11").only(PlaceKind.LOCALITY), 5))
+                .extracting(SearchHit::getPlace).containsExactly(leonCenter);
+        assertThat(index.search("xochimilco", SearchScope.municipal("09", "013"), 5))
+                .extracting(SearchHit::getKind).containsExactly(PlaceKind.MUNICIPAL, PlaceKind.LOCALITY);
+    }
+
+    @Test
+    void limit() {
+        assertThat(index.search("x", 1)).hasSize(1);
+        assertThat(index.search("", 5)).isEmpty();
+    }
+
+    @Test
+    void concurrentSearchesShareThePooledBuffers() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors());
+        try {
+            final var searches = IntStream.range(0, 500)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> index.search(i % 2 == 0 ? "monterey" : "xochimilco", 5), executor))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < searches.size(); i++) {
+                assertThat(searches.get(i).join()).extracting(SearchHit::getPlace)
+                        .startsWith(i % 2 == 0 ? monterrey : xochimilco);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void growsWhileSaturatedAndShrinksOnCongestion() throws InterruptedException {
+        final var limit = new AdaptiveConcurrencyLimit(2, 1, 4, 0.5);
+        for (int i = 0; i < 10; i++) {
+            final int slots = limit.getLimit();
+            for (int j = 0; j < slots; j++) {
+                assertThat(limit.acquire(TIMEOUT)).isTrue();
+            }
+            assertThat(limit.acquire(0)).isFalse();
+            for (int j = 0; j < slots; j++) {
+                limit.release(false);
+            }
+        }
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        assertThat(limit.acquire(TIMEOUT)).isTrue();
+        limit.release(true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+        assertThat(limit.acquire(TIMEOUT)).isTrue();
+        limit.release(true);
+        assertThat(limit.acquire(TIMEOUT)).isTrue();
+        limit.release(true);
+        assertThat(limit.getLimit()).isEqualTo(1);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void unsaturatedSuccessesDoNotGrow() throws InterruptedException {
+        final var limit = new AdaptiveConcurrencyLimit(4, 1, 16, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.acquire(TIMEOUT)).isTrue();
+            limit.release(false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void waitersAreServedInArrivalOrder() throws InterruptedException {
+        final var limit = new AdaptiveConcurrencyLimit(1, 1, 1, 0.5);
+        assertThat(limit.acquire(TIMEOUT)).isTrue();
+        final List<Integer> served = new CopyOnWriteArrayList<>();
+        final var threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            final int id = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    if (limit.acquire(TIMEOUT)) {
+                        served.add(id);
+                        limit.release(false);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[i].start();
+            while (limit.getQueued() <= i) {
+                Thread.onSpinWait();
+            }
+        }
+        assertThat(limit.acquire(0)).isFalse();
+
+        limit.release(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(served).containsExactly(0, 1, 2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxState;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncInegiServiceImplTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final Executor executor = command -> {
+        completions.incrementAndGet();
+        command.run();
+    };
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicReference<InegiCallListener.Outcome> lastOutcome = new AtomicReference<>();
+    private AsyncInegiServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).build();
+        service = new AsyncInegiServiceImpl(new InegiServiceImpl(client, new InegiCallListener() {
+            @Override
+            public void callFinished(InegiOperation operation, Outcome outcome, long nanos) {
+                lastOutcome.set(outcome);
+                finished.countDown();
+            }
+        }), executor);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void completesOnTheCompletionExecutor() throws Exception {
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        assertThat(service.getMxStates().get(5, TimeUnit.SECONDS)).hasSize(5);
+        assertThat(completions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void serverAndNetworkErrorsFallBack() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        assertThat(service.getMxStates().get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(service.getMxState("09").get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(completions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void decodingErrorsFallBack() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"datos\":[{\"cve_agee\":\"09\",\"cve_agem\":\"013\",\"cve_loc\":\"0096\","
+                + "\"nom_loc\":\"Ixotitla\",\"ambito\":\"MIXTO\"}],\"numReg\":1}"));
+
+        assertThat(service.getMxLocality("09", "013", "0096").get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(lastOutcome).hasValue(InegiCallListener.Outcome.ERROR);
+        assertThat(completions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingTheFutureCancelsTheCall() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        final var future = service.getMxMunicipals(new MxState("09", "Ciudad de México", "CDMX"));
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(future.cancel(true)).isTrue();
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future).isCancelled();
+    }
+}
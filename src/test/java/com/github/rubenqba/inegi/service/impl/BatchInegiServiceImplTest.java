@@ -0,0 +1,137 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.LocalityKey;
+import com.github.rubenqba.inegi.domain.MunicipalKey;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInegiServiceImplTest {
+
+    private static final MxMunicipal tlahuac = new MxMunicipal("011", "09", "Tláhuac", "0001");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+    private static final MxLocality xochimilcoCenter = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality disabled = new MxLocality("0127", "09", "013", "Ninguno", RURAL, 19.21, -99.07);
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    /**
+     * list requests answer empty, like the services do when INEGI fails
+     */
+    private volatile boolean listsFail;
+
+    private final InegiService catalog = new InegiService() {
+        @Override
+        public List<MxState> getMxStates() {
+            return List.of();
+        }
+
+        @Override
+        public Optional<MxState> getMxState(String state) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<MxMunicipal> getMxMunicipals(MxState state) {
+            listCalls.incrementAndGet();
+            return "09".equals(state.getId()) && !listsFail ? List.of(tlahuac, xochimilco) : List.of();
+        }
+
+        @Override
+        public Optional<MxMunicipal> getMxMunicipal(String state, String municipal) {
+            singleCalls.incrementAndGet();
+            return List.of(tlahuac, xochimilco).stream().filter(m -> m.getState().equals(state) && m.getId().equals(municipal)).findFirst();
+        }
+
+        @Override
+        public List<MxLocality> getMxLocalities(MxMunicipal municipal) {
+            listCalls.incrementAndGet();
+            return "013".equals(municipal.getId()) && !listsFail ? List.of(xochimilcoCenter, ixotitla) : List.of();
+        }
+
+        @Override
+        public Optional<MxLocality> getMxLocality(String state, String municipal, String locality) {
+            singleCalls.incrementAndGet();
+            return List.of(xochimilcoCenter, ixotitla, disabled).stream()
+                    .filter(l -> l.getState().equals(state) && l.getMunicipal().equals(municipal) && l.getId().equals(locality))
+                    .findFirst();
+        }
+    };
+
+    private final BatchInegiServiceImpl service = new BatchInegiServiceImpl(catalog, new InegiProperties.Batch());
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void localitiesAreGroupedByMunicipal() {
+        final var result = service.getMxLocalities(List.of(
+                new LocalityKey("09", "013", "0096"),
+                new LocalityKey("09", "013", "0001"),
+                new LocalityKey("09", "013", "0096"),
+                new LocalityKey("09", "011", "0001")));
+
+        assertThat(result).containsExactly(
+                entry(new LocalityKey("09", "013", "0096"), Optional.of(ixotitla)),
+                entry(new LocalityKey("09", "013", "0001"), Optional.of(xochimilcoCenter)),
+                entry(new LocalityKey("09", "011", "0001"), Optional.empty()));
+        assertThat(listCalls).hasValue(1);
+        assertThat(singleCalls).hasValue(1);
+    }
+
+    @Test
+    void localitiesMissingFromListingAreLookedUp() {
+        final var result = service.getMxLocalities(List.of(
+                new LocalityKey("09", "013", "0096"),
+                new LocalityKey("09", "013", "0127"),
+                new LocalityKey("09", "013", "XXXX")));
+
+        assertThat(result.get(new LocalityKey("09", "013", "0127"))).contains(disabled);
+        assertThat(result.get(new LocalityKey("09", "013", "XXXX"))).isEmpty();
+        assertThat(singleCalls).hasValue(2);
+    }
+
+    @Test
+    void municipalsAreGroupedByState() {
+        final var result = service.getMxMunicipals(List.of(
+                new MunicipalKey("09", "013"),
+                new MunicipalKey("09", "011"),
+                new MunicipalKey("09", "ZZZ")));
+
+        assertThat(result.values()).containsExactly(Optional.of(xochimilco), Optional.of(tlahuac), Optional.empty());
+        assertThat(listCalls).hasValue(1);
+        assertThat(singleCalls).hasValue(0);
+    }
+
+    @Test
+    void failedListsFallBackToSingleLookups() {
+        listsFail = true;
+        final var localities = service.getMxLocalities(List.of(
+                new LocalityKey("09", "013", "0096"),
+                new LocalityKey("09", "013", "0001")));
+        final var municipals = service.getMxMunicipals(List.of(
+                new MunicipalKey("09", "013"),
+                new MunicipalKey("09", "011")));
+
+        assertThat(localities.values()).containsExactly(Optional.of(ixotitla), Optional.of(xochimilcoCenter));
+        assertThat(municipals.values()).containsExactly(Optional.of(xochimilco), Optional.of(tlahuac));
+        assertThat(listCalls).hasValue(2);
+        assertThat(singleCalls).hasValue(4);
+    }
+}
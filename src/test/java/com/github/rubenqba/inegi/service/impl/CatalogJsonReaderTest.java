@@ -0,0 +1,77 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogJsonReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private <T> List<T> readAll(InputStream input, CatalogJsonReader.RecordMapper<T> mapper) throws IOException {
+        final List<T> records = new ArrayList<>();
+        try (var reader = new CatalogJsonReader<>(objectMapper, input, mapper)) {
+            for (var record = reader.next(); Objects.nonNull(record); record = reader.next()) {
+                records.add(record);
+            }
+            assertThat(reader.getMetadatos().getFechaActualizacion()).isEqualTo("2020-03-01");
+        }
+        return records;
+    }
+
+    private InputStream fixture(String path) {
+        return getClass().getResourceAsStream("/inegi/" + path);
+    }
+
+    @Test
+    void states() throws IOException {
+        assertThat(readAll(fixture("mgee/all.json"), CatalogJsonReader.STATE))
+                .hasSize(5)
+                .contains(new MxState("26", "Sonora", "Son."));
+    }
+
+    @Test
+    void municipals() throws IOException {
+        assertThat(readAll(fixture("mgem/09.json"), CatalogJsonReader.MUNICIPAL))
+                .containsExactly(new MxMunicipal("011", "09", "Tláhuac", "0001"), new MxMunicipal("013", "09", "Xochimilco", "0001"));
+    }
+
+    @Test
+    void enabledLocalities() throws IOException {
+        assertThat(readAll(fixture("localidades/09/013.json"), CatalogJsonReader.ENABLED_LOCALITY))
+                .containsExactly(
+                        new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031),
+                        new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950));
+    }
+
+    @Test
+    void metadataBeforeRecords() throws IOException {
+        final var json = "{\"numReg\":1,\"metadatos\":{\"fechaActualizacion\":\"2020-03-01\"},\"extra\":[1,{\"a\":2}],"
+                + "\"datos\":[{\"cve_agee\":\"26\",\"nom_agee\":\"Sonora\",\"nom_abrev\":\"Son.\",\"unknown\":{\"x\":[1]}}]}";
+        assertThat(readAll(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), CatalogJsonReader.STATE))
+                .containsExactly(new MxState("26", "Sonora", "Son."));
+    }
+
+    @Test
+    void missingRecords() throws IOException {
+        final var json = "{\"result\":\"error\",\"mensaje\":\"not found\"}";
+        try (var reader = new CatalogJsonReader<>(objectMapper, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), CatalogJsonReader.STATE)) {
+            assertThat(reader.next()).isNull();
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
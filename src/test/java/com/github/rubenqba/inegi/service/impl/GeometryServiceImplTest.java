@@ -0,0 +1,58 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.geo.ReverseGeocoder;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeometryServiceImplTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private GeometryServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).build();
+        service = new GeometryServiceImpl(new InegiServiceImpl(client));
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void municipalBoundaries() throws InterruptedException {
+        server.enqueue(new MockResponse().setBody(fixture("inegi/geo/mgem/09.json")));
+
+        final var boundaries = service.getMxMunicipalBoundaries(new MxState("09", "Ciudad de México", "CDMX"));
+        assertThat(server.takeRequest().getPath()).isEqualTo("/wscatgeo/geo/mgem/09");
+        assertThat(boundaries).extracting(boundary -> boundary.getArea().getName()).containsExactly("Xochimilco", "Cuauhtémoc");
+
+        final var cuauhtemoc = boundaries.get(1).getGeometry();
+        assertThat(cuauhtemoc.contains(19.41, -99.17)).isTrue();
+        assertThat(cuauhtemoc.contains(19.43, -99.15)).as("inside the hole").isFalse();
+        assertThat(cuauhtemoc.contains(19.401, -99.085)).as("second polygon").isTrue();
+
+        final var geocoder = ReverseGeocoder.of(List.of(), boundaries);
+        assertThat(geocoder.municipal(19.25, -99.10)).get().extracting("id").isEqualTo("013");
+        assertThat(geocoder.municipal(19.35, -99.10)).isEmpty();
+    }
+
+    @Test
+    void missingBoundary() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        assertThat(service.getMxStateBoundary("99")).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpCachingTest {
+
+    private final MockWebServer server = new MockWebServer();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.shutdown();
+    }
+
+    private OkHttpClient client(Duration maxAge) {
+        final var settings = new InegiProperties.Http();
+        settings.getDiskCache().setDirectory(directory);
+        settings.getDiskCache().setMaxAge(maxAge);
+        settings.setCleartext(true);
+        return HttpClientFactory.create(settings).newBuilder().addInterceptor(TestServers.redirectTo(server)).build();
+    }
+
+    @Test
+    void restartedClientWarmsFromDisk() throws IOException {
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+        final var first = client(Duration.ofHours(1));
+        assertThat(new InegiServiceImpl(first).getMxStates()).hasSize(5);
+        first.cache().close();
+
+        final var restarted = client(Duration.ofHours(1));
+        assertThat(new InegiServiceImpl(restarted).getMxStates()).hasSize(5);
+        assertThat(server.getRequestCount()).isEqualTo(1);
+        assertThat(restarted.cache().hitCount()).isEqualTo(1);
+        restarted.cache().close();
+    }
+
+    @Test
+    void staleResponsesWhileInegiFails() throws IOException {
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        final var client = client(Duration.ZERO);
+        final var service = new InegiServiceImpl(client);
+
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        server.shutdown();
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(service.getMxState("09")).isEmpty();
+        client.cache().close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalCatalogServiceTest {
+
+    private static final MxState cdmx = new MxState("09", "Ciudad de México", "CDMX");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private volatile boolean validators = true;
+    private volatile CountDownLatch slowMunicipals = new CountDownLatch(0);
+    private IncrementalCatalogService catalog;
+
+    @BeforeEach
+    void start() throws IOException {
+        bodies.put("/wscatgeo/mgee", fixture("inegi/mgee/all.json"));
+        bodies.put("/wscatgeo/mgem/09", fixture("inegi/mgem/09.json"));
+        bodies.put("/wscatgeo/localidades/09/013", fixture("inegi/localidades/09/013.json"));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("/wscatgeo/mgem/09".equals(request.getPath())) {
+                    try {
+                        slowMunicipals.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                final var body = bodies.get(request.getPath());
+                if (Objects.isNull(body)) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                final var etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+                if (validators && etag.equals(request.getHeader("If-None-Match"))) {
+                    return new MockResponse().setResponseCode(304);
+                }
+                final var response = new MockResponse().setBody(body);
+                return validators ? response.setHeader("ETag", etag) : response;
+            }
+        });
+        server.start();
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).build();
+        catalog = new IncrementalCatalogService(new InegiServiceImpl(client));
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        catalog.close();
+        server.shutdown();
+    }
+
+    private void load() {
+        assertThat(catalog.getMxStates()).hasSize(5);
+        assertThat(catalog.getMxMunicipals(cdmx)).hasSize(2);
+        assertThat(catalog.getMxLocalities(xochimilco)).hasSize(2);
+        assertThat(catalog.getMxLocality("09", "013", "0096")).isPresent();
+        assertThat(server.getRequestCount()).isEqualTo(3);
+        assertThat(catalog.getCatalogUpdate()).contains("2020-03-01");
+    }
+
+    @Test
+    void unchangedCatalogCostsOneRequest() {
+        load();
+        final var report = catalog.refresh();
+        assertThat(report.getRequests()).isEqualTo(1);
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getChanged()).isEmpty();
+        assertThat(server.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void onlyChangedListsAreDecoded() {
+        load();
+        bodies.computeIfPresent("/wscatgeo/mgee", (path, body) -> body.replace("2020-03-01", "2020-06-01"));
+        bodies.computeIfPresent("/wscatgeo/localidades/09/013", (path, body) -> body.replace("Ixotitla", "Ixotitla Nueva"));
+
+        final var report = catalog.refresh();
+        assertThat(report.getRequests()).isEqualTo(3);
+        assertThat(report.getChanged()).containsExactly("localidades/09/013", "mgee");
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getCatalogUpdate()).isEqualTo("2020-06-01");
+        assertThat(catalog.getMxLocality("09", "013", "0096")).get().extracting("name").isEqualTo("Ixotitla Nueva");
+    }
+
+    @Test
+    void concurrentLoadsShareOneDownloadAndDoNotBlockRefresh() throws Exception {
+        assertThat(catalog.getMxStates()).hasSize(5);
+        slowMunicipals = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<MxMunicipal>>> loads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                loads.add(executor.submit(() -> catalog.getMxMunicipals(cdmx)));
+            }
+            assertThat(server.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/wscatgeo/mgee");
+            assertThat(server.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/wscatgeo/mgem/09");
+
+            assertThat(catalog.refresh().getRequests()).isEqualTo(1);
+            slowMunicipals.countDown();
+            for (var load : loads) {
+                assertThat(load.get(5, TimeUnit.SECONDS)).hasSize(2);
+            }
+            assertThat(server.getRequestCount()).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void entriesMissingFromTheListsAreLookedUp() {
+        bodies.put("/wscatgeo/localidades/090130127", "{\"datos\":[{\"cvegeo\":\"090130127\",\"cve_agee\":\"09\","
+                + "\"cve_agem\":\"013\",\"cve_loc\":\"0127\",\"nom_loc\":\"Ninguno\",\"ambito\":\"RURAL\",\"estatus\":false}],"
+                + "\"numReg\":1}");
+        assertThat(catalog.getMxLocalities(xochimilco)).extracting(MxLocality::getId).doesNotContain("0127");
+
+        assertThat(catalog.getMxLocality("09", "013", "0127")).get().extracting(MxLocality::getName).isEqualTo("Ninguno");
+        assertThat(catalog.getMxMunicipal("09", "099")).isEmpty();
+        assertThat(catalog.getMxMunicipal("09", "013")).get().extracting(MxMunicipal::getName).isEqualTo("Xochimilco");
+        assertThat(server.getRequestCount()).isEqualTo(5);
+    }
+
+    @Test
+    void contentDigestWithoutValidators() {
+        validators = false;
+        load();
+        final var report = catalog.refresh(true);
+        assertThat(report.getRequests()).isEqualTo(3);
+        assertThat(report.getUnchanged()).isEqualTo(3);
+        assertThat(report.getChanged()).isEmpty();
+    }
+}
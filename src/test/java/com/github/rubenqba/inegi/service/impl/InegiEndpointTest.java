@@ -0,0 +1,27 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InegiEndpointTest {
+
+    @Test
+    void appendsTheKeysToTheEndpointPath() {
+        final var codec = new InegiServiceImpl(new OkHttpClient());
+        assertThat(codec.mxStatesRequest().url()).hasToString("https://gaia.inegi.org.mx/wscatgeo/mgee");
+        assertThat(codec.mxLocalityRequest("09", "013", "0096").url()).hasToString("https://gaia.inegi.org.mx/wscatgeo/localidades/090130096");
+        assertThat(codec.mxLocalityRequest("09", "013", "0096").tag(InegiOperation.class)).isEqualTo(InegiOperation.LOCALITY);
+
+        final var boundaries = new InegiEndpoint(HttpUrl.get("http://localhost:8089/wscatgeo/"), InegiOperation.MUNICIPAL_BOUNDARY);
+        assertThat(boundaries.request("09", "013").url()).hasToString("http://localhost:8089/wscatgeo/geo/mgem/09/013");
+    }
+
+    @Test
+    void keysAreSingleSegments() {
+        final var codec = new InegiServiceImpl(new OkHttpClient());
+        assertThat(codec.mxStateRequest("../09").url().encodedPath()).isEqualTo("/wscatgeo/mgee/..%2F09");
+    }
+}
@@ -4,15 +4,33 @@ import com.github.rubenqba.inegi.domain.MxLocality;
 import com.github.rubenqba.inegi.domain.MxMunicipal;
 import com.github.rubenqba.inegi.domain.MxState;
 import com.github.rubenqba.inegi.service.InegiService;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.ForwardingSource;
+import okio.Okio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
 import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class InegiServiceImplTest {
 
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
     private final InegiService service = new InegiServiceImpl();
 
     @BeforeEach
@@ -105,4 +123,97 @@ class InegiServiceImplTest {
                         }
                 );
     }
+
+    @Test
+    void unexpectedErrorsFallBack() {
+        final List<InegiCallListener.Outcome> outcomes = new CopyOnWriteArrayList<>();
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    throw new IllegalStateException("unexpected");
+                })
+                .build();
+        final var failing = new InegiServiceImpl(client, new InegiCallListener() {
+            @Override
+            public void callFinished(InegiOperation operation, Outcome outcome, long nanos) {
+                outcomes.add(outcome);
+            }
+        });
+
+        assertThat(failing.getMxStates()).isEmpty();
+        assertThat(failing.getMxMunicipal("09", "013")).isEmpty();
+        assertThat(outcomes).containsExactly(InegiCallListener.Outcome.ERROR, InegiCallListener.Outcome.ERROR);
+    }
+
+    /**
+     * @return service whose responses come from the server and record when their body is closed
+     */
+    private static InegiServiceImpl streaming(MockWebServer server, AtomicBoolean closed, List<InegiCallListener.Outcome> outcomes) {
+        final Interceptor closing = chain -> {
+            final var response = chain.proceed(chain.request());
+            final var body = response.body();
+            final var source = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public void close() throws IOException {
+                    closed.set(true);
+                    super.close();
+                }
+            });
+            return response.newBuilder().body(ResponseBody.create(body.contentType(), body.contentLength(), source)).build();
+        };
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).addInterceptor(closing).build();
+        return new InegiServiceImpl(client, new InegiCallListener() {
+            @Override
+            public void callFinished(InegiOperation operation, Outcome outcome, long nanos) {
+                outcomes.add(outcome);
+            }
+        });
+    }
+
+    @Test
+    void streamDecodesWhileReading() throws IOException {
+        final var closed = new AtomicBoolean();
+        final List<InegiCallListener.Outcome> outcomes = new CopyOnWriteArrayList<>();
+        final var body = fixture("inegi/localidades/09/013.json");
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(body.substring(0, body.indexOf(",{\"cvegeo\":\"090130096\"")) + ",{broken"));
+
+            try (var localities = streaming(server, closed, outcomes).streamMxLocalities(xochimilco)) {
+                final var iterator = localities.iterator();
+                assertThat(iterator.next().getId()).isEqualTo("0001");
+                assertThatThrownBy(iterator::hasNext).isInstanceOf(UncheckedIOException.class);
+                assertThat(closed).isFalse();
+            }
+            assertThat(closed).isTrue();
+            assertThat(outcomes).containsExactly(InegiCallListener.Outcome.ERROR);
+        }
+    }
+
+    @Test
+    void earlyTerminationClosesTheResponse() throws IOException {
+        final var closed = new AtomicBoolean();
+        final List<InegiCallListener.Outcome> outcomes = new CopyOnWriteArrayList<>();
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(fixture("inegi/localidades/09/013.json")));
+            server.enqueue(new MockResponse().setBody(fixture("inegi/localidades/09/013.json")));
+            final var streaming = streaming(server, closed, outcomes);
+
+            try (var localities = streaming.streamMxLocalities(xochimilco)) {
+                assertThat(localities.findFirst()).get().extracting(MxLocality::getId).isEqualTo("0001");
+                assertThat(closed).isFalse();
+                assertThat(outcomes).isEmpty();
+            }
+            assertThat(closed).isTrue();
+            assertThat(outcomes).containsExactly(InegiCallListener.Outcome.SUCCESS);
+
+            closed.set(false);
+            final List<String> seen = new ArrayList<>();
+            assertThatThrownBy(() -> streaming.forEachMxLocality(xochimilco, locality -> {
+                seen.add(locality.getId());
+                throw new IllegalStateException("stop");
+            })).hasMessage("stop");
+            assertThat(seen).containsExactly("0001");
+            assertThat(closed).isTrue();
+            assertThat(outcomes).hasSize(2);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.service.InegiService;
+import com.github.rubenqba.inegi.service.ResilientInegiService;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyFilteringInegiServiceTest {
+
+    /**
+     * catalog with the single municipal 09/013 and no localities, counting the calls it answers
+     */
+    private static class CountingCatalog implements InegiService {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final MxState state = new MxState("09", "Ciudad de México", "CDMX");
+        private final MxMunicipal municipal = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
+        @Override
+        public List<MxState> getMxStates() {
+            calls.incrementAndGet();
+            return Collections.singletonList(state);
+        }
+
+        @Override
+        public Optional<MxState> getMxState(String id) {
+            calls.incrementAndGet();
+            return Optional.of(state).filter(s -> s.getId().equals(id));
+        }
+
+        @Override
+        public List<MxMunicipal> getMxMunicipals(MxState parent) {
+            calls.incrementAndGet();
+            return parent.getId().equals("09") ? Collections.singletonList(municipal) : Collections.emptyList();
+        }
+
+        @Override
+        public Optional<MxMunicipal> getMxMunicipal(String parent, String id) {
+            calls.incrementAndGet();
+            return Optional.of(municipal).filter(m -> m.getState().equals(parent) && m.getId().equals(id));
+        }
+
+        @Override
+        public List<MxLocality> getMxLocalities(MxMunicipal parent) {
+            calls.incrementAndGet();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<MxLocality> getMxLocality(String parent, String mun, String id) {
+            calls.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    private final CountingCatalog catalog = new CountingCatalog();
+    private final KeyFilteringInegiService service = new KeyFilteringInegiService(catalog, new InegiProperties.KeyFilter());
+
+    @Test
+    void malformedKeysAreRejected() {
+        assertThat(service.getMxState("99")).isEmpty();
+        assertThat(service.getMxMunicipal("09", "13")).isEmpty();
+        assertThat(service.getMxLocality("09", "013", "x")).isEmpty();
+        assertThat(service.getMxMunicipals(new MxState("40", "", null))).isEmpty();
+        assertThat(catalog.calls).hasValue(0);
+        assertThat(service.getRejected()).isEqualTo(4);
+    }
+
+    @Test
+    void primedFilterRejectsUnknownMunicipals() {
+        service.prime();
+        assertThat(catalog.calls).hasValue(2);
+
+        assertThat(service.getMxMunicipal("09", "013")).isPresent();
+        assertThat(service.getMxMunicipal("09", "014")).isEmpty();
+        assertThat(service.getMxState("15")).isEmpty();
+        assertThat(service.getMxLocalities(new MxMunicipal("001", "09", "", null))).isEmpty();
+        assertThat(catalog.calls).hasValue(3);
+    }
+
+    /**
+     * classifies the empty answers of a catalog as not found, as if INEGI had answered them
+     */
+    private static ResilientInegiService confirming(InegiService catalog) {
+        return new ResilientInegiService() {
+            @Override
+            public InegiResult<List<MxState>> getMxStates() {
+                return InegiResult.found(catalog.getMxStates());
+            }
+
+            @Override
+            public InegiResult<MxState> getMxState(String state) {
+                return catalog.getMxState(state).map(InegiResult::found).orElseGet(() -> InegiResult.notFound(null));
+            }
+
+            @Override
+            public InegiResult<List<MxMunicipal>> getMxMunicipals(MxState state) {
+                return InegiResult.found(catalog.getMxMunicipals(state));
+            }
+
+            @Override
+            public InegiResult<MxMunicipal> getMxMunicipal(String state, String municipal) {
+                return catalog.getMxMunicipal(state, municipal).map(InegiResult::found).orElseGet(() -> InegiResult.notFound(null));
+            }
+
+            @Override
+            public InegiResult<List<MxLocality>> getMxLocalities(MxMunicipal municipal) {
+                return InegiResult.found(catalog.getMxLocalities(municipal));
+            }
+
+            @Override
+            public InegiResult<MxLocality> getMxLocality(String state, String municipal, String locality) {
+                return catalog.getMxLocality(state, municipal, locality).map(InegiResult::found).orElseGet(() -> InegiResult.notFound(null));
+            }
+        };
+    }
+
+    @Test
+    void confirmedNotFoundKeysAreRemembered() {
+        final var confirmed = new KeyFilteringInegiService(catalog, confirming(catalog), new InegiProperties.KeyFilter());
+        assertThat(confirmed.getMxLocality("09", "013", "0001")).isEmpty();
+        assertThat(confirmed.getMxLocality("09", "013", "0001")).isEmpty();
+        assertThat(confirmed.getMxLocality("09", "013", "0002")).isEmpty();
+        // one lookup per key, through the confirmation service only
+        assertThat(catalog.calls).hasValue(2);
+        assertThat(confirmed.getRejected()).isEqualTo(1);
+
+        assertThat(service.getMxLocality("09", "013", "0001")).isEmpty();
+        assertThat(service.getMxLocality("09", "013", "0001")).isEmpty();
+        assertThat(catalog.calls).hasValue(4);
+    }
+
+    @Test
+    void failuresAreNotRemembered() throws IOException {
+        final var settings = new InegiProperties.Resilience();
+        settings.setMaxAttempts(1);
+        settings.setHedgeDelay(Duration.ZERO);
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.enqueue(new MockResponse().setBody("{\"datos\":{\"cve_agee\":\"09\",\"nom_agee\":\"Ciudad de México\",\"nom_abrev\":\"CDMX\"},"
+                    + "\"metadatos\":{\"fechaActualizacion\":\"2020-03-01\"},\"numReg\":1}"));
+            server.start();
+            final var codec = new InegiServiceImpl(new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).build());
+            try (var resilient = new ResilientInegiServiceImpl(codec, settings)) {
+                final var filtered = new KeyFilteringInegiService(codec, resilient, new InegiProperties.KeyFilter());
+
+                assertThat(filtered.getMxState("09")).isEmpty();
+                assertThat(filtered.getMxState("09")).map(MxState::getName).hasValue("Ciudad de México");
+                assertThat(filtered.getRejected()).isZero();
+                assertThat(server.getRequestCount()).isEqualTo(2);
+            }
+        }
+    }
+}
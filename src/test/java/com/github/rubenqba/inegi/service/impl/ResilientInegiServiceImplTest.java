@@ -0,0 +1,195 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.service.InegiResult;
+import com.github.rubenqba.inegi.store.InMemoryCatalogStore;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientInegiServiceImplTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final InegiProperties.Resilience settings = new InegiProperties.Resilience();
+    private ResilientInegiServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+        settings.setHedgeDelay(Duration.ZERO);
+        settings.setBackoff(Duration.ofMillis(10));
+        settings.setMaxBackoff(Duration.ofMillis(20));
+        settings.setAttemptTimeout(Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (Objects.nonNull(service)) {
+            service.close();
+        }
+        server.shutdown();
+    }
+
+    private ResilientInegiServiceImpl service() {
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).build();
+        service = new ResilientInegiServiceImpl(new InegiServiceImpl(client), settings);
+        return service;
+    }
+
+    @Test
+    void notFoundIsNotUnavailable() {
+        settings.setMaxAttempts(1);
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        final var inegi = service();
+
+        assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.NOT_FOUND);
+        final var unavailable = inegi.getMxStates();
+        assertThat(unavailable.getStatus()).isEqualTo(InegiResult.Status.UNAVAILABLE);
+        assertThat(unavailable.isAvailable()).isFalse();
+        assertThat(unavailable.toOptional()).isEmpty();
+    }
+
+    @Test
+    void clientErrorsAreRejectedWithoutOpeningTheCircuit() {
+        settings.setFailureThreshold(1);
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+        server.enqueue(new MockResponse().setResponseCode(403));
+        server.enqueue(new MockResponse().setBody("{\"datos\":[],\"numReg\":0}"));
+        final var inegi = service();
+
+        assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.FOUND);
+        assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.UNAVAILABLE);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(inegi.getBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void undecodableAnswersAreRejectedWithoutRetries() {
+        settings.setFailureThreshold(1);
+        server.enqueue(new MockResponse().setBody(fixture("inegi/localidades/09/013.json")));
+        server.enqueue(new MockResponse().setBody("{\"datos\":[{\"cve_agee\":\"09\",\"cve_agem\":\"013\",\"cve_loc\":\"0096\","
+                + "\"nom_loc\":\"Ixotitla\",\"ambito\":\"MIXTO\",\"estatus\":true}],\"numReg\":1}"));
+        final var inegi = service();
+        final var xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+
+        assertThat(inegi.getMxLocalities(xochimilco).getStatus()).isEqualTo(InegiResult.Status.FOUND);
+        assertThat(inegi.getMxLocalities(xochimilco).getStatus()).isEqualTo(InegiResult.Status.UNAVAILABLE);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(inegi.getBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void storedResponsesAnswerWithoutCallingInegi() {
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+        final var store = new InMemoryCatalogStore(Duration.ofHours(1), 100);
+        final var baseUrl = server.url("/wscatgeo/").toString();
+        try (var first = new ResilientInegiServiceImpl(new InegiServiceImpl(new OkHttpClient(), InegiCallListener.NONE, baseUrl, store), settings);
+             var second = new ResilientInegiServiceImpl(new InegiServiceImpl(new OkHttpClient(), InegiCallListener.NONE, baseUrl, store), settings)) {
+            assertThat(first.getMxStates().getValue()).hasSize(5);
+            final var stored = second.getMxStates();
+            assertThat(stored.getStatus()).isEqualTo(InegiResult.Status.FOUND);
+            assertThat(stored.getValue()).hasSize(5);
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void interruptedLookupsDoNotCountAsFailures() {
+        settings.setFailureThreshold(1);
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        final var inegi = service();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.UNAVAILABLE);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+        assertThat(inegi.getBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void retriesServerErrors() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        final var states = service().getMxStates();
+        assertThat(states.getStatus()).isEqualTo(InegiResult.Status.FOUND);
+        assertThat(states.getValue()).hasSize(5);
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void hedgedRequestAnswersFirst() {
+        settings.setHedgeDelay(Duration.ofMillis(100));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        final long started = System.nanoTime();
+        assertThat(service().getMxStates().getValue()).hasSize(5);
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void staleValueWhileUnavailable() {
+        settings.setMaxAttempts(2);
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        final var inegi = service();
+
+        assertThat(inegi.getMxStates().getStatus()).isEqualTo(InegiResult.Status.FOUND);
+        final var stale = inegi.getMxStates();
+        assertThat(stale.getStatus()).isEqualTo(InegiResult.Status.STALE);
+        assertThat(stale.getValue()).hasSize(5);
+        assertThat(inegi.asInegiService().getMxStates()).hasSize(5);
+    }
+
+    @Test
+    void openCircuitFailsFast() {
+        settings.setMaxAttempts(1);
+        settings.setFailureThreshold(2);
+        settings.setOpenDuration(Duration.ofMinutes(1));
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        final var inegi = service();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(inegi.getMxState("09").getStatus()).isEqualTo(InegiResult.Status.UNAVAILABLE);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(inegi.getBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(inegi.getBreaker().getRejected()).isEqualTo(3);
+    }
+
+    @Test
+    void backoffIsCappedAndJittered() {
+        settings.setBackoff(Duration.ofMillis(100));
+        settings.setMaxBackoff(Duration.ofMillis(1_000));
+        final var inegi = service();
+
+        assertThat(inegi.backoff(1)).isBetween(50L, 100L);
+        assertThat(inegi.backoff(3)).isBetween(200L, 400L);
+        assertThat(inegi.backoff(40)).isBetween(500L, 1_000L);
+    }
+}
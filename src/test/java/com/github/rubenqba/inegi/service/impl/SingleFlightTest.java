@@ -0,0 +1,77 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        final var loads = new AtomicInteger();
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            final var first = CompletableFuture.supplyAsync(() -> singleFlight.execute("mgee", () -> {
+                started.countDown();
+                await(release);
+                return "states-" + loads.incrementAndGet();
+            }), pool);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            final List<CompletableFuture<String>> others = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                others.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("mgee", () -> "states-" + loads.incrementAndGet()), pool));
+            }
+            while (singleFlight.getCoalesced() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("states-1");
+            for (var other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("states-1");
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(singleFlight.getExecuted()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void finishedExecutionsAreNotReused() {
+        assertThat(singleFlight.execute("mgee", () -> "a")).isEqualTo("a");
+        assertThat(singleFlight.execute("mgee", () -> "b")).isEqualTo("b");
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    @Test
+    void failuresArePropagated() {
+        assertThatThrownBy(() -> singleFlight.execute("mgee", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("mgee", () -> "a")).isEqualTo("a");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
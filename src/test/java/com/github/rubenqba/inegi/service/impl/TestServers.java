@@ -0,0 +1,32 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import okhttp3.Interceptor;
+import okhttp3.mockwebserver.MockWebServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+final class TestServers {
+
+    private TestServers() {
+    }
+
+    /**
+     * @return interceptor sending every INEGI request to the mock server instead
+     */
+    static Interceptor redirectTo(MockWebServer server) {
+        return chain -> chain.proceed(chain.request().newBuilder()
+                .url(chain.request().url().newBuilder().scheme("http").host(server.getHostName()).port(server.getPort()).build())
+                .build());
+    }
+
+    static String fixture(String name) {
+        try (var input = TestServers.class.getClassLoader().getResourceAsStream(name)) {
+            return new String(Objects.requireNonNull(input).readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.rubenqba.inegi.service.impl;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.MxState;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.rubenqba.inegi.service.impl.TestServers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficShaperTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final InegiProperties.RateLimit settings = new InegiProperties.RateLimit();
+
+    @BeforeEach
+    void start() throws IOException {
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.shutdown();
+    }
+
+    private InegiServiceImpl service(TrafficShaper shaper) {
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(TestServers.redirectTo(server))
+                .addInterceptor(shaper)
+                .build();
+        return new InegiServiceImpl(client);
+    }
+
+    @Test
+    void tokenBucketAllowsBurstsThenPacesRequests() {
+        final var now = new AtomicLong();
+        final var bucket = new TokenBucket(10, 2, now::get);
+        final long interval = TimeUnit.MILLISECONDS.toNanos(100);
+
+        assertThat(bucket.tryReserve(0)).isZero();
+        assertThat(bucket.tryReserve(0)).isZero();
+        assertThat(bucket.tryReserve(0)).isEqualTo(-1);
+        assertThat(bucket.tryReserve(interval)).isEqualTo(interval);
+        now.addAndGet(interval * 10);
+        assertThat(bucket.tryReserve(0)).isZero();
+
+        bucket.pause(Duration.ofSeconds(1));
+        assertThat(bucket.tryReserve(Long.MAX_VALUE)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void endpointRateIsRespected() {
+        settings.setRates(Map.of("mgem", 20.0));
+        settings.setBurst(1);
+        final var shaper = new TrafficShaper(settings);
+        final var service = service(shaper);
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setBody(fixture("inegi/mgem/09.json")));
+        }
+
+        final long started = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.getMxMunicipals(new MxState("09", "Ciudad de México", "CDMX"))).hasSize(2);
+        }
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void throttlingShrinksTheLimitAndHoldsTheEndpoint() {
+        settings.setInitialLimit(8);
+        settings.setBackoffRatio(0.5);
+        final var shaper = new TrafficShaper(settings);
+        final var service = service(shaper);
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        assertThat(service.getMxStates()).isEmpty();
+        assertThat(shaper.getLimit()).isEqualTo(4);
+        final long started = System.nanoTime();
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(shaper.getInFlight()).isZero();
+    }
+
+    @Test
+    void slotIsHeldUntilTheBodyIsClosed() throws IOException {
+        final var shaper = new TrafficShaper(settings);
+        final var client = new OkHttpClient.Builder().addInterceptor(TestServers.redirectTo(server)).addInterceptor(shaper).build();
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        final var response = client.newCall(new InegiServiceImpl(client).mxStatesRequest()).execute();
+        assertThat(shaper.getInFlight()).isEqualTo(1);
+        assertThat(response.body().string()).contains("Ciudad de M");
+        assertThat(shaper.getInFlight()).isZero();
+        response.close();
+        assertThat(shaper.getInFlight()).isZero();
+    }
+
+    @Test
+    void cachedResponsesAreNotShaped(@TempDir Path cache) {
+        final var http = new InegiProperties.Http();
+        http.getDiskCache().setDirectory(cache);
+        http.getRateLimit().setEnabled(true);
+        http.getRateLimit().setRate(0.1);
+        http.getRateLimit().setBurst(1);
+        http.getRateLimit().setMaxQueueTime(Duration.ZERO);
+        http.setCleartext(true);
+        final var service = new InegiServiceImpl(HttpClientFactory.create(http, List.of(TestServers.redirectTo(server))));
+        server.enqueue(new MockResponse().setBody(fixture("inegi/mgee/all.json")));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.getMxStates()).hasSize(5);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.rubenqba.inegi.snapshot;
+
+import com.github.rubenqba.inegi.domain.MxLocality;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.rubenqba.inegi.domain.LocaltyScope.RURAL;
+import static com.github.rubenqba.inegi.domain.LocaltyScope.URBANO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedCatalogServiceTest {
+
+    private static final MxState cdmx = new MxState("09", "Ciudad de México", "CDMX");
+    private static final MxState sonora = new MxState("26", "Sonora", "Son.");
+    private static final MxMunicipal tlahuac = new MxMunicipal("011", "09", "Tláhuac", "0001");
+    private static final MxMunicipal xochimilco = new MxMunicipal("013", "09", "Xochimilco", "0001");
+    private static final MxLocality ixotitla = new MxLocality("0096", "09", "013", "Ixotitla", RURAL, 19.2372167, -99.0569950);
+    private static final MxLocality xochimilcoCenter = new MxLocality("0001", "09", "013", "Xochimilco", URBANO, 19.2572, -99.1031);
+    private static final MxLocality noCoordinates = new MxLocality("0002", "09", "011", "Tláhuac", null, null, null);
+
+    @TempDir
+    Path folder;
+
+    private MappedCatalogService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final var file = folder.resolve("catalog.bin");
+        new CatalogSnapshotBuilder()
+                .updatedAt("2020-03-01")
+                .add(sonora).add(cdmx)
+                .add(xochimilco).add(tlahuac)
+                .add(ixotitla).add(xochimilcoCenter).add(noCoordinates)
+                .write(file);
+        service = MappedCatalogService.open(file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.close();
+    }
+
+    @Test
+    void header() {
+        assertThat(service.getUpdatedAt()).contains("2020-03-01");
+        assertThat(service.getLocalityCount()).isEqualTo(3);
+    }
+
+    @Test
+    void states() {
+        assertThat(service.getMxStates()).containsExactly(cdmx, sonora);
+        assertThat(service.getMxState("26")).contains(sonora);
+        assertThat(service.getMxState("XX")).isNotPresent();
+        assertThat(service.getMxState("27")).isNotPresent();
+    }
+
+    @Test
+    void municipals() {
+        assertThat(service.getMxMunicipals(cdmx)).containsExactly(tlahuac, xochimilco);
+        assertThat(service.getMxMunicipals(sonora)).isEmpty();
+        assertThat(service.getMxMunicipal("09", "013")).contains(xochimilco);
+        assertThat(service.getMxMunicipal("14", "ZZZ")).isNotPresent();
+    }
+
+    @Test
+    void localities() {
+        assertThat(service.getMxLocalities(xochimilco)).containsExactly(xochimilcoCenter, ixotitla);
+        assertThat(service.getMxLocalities(tlahuac)).containsExactly(noCoordinates);
+        assertThat(service.getMxLocality("09", "013", "0096")).contains(ixotitla);
+        assertThat(service.getMxLocality("09", "013", "XXXX")).isNotPresent();
+    }
+
+    @Test
+    void invalidFile() throws IOException {
+        final var file = Files.writeString(folder.resolve("invalid.bin"), "not a snapshot file at all, just some text to fill the header");
+        assertThatThrownBy(() -> MappedCatalogService.open(file)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.rubenqba.inegi.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in of the INEGI catalog service replaying the recorded responses in {@code src/test/resources/inegi}.
+ * <p>
+ * Lists are answered from the recorded file of the same path, and single lookups ({@code mgee/SS},
+ * {@code mgem/SS/MMM}, {@code localidades/SSMMMLLLL}) from the record of their parent list. Anything not recorded is
+ * answered 404. Latency, server errors (503) and throttling (429 beyond a number of requests per second) can be
+ * injected and changed while the stand-in is running.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.github.rubenqba.inegi.standin.InegiStandIn \
+ *     -Dexec.args="--port 8089 --latency 50ms --jitter 20ms --error-rate 0.01 --throttle 200"
+ * </pre>
+ *
+ * @author Ruben Bresler
+ * @since 1.1.0
+ */
+@Slf4j
+public class InegiStandIn implements Closeable {
+
+    private static final String CONTEXT = "/wscatgeo";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Optional<ObjectNode>> records = new ConcurrentHashMap<>();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int throttle;
+
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger windowRequests = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * @param latency time every response waits before being answered
+     * @param jitter maximum random time added to the latency
+     * @return this stand-in
+     */
+    public InegiStandIn withLatency(Duration latency, Duration jitter) {
+        this.latency = Objects.requireNonNull(latency);
+        this.jitter = Objects.requireNonNull(jitter);
+        return this;
+    }
+
+    /**
+     * @param errorRate fraction of the requests answered 503
+     * @return this stand-in
+     */
+    public InegiStandIn withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * @param requestsPerSecond requests answered every second before answering 429, zero to answer them all
+     * @return this stand-in
+     */
+    public InegiStandIn withThrottle(int requestsPerSecond) {
+        this.throttle = requestsPerSecond;
+        return this;
+    }
+
+    public InegiStandIn start() throws IOException {
+        return start(0);
+    }
+
+    /**
+     * @param port listening port, zero for any free port
+     * @return this stand-in
+     * @throws IOException if the port is not available
+     */
+    public InegiStandIn start(int port) throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return answer(request.getRequestUrl().encodedPath());
+            }
+        });
+        server.start(port);
+        return this;
+    }
+
+    /**
+     * @return base URL to configure in the connector ({@code inegi.base-url})
+     */
+    public String getBaseUrl() {
+        return server.url(CONTEXT).toString();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    private MockResponse answer(String path) {
+        requests.increment();
+        final var random = ThreadLocalRandom.current();
+        final long delay = latency.toNanos() + (jitter.isZero() ? 0 : random.nextLong(jitter.toNanos() + 1));
+        final MockResponse response;
+        if (throttled()) {
+            throttled.increment();
+            response = new MockResponse().setResponseCode(429).setHeader("Retry-After", "1");
+        } else if (errorRate > 0 && random.nextDouble() < errorRate) {
+            errors.increment();
+            response = new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE);
+        } else {
+            response = lookup(path)
+                    .map(body -> new MockResponse().setHeader("Content-Type", "application/json").setBody(new Buffer().write(body)))
+                    .orElseGet(() -> new MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_FOUND));
+        }
+        return response.setHeadersDelay(delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * count the request in the current one second window
+     * @return whether the request exceeds the throttle
+     */
+    private boolean throttled() {
+        final int limit = throttle;
+        if (limit <= 0) {
+            return false;
+        }
+        final long current = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        final long previous = window.get();
+        if (current != previous && window.compareAndSet(previous, current)) {
+            windowRequests.set(0);
+        }
+        return windowRequests.incrementAndGet() > limit;
+    }
+
+    private Optional<byte[]> lookup(String path) {
+        if (!path.startsWith(CONTEXT + "/")) {
+            return Optional.empty();
+        }
+        final var segments = path.substring(CONTEXT.length() + 1).split("/");
+        switch (segments[0]) {
+            case "mgee":
+                return segments.length == 1 ? list("mgee/all") : single("mgee/all", "cve_agee", segments[1]).map(this::unwrap).map(this::write);
+            case "mgem":
+                return segments.length == 2 ? list("mgem/" + segments[1])
+                        : single("mgem/" + segments[1], "cve_agem", segments[2]).map(this::write);
+            case "localidades":
+                if (segments.length == 3) {
+                    return list("localidades/" + segments[1] + "/" + segments[2]);
+                }
+                final var key = segments[1];
+                return key.length() != 9 ? Optional.empty()
+                        : single("localidades/" + key.substring(0, 2) + "/" + key.substring(2, 5), "cve_loc", key.substring(5)).map(this::write);
+            default:
+                return list(String.join("/", segments));
+        }
+    }
+
+    private Optional<byte[]> list(String name) {
+        return record(name).map(this::write);
+    }
+
+    /**
+     * single record of a list, as a list of one record
+     */
+    private Optional<ObjectNode> single(String list, String field, String key) {
+        return record(list).map(record -> {
+            final var filtered = record.deepCopy();
+            final ArrayNode datos = filtered.putArray("datos");
+            record.path("datos").forEach(item -> {
+                if (key.equals(item.path(field).asText())) {
+                    datos.add(item);
+                }
+            });
+            filtered.put("numReg", datos.size());
+            return filtered;
+        }).filter(record -> record.get("datos").size() > 0);
+    }
+
+    /**
+     * INEGI answers a single state as an object instead of a list of one
+     */
+    private ObjectNode unwrap(ObjectNode record) {
+        record.set("datos", record.get("datos").get(0));
+        return record;
+    }
+
+    private Optional<ObjectNode> record(String name) {
+        return records.computeIfAbsent(name, key -> {
+            try (var input = InegiStandIn.class.getClassLoader().getResourceAsStream("inegi/" + key + ".json")) {
+                return Objects.isNull(input) ? Optional.empty() : Optional.of((ObjectNode) mapper.readTree(input));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private byte[] write(ObjectNode record) {
+        try {
+            return mapper.writeValueAsBytes(record);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final var standIn = new InegiStandIn();
+        var port = 8089;
+        var latency = Duration.ZERO;
+        var jitter = Duration.ZERO;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--latency":
+                    latency = DurationStyle.detectAndParse(args[++i]);
+                    break;
+                case "--jitter":
+                    jitter = DurationStyle.detectAndParse(args[++i]);
+                    break;
+                case "--error-rate":
+                    standIn.withErrorRate(Double.parseDouble(args[++i]));
+                    break;
+                case "--throttle":
+                    standIn.withThrottle(Integer.parseInt(args[++i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unexpected argument '" + args[i] + "'");
+            }
+        }
+        standIn.withLatency(latency, jitter).start(port);
+        log.info("INEGI stand-in listening on {}", standIn.getBaseUrl());
+        Thread.currentThread().join();
+    }
+}
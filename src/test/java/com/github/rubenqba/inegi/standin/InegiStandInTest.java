@@ -0,0 +1,54 @@
+package com.github.rubenqba.inegi.standin;
+
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InegiStandInTest {
+
+    private final InegiStandIn standIn = new InegiStandIn();
+    private InegiServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        standIn.start();
+        service = new InegiServiceImpl(new OkHttpClient(), InegiCallListener.NONE, standIn.getBaseUrl());
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        standIn.close();
+    }
+
+    @Test
+    void replaysRecordedResponses() {
+        assertThat(service.getMxStates()).hasSize(5);
+        assertThat(service.getMxState("26")).hasValueSatisfying(state -> assertThat(state.getName()).isEqualTo("Sonora"));
+        assertThat(service.getMxState("02")).isEmpty();
+        assertThat(service.getMxMunicipals(new MxState("09", "Ciudad de México", "CDMX"))).hasSize(2);
+        assertThat(service.getMxMunicipal("09", "013")).isPresent();
+        assertThat(service.getMxLocality("09", "013", "0001")).isPresent();
+        assertThat(service.getMxLocality("09", "012", "0001")).isEmpty();
+    }
+
+    @Test
+    void injectsErrorsAndThrottling() {
+        standIn.withErrorRate(1);
+        assertThat(service.getMxStates()).isEmpty();
+        assertThat(standIn.getErrors()).isEqualTo(1);
+
+        standIn.withErrorRate(0).withThrottle(1);
+        for (String state : new String[]{"01", "09", "14", "19", "26"}) {
+            service.getMxState(state);
+        }
+        assertThat(standIn.getThrottled()).isBetween(3L, 4L);
+    }
+}
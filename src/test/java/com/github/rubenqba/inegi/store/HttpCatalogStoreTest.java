@@ -0,0 +1,129 @@
+package com.github.rubenqba.inegi.store;
+
+import com.github.rubenqba.inegi.InegiProperties;
+import com.github.rubenqba.inegi.domain.MxMunicipal;
+import com.github.rubenqba.inegi.domain.MxState;
+import com.github.rubenqba.inegi.service.impl.HttpClientFactory;
+import com.github.rubenqba.inegi.service.impl.InegiCallListener;
+import com.github.rubenqba.inegi.service.impl.InegiServiceImpl;
+import com.github.rubenqba.inegi.standin.InegiStandIn;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpCatalogStoreTest {
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final InegiStandIn inegi = new InegiStandIn();
+    private final MockWebServer keyValue = new MockWebServer();
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+    private final CountDownLatch stored = new CountDownLatch(1);
+
+    @BeforeEach
+    void start() throws IOException {
+        inegi.start();
+        keyValue.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                final String path = request.getPath();
+                if ("PUT".equals(request.getMethod())) {
+                    entries.put(path, request.getBody().readByteArray());
+                    stored.countDown();
+                    return new MockResponse().setResponseCode(204);
+                }
+                final byte[] entry = entries.get(path);
+                return entry == null ? new MockResponse().setResponseCode(404) : new MockResponse().setBody(new Buffer().write(entry));
+            }
+        });
+        keyValue.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        keyValue.shutdown();
+        inegi.close();
+    }
+
+    private InegiServiceImpl node(CatalogStore store) {
+        return new InegiServiceImpl(client, InegiCallListener.NONE, inegi.getBaseUrl(), store);
+    }
+
+    private HttpCatalogStore store(Duration ttl) {
+        return new HttpCatalogStore(client, keyValue.url("/catalog").toString(), ttl, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void oneNodeWarmsTheOthers() throws InterruptedException {
+        final var first = node(store(Duration.ofHours(1)));
+        final var second = node(store(Duration.ofHours(1)));
+        final var cdmx = new MxState("09", "Ciudad de México", "CDMX");
+
+        assertThat(first.getMxMunicipals(cdmx)).hasSize(2);
+        assertThat(inegi.getRequests()).isEqualTo(1);
+        assertThat(keyValue.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/catalog/wscatgeo/mgem/09");
+        final var put = keyValue.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(put.getMethod()).isEqualTo("PUT");
+        assertThat(put.getBodySize()).isPositive();
+        // the request is recorded before the dispatcher keeps the entry
+        assertThat(stored.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(second.getMxMunicipals(cdmx)).hasSize(2);
+        assertThat(second.getMxLocalities(new MxMunicipal("013", "09", "Xochimilco", "0001"))).isNotEmpty();
+        assertThat(second.getStoreHits()).isEqualTo(1);
+        assertThat(inegi.getRequests()).isEqualTo(2);
+        assertThat(second.getCatalogUpdate()).hasValue("2020-03-01");
+    }
+
+    @Test
+    void storeBypassesTheInegiCacheAndRateLimit(@TempDir Path cache) {
+        final var settings = new InegiProperties.Http();
+        settings.getDiskCache().setDirectory(cache);
+        settings.getRateLimit().setEnabled(true);
+        settings.getRateLimit().setRate(0.1);
+        settings.getRateLimit().setBurst(1);
+        final var key = "wscatgeo/mgee";
+        entries.put("/catalog/" + key, StoreEntry.of("2020-03-01", Instant.now(), new byte[]{'{', '}'}).toBytes());
+        final var store = new HttpCatalogStore(HttpClientFactory.create(settings), keyValue.url("/catalog").toString(),
+                Duration.ofHours(1), Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.get(key)).isPresent();
+        }
+        assertThat(keyValue.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void expiredOrUnreachableEntriesAreMisses() throws IOException {
+        final var key = "wscatgeo/mgee";
+        final var stored = Instant.parse("2020-03-02T00:00:00Z");
+        entries.put("/catalog/" + key, StoreEntry.of("2020-03-01", stored, new byte[]{'{', '}'}).toBytes());
+        final var clock = Clock.fixed(stored.plus(Duration.ofHours(2)), ZoneOffset.UTC);
+
+        assertThat(new HttpCatalogStore(client, keyValue.url("/catalog").toString(), Duration.ofHours(3), Duration.ofSeconds(1), clock).get(key)).isPresent();
+        assertThat(new HttpCatalogStore(client, keyValue.url("/catalog").toString(), Duration.ofHours(1), Duration.ofSeconds(1), clock).get(key)).isEmpty();
+
+        keyValue.shutdown();
+        assertThat(store(Duration.ofHours(3)).get(key)).isEmpty();
+        assertThat(node(store(Duration.ofHours(3))).getMxStates()).hasSize(5);
+    }
+}
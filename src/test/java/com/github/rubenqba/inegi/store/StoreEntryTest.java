@@ -0,0 +1,52 @@
+package com.github.rubenqba.inegi.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoreEntryTest {
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream input = StoreEntryTest.class.getClassLoader().getResourceAsStream(name)) {
+            return Objects.requireNonNull(input).readAllBytes();
+        }
+    }
+
+    @Test
+    void serializedEntryIsCompact() throws IOException {
+        final byte[] body = fixture("inegi/localidades/09/013.json");
+        final var storedAt = Instant.parse("2020-03-02T10:15:30Z");
+        final var entry = StoreEntry.of("2020-03-01", storedAt, body);
+
+        final byte[] bytes = entry.toBytes();
+        assertThat(bytes.length).isLessThan(body.length / 2);
+
+        final var read = StoreEntry.fromBytes(bytes);
+        assertThat(read.getVersion()).isEqualTo("2020-03-01");
+        assertThat(read.getStoredAt()).isEqualTo(storedAt);
+        assertThat(read.body()).isEqualTo(body);
+        assertThat(read.age(storedAt.plusSeconds(60))).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void unversionedEntry() throws IOException {
+        final var entry = StoreEntry.of(null, Instant.EPOCH, new byte[]{'{', '}'});
+        assertThat(StoreEntry.fromBytes(entry.toBytes()).getVersion()).isNull();
+    }
+
+    @Test
+    void corruptEntryIsRejected() {
+        final byte[] bytes = StoreEntry.of("2020-03-01", Instant.EPOCH, new byte[100]).toBytes();
+        assertThatThrownBy(() -> StoreEntry.fromBytes(Arrays.copyOf(bytes, bytes.length - 1))).isInstanceOf(IOException.class);
+        bytes[0] = 7;
+        assertThatThrownBy(() -> StoreEntry.fromBytes(bytes)).isInstanceOf(IOException.class);
+    }
+}